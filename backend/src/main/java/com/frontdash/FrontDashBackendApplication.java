@@ -4,8 +4,11 @@ import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+// Scheduler pool size is spring.task.scheduling.pool.size in application.properties
+@EnableScheduling
 @OpenAPIDefinition(
         info = @Info(
                 title = "Dashboard Backend API",
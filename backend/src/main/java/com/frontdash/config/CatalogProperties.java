@@ -0,0 +1,118 @@
+package com.frontdash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "catalog")
+public class CatalogProperties {
+
+    private int menuCacheSize = 500; // restaurants whose menu snapshot is kept in memory
+    private long menuCacheTtlSeconds = 300; // a snapshot is reloaded after this even without a change
+    private long searchRefreshIntervalMs = 1000; // how often changed restaurants are re-indexed for search
+    private int searchMaxResults = 50; // upper bound on the limit a search request may ask for
+    private long openHoursRefreshIntervalMs = 1000; // how often changed opening hours are applied to the open-now index
+    private String zipCentroidsLocation = "classpath:geo/zip-centroids.csv"; // zip code centroid file, see ZipCentroids
+    private double geoCellKm = 5; // grid cell size of the restaurant location index
+    private double geoMaxRadiusKm = 100; // largest radius a nearby-restaurant search may ask for
+    private long geoRefreshIntervalMs = 1000; // how often changed restaurant addresses are applied to the location index
+    private int nearbyDefaultPageSize = 20; // page size of nearby-restaurant searches when none is given
+    private int nearbyMaxPageSize = 100; // cap on the page size a nearby-restaurant search may ask for
+    private long versionRefreshIntervalMs = 1000; // how often catalog versions changed through other nodes are picked up
+
+    public int getMenuCacheSize() {
+        return menuCacheSize;
+    }
+
+    public void setMenuCacheSize(int menuCacheSize) {
+        this.menuCacheSize = menuCacheSize;
+    }
+
+    public long getMenuCacheTtlSeconds() {
+        return menuCacheTtlSeconds;
+    }
+
+    public void setMenuCacheTtlSeconds(long menuCacheTtlSeconds) {
+        this.menuCacheTtlSeconds = menuCacheTtlSeconds;
+    }
+
+    public long getSearchRefreshIntervalMs() {
+        return searchRefreshIntervalMs;
+    }
+
+    public void setSearchRefreshIntervalMs(long searchRefreshIntervalMs) {
+        this.searchRefreshIntervalMs = searchRefreshIntervalMs;
+    }
+
+    public int getSearchMaxResults() {
+        return searchMaxResults;
+    }
+
+    public void setSearchMaxResults(int searchMaxResults) {
+        this.searchMaxResults = searchMaxResults;
+    }
+
+    public long getOpenHoursRefreshIntervalMs() {
+        return openHoursRefreshIntervalMs;
+    }
+
+    public void setOpenHoursRefreshIntervalMs(long openHoursRefreshIntervalMs) {
+        this.openHoursRefreshIntervalMs = openHoursRefreshIntervalMs;
+    }
+
+    public String getZipCentroidsLocation() {
+        return zipCentroidsLocation;
+    }
+
+    public void setZipCentroidsLocation(String zipCentroidsLocation) {
+        this.zipCentroidsLocation = zipCentroidsLocation;
+    }
+
+    public double getGeoCellKm() {
+        return geoCellKm;
+    }
+
+    public void setGeoCellKm(double geoCellKm) {
+        this.geoCellKm = geoCellKm;
+    }
+
+    public double getGeoMaxRadiusKm() {
+        return geoMaxRadiusKm;
+    }
+
+    public void setGeoMaxRadiusKm(double geoMaxRadiusKm) {
+        this.geoMaxRadiusKm = geoMaxRadiusKm;
+    }
+
+    public long getGeoRefreshIntervalMs() {
+        return geoRefreshIntervalMs;
+    }
+
+    public void setGeoRefreshIntervalMs(long geoRefreshIntervalMs) {
+        this.geoRefreshIntervalMs = geoRefreshIntervalMs;
+    }
+
+    public int getNearbyDefaultPageSize() {
+        return nearbyDefaultPageSize;
+    }
+
+    public void setNearbyDefaultPageSize(int nearbyDefaultPageSize) {
+        this.nearbyDefaultPageSize = nearbyDefaultPageSize;
+    }
+
+    public int getNearbyMaxPageSize() {
+        return nearbyMaxPageSize;
+    }
+
+    public void setNearbyMaxPageSize(int nearbyMaxPageSize) {
+        this.nearbyMaxPageSize = nearbyMaxPageSize;
+    }
+
+    public long getVersionRefreshIntervalMs() {
+        return versionRefreshIntervalMs;
+    }
+
+    public void setVersionRefreshIntervalMs(long versionRefreshIntervalMs) {
+        this.versionRefreshIntervalMs = versionRefreshIntervalMs;
+    }
+}
@@ -0,0 +1,307 @@
+package com.frontdash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "orders")
+public class OrderProperties {
+
+    private int idBlockSize = 100; // order ids reserved per database round trip
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+    private int eventReplayWindow = 1000; // recent order events kept for Last-Event-ID resume
+    private int eventSubscriberBufferSize = 256; // undelivered events per SSE client before it is dropped
+    private long eventStreamTimeoutMs = 1800000; // SSE connections are closed after this; clients reconnect
+    private boolean dispatchEnabled = true; // automatically assign pending orders to available drivers
+    private int dispatchBatchSize = 50; // orders matched per dispatcher tick
+    private long dispatchIntervalMs = 2000;
+    private long dispatchResyncIntervalMs = 60000; // driver pool is reloaded from the database this often
+    private int bulkMaxBatchSize = 500; // orders accepted per POST /api/orders/bulk
+    private int statsRetentionDays = 35; // days of restaurant statistics kept in memory; older days are read from the rollup table
+    private long rollupSettleSeconds = 60; // the hourly rollup job leaves orders changed this recently for its next run
+    private long rollupLookbackMinutes = 10; // each run re-reads changes this far behind its watermark to catch late commits
+    private boolean archiveEnabled = true; // move old finished orders to the archive tables
+    private int archiveAfterDays = 90; // never less than stats-retention-days + 1, see OrderArchiveService
+    private int archiveChunkSize = 500; // orders moved per archival transaction
+    private long archivePauseMs = 200; // pause between chunks so archival does not starve live traffic
+    private int archiveMaxChunksPerRun = 200;
+    private int idempotencyCacheSize = 10000; // completed Idempotency-Key results kept in memory
+    private long idempotencyTtlSeconds = 86400; // how long a key is remembered, in memory and in the database
+    private boolean intakeEnabled = false; // acknowledge orders before they are written, see OrderIntakeService
+    private int intakeQueueCapacity = 5000; // acknowledged orders waiting to be written before new ones get 503
+    private int intakeBatchSize = 200; // orders written per intake transaction
+    private String intakeJournalPath = "data/order-intake.journal";
+    private int intakeRetryAfterSeconds = 2; // Retry-After sent with 503 when the intake queue is full
+    private long intakeRetryBackoffMs = 1000; // wait before retrying a batch after a database error
+    private int outboxBatchSize = 100; // outbox events delivered and deleted per relay transaction
+    private int etaHistoryDays = 28; // delivered orders read into the delivery time history at startup
+    private int etaPercentile = 80; // share of past deliveries, in percent, that arrived by the estimate
+    private int etaMinSamples = 20; // deliveries an hour of the week needs before it is used on its own
+    private int etaMaxSamples = 2000; // a history halves its counts at this size, see DeliveryTimeEstimator
+    private int etaDefaultMinutes = 45; // estimate for restaurants without history when the client sends none
+
+    public int getIdBlockSize() {
+        return idBlockSize;
+    }
+
+    public void setIdBlockSize(int idBlockSize) {
+        this.idBlockSize = idBlockSize;
+    }
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int getEventReplayWindow() {
+        return eventReplayWindow;
+    }
+
+    public void setEventReplayWindow(int eventReplayWindow) {
+        this.eventReplayWindow = eventReplayWindow;
+    }
+
+    public int getEventSubscriberBufferSize() {
+        return eventSubscriberBufferSize;
+    }
+
+    public void setEventSubscriberBufferSize(int eventSubscriberBufferSize) {
+        this.eventSubscriberBufferSize = eventSubscriberBufferSize;
+    }
+
+    public long getEventStreamTimeoutMs() {
+        return eventStreamTimeoutMs;
+    }
+
+    public void setEventStreamTimeoutMs(long eventStreamTimeoutMs) {
+        this.eventStreamTimeoutMs = eventStreamTimeoutMs;
+    }
+
+    public boolean isDispatchEnabled() {
+        return dispatchEnabled;
+    }
+
+    public void setDispatchEnabled(boolean dispatchEnabled) {
+        this.dispatchEnabled = dispatchEnabled;
+    }
+
+    public int getDispatchBatchSize() {
+        return dispatchBatchSize;
+    }
+
+    public void setDispatchBatchSize(int dispatchBatchSize) {
+        this.dispatchBatchSize = dispatchBatchSize;
+    }
+
+    public long getDispatchIntervalMs() {
+        return dispatchIntervalMs;
+    }
+
+    public void setDispatchIntervalMs(long dispatchIntervalMs) {
+        this.dispatchIntervalMs = dispatchIntervalMs;
+    }
+
+    public long getDispatchResyncIntervalMs() {
+        return dispatchResyncIntervalMs;
+    }
+
+    public void setDispatchResyncIntervalMs(long dispatchResyncIntervalMs) {
+        this.dispatchResyncIntervalMs = dispatchResyncIntervalMs;
+    }
+
+    public int getBulkMaxBatchSize() {
+        return bulkMaxBatchSize;
+    }
+
+    public void setBulkMaxBatchSize(int bulkMaxBatchSize) {
+        this.bulkMaxBatchSize = bulkMaxBatchSize;
+    }
+
+    public int getStatsRetentionDays() {
+        return statsRetentionDays;
+    }
+
+    public void setStatsRetentionDays(int statsRetentionDays) {
+        this.statsRetentionDays = statsRetentionDays;
+    }
+
+    public long getRollupSettleSeconds() {
+        return rollupSettleSeconds;
+    }
+
+    public void setRollupSettleSeconds(long rollupSettleSeconds) {
+        this.rollupSettleSeconds = rollupSettleSeconds;
+    }
+
+    public long getRollupLookbackMinutes() {
+        return rollupLookbackMinutes;
+    }
+
+    public void setRollupLookbackMinutes(long rollupLookbackMinutes) {
+        this.rollupLookbackMinutes = rollupLookbackMinutes;
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    public void setArchiveEnabled(boolean archiveEnabled) {
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    public int getArchiveAfterDays() {
+        return archiveAfterDays;
+    }
+
+    public void setArchiveAfterDays(int archiveAfterDays) {
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    public int getArchiveChunkSize() {
+        return archiveChunkSize;
+    }
+
+    public void setArchiveChunkSize(int archiveChunkSize) {
+        this.archiveChunkSize = archiveChunkSize;
+    }
+
+    public long getArchivePauseMs() {
+        return archivePauseMs;
+    }
+
+    public void setArchivePauseMs(long archivePauseMs) {
+        this.archivePauseMs = archivePauseMs;
+    }
+
+    public int getArchiveMaxChunksPerRun() {
+        return archiveMaxChunksPerRun;
+    }
+
+    public void setArchiveMaxChunksPerRun(int archiveMaxChunksPerRun) {
+        this.archiveMaxChunksPerRun = archiveMaxChunksPerRun;
+    }
+
+    public int getIdempotencyCacheSize() {
+        return idempotencyCacheSize;
+    }
+
+    public void setIdempotencyCacheSize(int idempotencyCacheSize) {
+        this.idempotencyCacheSize = idempotencyCacheSize;
+    }
+
+    public long getIdempotencyTtlSeconds() {
+        return idempotencyTtlSeconds;
+    }
+
+    public void setIdempotencyTtlSeconds(long idempotencyTtlSeconds) {
+        this.idempotencyTtlSeconds = idempotencyTtlSeconds;
+    }
+
+    public boolean isIntakeEnabled() {
+        return intakeEnabled;
+    }
+
+    public void setIntakeEnabled(boolean intakeEnabled) {
+        this.intakeEnabled = intakeEnabled;
+    }
+
+    public int getIntakeQueueCapacity() {
+        return intakeQueueCapacity;
+    }
+
+    public void setIntakeQueueCapacity(int intakeQueueCapacity) {
+        this.intakeQueueCapacity = intakeQueueCapacity;
+    }
+
+    public int getIntakeBatchSize() {
+        return intakeBatchSize;
+    }
+
+    public void setIntakeBatchSize(int intakeBatchSize) {
+        this.intakeBatchSize = intakeBatchSize;
+    }
+
+    public String getIntakeJournalPath() {
+        return intakeJournalPath;
+    }
+
+    public void setIntakeJournalPath(String intakeJournalPath) {
+        this.intakeJournalPath = intakeJournalPath;
+    }
+
+    public int getIntakeRetryAfterSeconds() {
+        return intakeRetryAfterSeconds;
+    }
+
+    public void setIntakeRetryAfterSeconds(int intakeRetryAfterSeconds) {
+        this.intakeRetryAfterSeconds = intakeRetryAfterSeconds;
+    }
+
+    public long getIntakeRetryBackoffMs() {
+        return intakeRetryBackoffMs;
+    }
+
+    public void setIntakeRetryBackoffMs(long intakeRetryBackoffMs) {
+        this.intakeRetryBackoffMs = intakeRetryBackoffMs;
+    }
+
+    public int getOutboxBatchSize() {
+        return outboxBatchSize;
+    }
+
+    public void setOutboxBatchSize(int outboxBatchSize) {
+        this.outboxBatchSize = outboxBatchSize;
+    }
+
+    public int getEtaHistoryDays() {
+        return etaHistoryDays;
+    }
+
+    public void setEtaHistoryDays(int etaHistoryDays) {
+        this.etaHistoryDays = etaHistoryDays;
+    }
+
+    public int getEtaPercentile() {
+        return etaPercentile;
+    }
+
+    public void setEtaPercentile(int etaPercentile) {
+        this.etaPercentile = etaPercentile;
+    }
+
+    public int getEtaMinSamples() {
+        return etaMinSamples;
+    }
+
+    public void setEtaMinSamples(int etaMinSamples) {
+        this.etaMinSamples = etaMinSamples;
+    }
+
+    public int getEtaMaxSamples() {
+        return etaMaxSamples;
+    }
+
+    public void setEtaMaxSamples(int etaMaxSamples) {
+        this.etaMaxSamples = etaMaxSamples;
+    }
+
+    public int getEtaDefaultMinutes() {
+        return etaDefaultMinutes;
+    }
+
+    public void setEtaDefaultMinutes(int etaDefaultMinutes) {
+        this.etaDefaultMinutes = etaDefaultMinutes;
+    }
+}
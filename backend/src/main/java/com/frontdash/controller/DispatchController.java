@@ -0,0 +1,25 @@
+package com.frontdash.controller;
+
+import com.frontdash.dao.response.DispatchMetricsResponse;
+import com.frontdash.service.DispatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dispatch")
+@Tag(name = "Dispatch", description = "APIs for automatic driver dispatch")
+@CrossOrigin(origins = "*")
+public class DispatchController {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Dispatch metrics", description = "Unassigned pending orders, pooled available drivers and time-to-assign statistics")
+    public ResponseEntity<DispatchMetricsResponse> getMetrics() {
+        return ResponseEntity.ok(dispatchService.getMetrics());
+    }
+}
@@ -5,12 +5,18 @@ import com.frontdash.dao.request.MenuItemCreateRequest;
 import com.frontdash.dao.request.MenuItemUpdateRequest;
 import com.frontdash.dao.response.MenuItemResponse;
 import com.frontdash.entity.MenuCategory;
+import com.frontdash.service.CatalogVersions;
 import com.frontdash.service.RestaurantService;
+import com.frontdash.util.EncodedPayload;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,10 +32,25 @@ public class MenuController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @GetMapping
-    @Operation(summary = "List menu items for restaurant")
-    public ResponseEntity<List<MenuItemResponse>> getMenu(@PathVariable Integer restaurantId) {
-        return ResponseEntity.ok(restaurantService.getMenuItems(restaurantId));
+    @Operation(summary = "List menu items for restaurant", description = "Carries a strong ETag; send it back in If-None-Match to get 304 while the menu is unchanged. Gzipped when Accept-Encoding allows it")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Menu items ordered by category",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = MenuItemResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "If-None-Match still matches the menu")
+    })
+    public ResponseEntity<byte[]> getMenu(
+            @PathVariable Integer restaurantId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String etag = catalogVersions.menuETag(restaurantId);
+        if (CatalogVersions.notModified(ifNoneMatch, etag)) {
+            return EncodedPayload.notModified(acceptEncoding, etag);
+        }
+        return restaurantService.getMenuPayload(restaurantId).toResponse(acceptEncoding, etag);
     }
 
     @PostMapping
@@ -1,17 +1,37 @@
 package com.frontdash.controller;
 
 import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.dao.response.BulkOrderResponse;
+import com.frontdash.dao.response.OrderIntakeMetricsResponse;
+import com.frontdash.dao.response.OrderOutboxMetricsResponse;
+import com.frontdash.dao.response.OrderPageResponse;
 import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.dao.response.OrderSummaryResponse;
 import com.frontdash.entity.Orders;
+import com.frontdash.exception.IntakeQueueFullException;
+import com.frontdash.exception.OrderConflictException;
+import com.frontdash.service.BulkOrderService;
+import com.frontdash.service.OrderEventStream;
+import com.frontdash.service.OrderExportService;
+import com.frontdash.service.OrderIdempotencyService;
+import com.frontdash.service.OrderIntakeService;
+import com.frontdash.service.OrderOutboxRelay;
 import com.frontdash.service.OrderService;
 
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,10 +44,66 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderOutboxRelay orderOutboxRelay;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderEventStream orderEventStream;
+
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@RequestBody OrderRequest request) {
-        OrderResponse resp = orderService.createOrder(request);
-        return ResponseEntity.ok(resp);
+    @Operation(summary = "Create an order", description = "Retries with the same Idempotency-Key header return the order created by the first request. "
+            + "With write-behind intake enabled, requests without a key are answered with 202 before the order is written, or 503 with Retry-After when the intake queue is full")
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody OrderRequest request) {
+        try {
+            // Keyed requests stay synchronous: the key is stored in the order's own transaction
+            if (idempotencyKey == null && orderIntakeService.isEnabled()) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderIntakeService.accept(request));
+            }
+            OrderResponse resp = orderIdempotencyService.createOrder(idempotencyKey, request);
+            return ResponseEntity.ok(resp);
+        } catch (IntakeQueueFullException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/intake/metrics")
+    @Operation(summary = "Order intake metrics", description = "Queue depth, accepted/written throughput and batch statistics of the write-behind order intake")
+    public ResponseEntity<OrderIntakeMetricsResponse> getIntakeMetrics() {
+        return ResponseEntity.ok(orderIntakeService.getMetrics());
+    }
+
+    @GetMapping("/outbox/metrics")
+    @Operation(summary = "Order outbox metrics", description = "Backlog, delivery lag and listener errors of the order event outbox relay")
+    public ResponseEntity<OrderOutboxMetricsResponse> getOutboxMetrics() {
+        return ResponseEntity.ok(orderOutboxRelay.getMetrics());
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Create orders in bulk", description = "Validates and inserts a batch of orders together. Each order gets its own result; invalid orders do not stop the rest")
+    public ResponseEntity<BulkOrderResponse> createOrders(@RequestBody List<OrderRequest> requests) {
+        try {
+            return ResponseEntity.ok(bulkOrderService.createOrders(requests));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -39,7 +115,41 @@ public class OrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getOrders(
+    @Operation(summary = "List orders", description = "Keyset-paginated order listing, newest first. Pass nextCursor back as cursor to get the next page")
+    public ResponseEntity<OrderPageResponse> getOrders(
+            @RequestParam(required = false) Integer restaurantId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean hasDriver,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Orders.OrderStatus orderStatus = status == null ? null : Orders.OrderStatus.valueOf(status.toUpperCase());
+            return ResponseEntity.ok(orderService.getOrdersPage(restaurantId, orderStatus, hasDriver, cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "List order summaries by status", description = "Every order in a status, newest first, with only the order's own columns (no restaurant, address or items)")
+    public ResponseEntity<List<OrderSummaryResponse>> getOrderSummaries(
+            @RequestParam String status,
+            @RequestParam(required = false) Boolean hasDriver) {
+        try {
+            Orders.OrderStatus orderStatus = Orders.OrderStatus.valueOf(status.toUpperCase());
+            return ResponseEntity.ok(orderService.getOrderSummariesByStatus(orderStatus, hasDriver));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * @deprecated returns every matching order in one response; use the paginated listing instead
+     */
+    @Deprecated
+    @GetMapping(params = "unpaged=true")
+    @Operation(summary = "List all orders (unpaginated)", deprecated = true)
+    public ResponseEntity<List<OrderResponse>> getOrdersUnpaged(
             @RequestParam(required = false) Integer restaurantId,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Boolean hasDriver) {
@@ -53,23 +163,82 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export orders", description = "Stream all orders placed in [from, to) as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        OrderExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = OrderExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean csv = exportFormat == OrderExportService.ExportFormat.CSV;
+        StreamingResponseBody body = out -> orderExportService.export(from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Order event feed", description = "Server-Sent Events for order creation, driver assignment, status changes and delivery. "
+            + "Reconnect with Last-Event-ID to resume; a RESYNC event means the stream could not be resumed and the client should reload")
+    public ResponseEntity<SseEmitter> streamOrderEvents(
+            @RequestParam(required = false) Integer restaurantId,
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            Orders.OrderStatus orderStatus = status == null ? null : Orders.OrderStatus.valueOf(status.toUpperCase());
+            Long resumeFrom = lastEventId == null || lastEventId.isBlank() ? null : Long.valueOf(lastEventId);
+            return ResponseEntity.ok(orderEventStream.subscribe(restaurantId, orderStatus, resumeFrom));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/{id}/assign-driver")
+    @Operation(summary = "Assign driver", description = "Assigns an available driver to a pending order. Returns 409 if the order or driver was taken concurrently")
     public ResponseEntity<OrderResponse> assignDriver(@PathVariable String id, @RequestParam Integer driverId) {
-        OrderResponse resp = orderService.assignDriver(id, driverId);
-        return ResponseEntity.ok(resp);
+        try {
+            OrderResponse resp = orderService.assignDriver(id, driverId);
+            return ResponseEntity.ok(resp);
+        } catch (OrderConflictException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PatchMapping("/{id}/delivery")
     public ResponseEntity<OrderResponse> setDeliveryTime(@PathVariable String id,
                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deliveryTime) {
-        OrderResponse resp = orderService.updateDeliveryTime(id, deliveryTime);
-        return ResponseEntity.ok(resp);
+        try {
+            OrderResponse resp = orderService.updateDeliveryTime(id, deliveryTime);
+            return ResponseEntity.ok(resp);
+        } catch (OrderConflictException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<OrderResponse> updateOrderStatus(@PathVariable String id, @RequestParam String status) {
-        Orders.OrderStatus orderStatus = Orders.OrderStatus.valueOf(status.toUpperCase());
-        OrderResponse resp = orderService.updateOrderStatus(id, orderStatus);
-        return ResponseEntity.ok(resp);
+        try {
+            Orders.OrderStatus orderStatus = Orders.OrderStatus.valueOf(status.toUpperCase());
+            OrderResponse resp = orderService.updateOrderStatus(id, orderStatus);
+            return ResponseEntity.ok(resp);
+        } catch (OrderConflictException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
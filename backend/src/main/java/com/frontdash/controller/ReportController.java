@@ -0,0 +1,36 @@
+package com.frontdash.controller;
+
+import com.frontdash.dao.response.OrderHourlyRollupResponse;
+import com.frontdash.service.OrderRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Reports", description = "APIs for order reporting")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @GetMapping("/orders/hourly")
+    @Operation(summary = "Hourly order rollups", description = "Order counts, revenue, tips and delivery-time percentiles per restaurant and hour of order time in [from, to)")
+    public ResponseEntity<List<OrderHourlyRollupResponse>> getHourlyRollups(
+            @RequestParam(required = false) Integer restaurantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(orderRollupService.getHourlyRollups(restaurantId, from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -8,7 +8,11 @@ import com.frontdash.dao.request.RestaurantProfileUpdateRequest;
 import com.frontdash.dao.request.RestaurantContactUpdateRequest;
 import com.frontdash.dao.request.RestaurantAddressUpdateRequest;
 import com.frontdash.dao.response.*;
+import com.frontdash.service.CatalogSearchIndex;
+import com.frontdash.service.CatalogVersions;
 import com.frontdash.service.RestaurantService;
+import com.frontdash.service.RestaurantStatsService;
+import com.frontdash.util.EncodedPayload;
 import com.frontdash.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -18,10 +22,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -33,24 +41,89 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private RestaurantStatsService restaurantStatsService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
     @GetMapping
     @Operation(summary = "Get all restaurants", description = "Retrieve a list of all restaurants")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = RestaurantResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "If-None-Match still matches the list")
     })
-    public ResponseEntity<List<RestaurantResponse>> getAllRestaurants() {
-        List<RestaurantResponse> responseList = restaurantService.getAllRestaurants();
-        return ResponseEntity.ok(responseList);
+    public ResponseEntity<byte[]> getAllRestaurants(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String etag = catalogVersions.restaurantsETag();
+        if (CatalogVersions.notModified(ifNoneMatch, etag)) {
+            return EncodedPayload.notModified(acceptEncoding, etag);
+        }
+        return restaurantService.getAllRestaurantsPayload().toResponse(acceptEncoding, etag);
     }
 
     @GetMapping("/with-address")
     @Operation(summary = "Get all restaurants with addresses", description = "Retrieve a list of all restaurants including their full address information")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants with addresses")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants with addresses",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = RestaurantWithAddressResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "If-None-Match still matches the list")
     })
-    public ResponseEntity<List<RestaurantWithAddressResponse>> getAllRestaurantsWithAddress() {
-        List<RestaurantWithAddressResponse> responseList = restaurantService.getAllRestaurantsWithAddress();
-        return ResponseEntity.ok(responseList);
+    public ResponseEntity<byte[]> getAllRestaurantsWithAddress(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String etag = catalogVersions.restaurantsETag();
+        if (CatalogVersions.notModified(ifNoneMatch, etag)) {
+            return EncodedPayload.notModified(acceptEncoding, etag);
+        }
+        return restaurantService.getAllRestaurantsWithAddressPayload().toResponse(acceptEncoding, etag);
+    }
+
+    @GetMapping("/open")
+    @Operation(summary = "Restaurants open at a time", description = "Active restaurants whose operating hours cover the given local time (default now), including hours that run past midnight")
+    public ResponseEntity<List<RestaurantResponse>> getRestaurantsOpenAt(
+            @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(restaurantService.getRestaurantsOpenAt(at != null ? at : LocalDateTime.now()));
+    }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Restaurants near a zip code or address", description = "Active restaurants within radiusKm of the zip code (or of a saved address's zip code), nearest first, measured between zip code centroids. Pass nextCursor back as cursor to get the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One page of restaurants with their distance"),
+            @ApiResponse(responseCode = "400", description = "No or unknown zip code, invalid radius or cursor")
+    })
+    public ResponseEntity<NearbyRestaurantPageResponse> getRestaurantsNear(
+            @RequestParam(required = false) String zip,
+            @RequestParam(required = false) Integer addressId,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(restaurantService.getRestaurantsNear(zip, addressId, radiusKm, cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search restaurants and menu items", description = "Matches restaurant names, menu item names, descriptions and categories by word, prefix or close spelling; every word of the query has to match")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Results by descending score"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<List<CatalogSearchResult>> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(catalogSearchIndex.search(query, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/registration")
@@ -130,6 +203,14 @@ public class RestaurantController {
         }
     }
 
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Restaurant order statistics", description = "Order counts by status, revenue, tips and average delivery time for one day of order time (default today)")
+    public ResponseEntity<RestaurantOrderStatsResponse> getStats(
+            @PathVariable("id") Integer restaurantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(restaurantStatsService.getStats(restaurantId, date));
+    }
+
     @GetMapping("/{id}/hours")
     public ResponseEntity<List<OperatingHourResponse>> getOperatingHours(@PathVariable("id") Integer restaurantId) {
         try {
@@ -21,5 +21,5 @@ public class OrderRequest {
     private List<OrderItemRequest> items;
     private BigDecimal subtotal;
     private BigDecimal tips;
-    private LocalDateTime estimatedDeliveryTime; // estimated delivery time from frontend
+    private LocalDateTime estimatedDeliveryTime; // only used while the restaurant has too little delivery history, see DeliveryTimeEstimator
 }
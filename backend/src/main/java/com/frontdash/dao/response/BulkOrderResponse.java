@@ -0,0 +1,21 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of POST /api/orders/bulk, one entry per submitted order in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResponse {
+    private int acceptedCount;
+    private int rejectedCount;
+    private List<BulkOrderResult> results;
+}
@@ -0,0 +1,24 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one order in a bulk submission
+ * index is the position in the request array; orderId is set only when accepted
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResult {
+    private int index;
+    private boolean accepted;
+    private String orderId;
+    private BigDecimal totalAmount;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One search hit: either a restaurant (menuItemId is null) or one of its menu items
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogSearchResult {
+    private String type; // RESTAURANT or MENU_ITEM
+    private Integer restaurantId;
+    private String restaurantName;
+    private Integer menuItemId;
+    private String itemName;
+    private String categoryName;
+    private BigDecimal price;
+    private double score;
+}
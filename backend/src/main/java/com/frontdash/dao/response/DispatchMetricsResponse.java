@@ -0,0 +1,30 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the automatic dispatcher
+ * Times are in milliseconds; time-to-assign is measured from order time to assignment
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchMetricsResponse {
+    private boolean enabled;
+    private long queueDepth;
+    private int availableDrivers;
+    private long totalAssignments;
+    private long lostClaims;
+    private long averageTimeToAssignMs;
+    private long maxTimeToAssignMs;
+    private long lastTimeToAssignMs;
+    private long lastTickDurationMs;
+    private LocalDateTime lastTickAt;
+    private LocalDateTime lastResyncAt;
+}
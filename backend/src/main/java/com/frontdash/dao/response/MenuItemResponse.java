@@ -1,5 +1,6 @@
 package com.frontdash.dao.response;
 
+import com.frontdash.entity.MenuItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,11 @@ public class MenuItemResponse {
     private String pictureUrl;
     private BigDecimal price;
     private String availability;
+
+    // Constructor expression target for the MenuItemRepository queries, which select the enum
+    public MenuItemResponse(Integer menuItemId, Integer categoryId, String categoryName, String itemName,
+                            String description, String pictureUrl, BigDecimal price, MenuItem.AvailabilityStatus availability) {
+        this(menuItemId, categoryId, categoryName, itemName, description, pictureUrl, price,
+                availability == null ? null : availability.name());
+    }
 }
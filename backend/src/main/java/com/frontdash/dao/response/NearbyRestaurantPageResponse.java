@@ -0,0 +1,21 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of restaurants, nearest first
+ * nextCursor is null on the last page, otherwise pass it back as ?cursor= to get the next page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyRestaurantPageResponse {
+    private List<NearbyRestaurantResponse> items;
+    private String nextCursor;
+}
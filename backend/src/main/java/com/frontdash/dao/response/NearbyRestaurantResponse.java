@@ -0,0 +1,18 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A restaurant with its distance from the searched zip code or address, centroid to centroid
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyRestaurantResponse {
+    private RestaurantWithAddressResponse restaurant;
+    private double distanceKm;
+}
@@ -0,0 +1,32 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order volume, revenue and delivery-time percentiles of one restaurant for one hour of order time
+ * Delivery times are in seconds and null when no delivery in the hour has a delivery time
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHourlyRollupResponse {
+    private Integer restaurantId;
+    private LocalDateTime hour;
+    private int orderCount;
+    private int deliveredCount;
+    private int notDeliveredCount;
+    private BigDecimal revenue;
+    private BigDecimal tips;
+    private int timedDeliveries;
+    private Long avgDeliverySeconds;
+    private Long p50DeliverySeconds;
+    private Long p90DeliverySeconds;
+    private Long p95DeliverySeconds;
+}
@@ -0,0 +1,35 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the write-behind order intake
+ * Rates are per second over the last minute; times are in milliseconds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIntakeMetricsResponse {
+    private boolean enabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private long acceptedOrders;
+    private long rejectedQueueFull;
+    private long persistedOrders;
+    private long failedOrders;
+    private long replayedOrders;
+    private double acceptedPerSecond;
+    private double persistedPerSecond;
+    private long batches;
+    private double averageBatchSize;
+    private long journalSyncs;
+    private long lastBatchDurationMs;
+    private long oldestPendingAgeMs;
+    private LocalDateTime lastBatchAt;
+}
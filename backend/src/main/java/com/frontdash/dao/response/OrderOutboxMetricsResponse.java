@@ -0,0 +1,29 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the order outbox relay
+ * Lag is the time from writing an event to delivering it, in milliseconds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutboxMetricsResponse {
+    private long pendingEvents;
+    private long oldestPendingAgeMs;
+    private long deliveredEvents;
+    private long listenerErrors;
+    private long lastLagMs;
+    private long averageLagMs;
+    private long maxLagMs;
+    private int lastBatchSize;
+    private long lastPollDurationMs;
+    private LocalDateTime lastPollAt;
+}
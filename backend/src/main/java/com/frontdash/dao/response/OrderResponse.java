@@ -29,6 +29,7 @@ public class OrderResponse {
     private Orders.OrderStatus orderStatus;
     private BigDecimal tips;
     private BigDecimal subtotal;
+    private BigDecimal serviceCharge;
     private LocalDateTime deliveryTime;
     private List<MenuItemResponse> items;
 }
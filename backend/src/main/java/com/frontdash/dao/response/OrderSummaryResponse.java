@@ -0,0 +1,27 @@
+package com.frontdash.dao.response;
+
+import com.frontdash.entity.Orders;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an order list view: the order's own columns only, without restaurant, address or items
+ * Built directly by the query (constructor order matters), so no entity is loaded
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+    private String orderId;
+    private Integer restaurantId;
+    private Orders.OrderStatus orderStatus;
+    private Integer assignedDriverId;
+    private LocalDateTime orderTime;
+    private BigDecimal totalAmount;
+}
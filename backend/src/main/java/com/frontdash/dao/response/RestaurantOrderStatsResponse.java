@@ -0,0 +1,30 @@
+package com.frontdash.dao.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order statistics for one restaurant and one day of order time
+ * revenue and tips exclude orders marked NOT_DELIVERED; averageDeliveryMinutes is null when no delivery was timed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantOrderStatsResponse {
+    private Integer restaurantId;
+    private LocalDate date;
+    private int totalOrders;
+    private int pendingOrders;
+    private int outForDeliveryOrders;
+    private int deliveredOrders;
+    private int notDeliveredOrders;
+    private BigDecimal revenue;
+    private BigDecimal tips;
+    private Double averageDeliveryMinutes;
+}
@@ -0,0 +1,27 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "CatalogVersion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogVersion {
+
+    // 'restaurants' or 'menu:<restaurantId>'
+    @Id
+    @Column(name = "scope", length = 30)
+    private String scope;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
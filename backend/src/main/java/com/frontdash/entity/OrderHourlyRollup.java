@@ -0,0 +1,67 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orders of one restaurant placed in one hour, recomputed by OrderRollupService
+ */
+@Entity
+@Table(name = "OrderHourlyRollup")
+@IdClass(OrderHourlyRollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHourlyRollup {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Integer restaurantId;
+
+    // Start of the hour of order_time
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private Integer deliveredCount;
+
+    @Column(name = "not_delivered_count", nullable = false)
+    private Integer notDeliveredCount;
+
+    // Totals over orders that were not marked NOT_DELIVERED
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "tips", nullable = false)
+    private BigDecimal tips;
+
+    // Delivered orders with a delivery time; the delivery statistics below are over these
+    @Column(name = "timed_deliveries", nullable = false)
+    private Integer timedDeliveries;
+
+    @Column(name = "avg_delivery_seconds")
+    private Long avgDeliverySeconds;
+
+    @Column(name = "p50_delivery_seconds")
+    private Long p50DeliverySeconds;
+
+    @Column(name = "p90_delivery_seconds")
+    private Long p90DeliverySeconds;
+
+    @Column(name = "p95_delivery_seconds")
+    private Long p95DeliverySeconds;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.frontdash.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHourlyRollupId implements Serializable {
+    private Integer restaurantId;
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,27 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "OrderIdBlock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIdBlock {
+
+    @Id
+    @Column(name = "sequence_name")
+    private String sequenceName;
+
+    // First value of the next block that has not been handed out to any node yet
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,63 @@
+package com.frontdash.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An Idempotency-Key sent with an order creation request, stored in the same transaction as the order.
+ * The primary key makes a second node trying the same key fail instead of creating a duplicate.
+ */
+@Entity
+@Table(name = "OrderIdempotencyKey")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a reused key with a different order is rejected
+    @Column(name = "request_hash", nullable = false, columnDefinition = "CHAR(64)")
+    private String requestHash;
+
+    // Set after the order is created, in the same transaction that inserted the key
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Always a plain INSERT, so a concurrent duplicate fails on the primary key rather than being merged
+    @Transient
+    @JsonIgnore
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+}
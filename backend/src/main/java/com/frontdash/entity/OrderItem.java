@@ -1,9 +1,11 @@
 package com.frontdash.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "OrderItem")
@@ -11,7 +13,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class OrderItem {
+public class OrderItem implements Persistable<OrderItemId> {
 
     @Id
     @Column(name = "order_id")
@@ -23,4 +25,33 @@ public class OrderItem {
 
     @Column(nullable = false)
     private Integer quantity;
+
+    // The key is always assigned, so tell saveAll() rows are new instead of letting it merge (SELECT + INSERT per row)
+    @Transient
+    @JsonIgnore
+    private boolean newEntity = true;
+
+    public OrderItem(String orderId, Integer menuItemId, Integer quantity) {
+        this.orderId = orderId;
+        this.menuItemId = menuItemId;
+        this.quantity = quantity;
+    }
+
+    @Override
+    @JsonIgnore
+    public OrderItemId getId() {
+        return new OrderItemId(orderId, menuItemId);
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
 }
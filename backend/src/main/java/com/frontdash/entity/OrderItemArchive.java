@@ -0,0 +1,30 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "OrderItemArchive")
+@IdClass(OrderItemId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemArchive {
+
+    @Id
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Id
+    @Column(name = "menu_item_id")
+    private Integer menuItemId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    public OrderItem toOrderItem() {
+        return new OrderItem(orderId, menuItemId, quantity);
+    }
+}
@@ -0,0 +1,40 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be relayed to in-process listeners.
+ * Rows are inserted by OrderOutboxWriter and deleted by OrderOutboxRelay after delivery.
+ */
+@Entity
+@Table(name = "OrderOutbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "order_id", nullable = false)
+    private String orderId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    // OrderEvent as JSON
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime createdAt;
+}
@@ -1,11 +1,14 @@
 package com.frontdash.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.springframework.data.domain.Persistable;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -15,7 +18,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Orders {
+public class Orders implements Persistable<String> {
 
     @Id
     @Column(name = "order_id")
@@ -59,10 +62,60 @@ public class Orders {
     @Column(name = "delivery_time")
     private LocalDateTime deliveryTime;
 
+    // Last change to the row, used by the hourly rollup job to find orders it has to re-aggregate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Ids come from OrderIdAllocator, so save() cannot tell new rows by a null id and would SELECT before every INSERT
+    @Transient
+    @JsonIgnore
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return orderId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public enum OrderStatus {
         PENDING,
         OUT_FOR_DELIVERY,
         DELIVERED,
-        NOT_DELIVERED
+        NOT_DELIVERED;
+
+        // PENDING -> OUT_FOR_DELIVERY -> DELIVERED / NOT_DELIVERED
+        public boolean canTransitionTo(OrderStatus next) {
+            switch (this) {
+                case PENDING:
+                    return next == OUT_FOR_DELIVERY;
+                case OUT_FOR_DELIVERY:
+                    return next == DELIVERED || next == NOT_DELIVERED;
+                default:
+                    return false;
+            }
+        }
+
+        public boolean isTerminal() {
+            return this == DELIVERED || this == NOT_DELIVERED;
+        }
     }
 }
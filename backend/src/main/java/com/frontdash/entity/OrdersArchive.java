@@ -0,0 +1,91 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A finished order moved out of Orders by OrderArchiveService. Rows are written with
+ * INSERT ... SELECT from Orders and never changed afterwards.
+ */
+@Entity
+@Table(name = "OrdersArchive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrdersArchive {
+
+    @Id
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Column(name = "restaurant_id")
+    private Integer restaurantId;
+
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+
+    @Column(name = "customer_phone")
+    private String customerPhone;
+
+    @Column(name = "address_id")
+    private Integer addressId;
+
+    @Column(name = "total_amount")
+    private BigDecimal totalAmount;
+
+    @Column(name = "order_time", nullable = false)
+    private LocalDateTime orderTime;
+
+    @Column(name = "assigned_driver_id")
+    private Integer assignedDriverId;
+
+    @Column(name = "estimated_delivery_time")
+    private LocalDateTime estimatedDeliveryTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private Orders.OrderStatus orderStatus;
+
+    @Column(name = "tips")
+    private BigDecimal tips;
+
+    @Column(name = "subtotal")
+    private BigDecimal subtotal;
+
+    @Column(name = "delivery_time")
+    private LocalDateTime deliveryTime;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Detached Orders copy, so archived orders go through the same hydration and export code
+    public Orders toOrder() {
+        return Orders.builder()
+                .orderId(orderId)
+                .restaurantId(restaurantId)
+                .customerName(customerName)
+                .customerPhone(customerPhone)
+                .addressId(addressId)
+                .totalAmount(totalAmount)
+                .orderTime(orderTime)
+                .assignedDriverId(assignedDriverId)
+                .estimatedDeliveryTime(estimatedDeliveryTime)
+                .orderStatus(orderStatus)
+                .tips(tips)
+                .subtotal(subtotal)
+                .deliveryTime(deliveryTime)
+                .updatedAt(updatedAt)
+                .newEntity(false)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-restaurant order counters for one day of order time, flushed from RestaurantStatsService
+ */
+@Entity
+@Table(name = "RestaurantDailyStats")
+@IdClass(RestaurantDailyStatsId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantDailyStats {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Integer restaurantId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(name = "pending_orders", nullable = false)
+    private Integer pendingOrders;
+
+    @Column(name = "out_for_delivery_orders", nullable = false)
+    private Integer outForDeliveryOrders;
+
+    @Column(name = "delivered_orders", nullable = false)
+    private Integer deliveredOrders;
+
+    @Column(name = "not_delivered_orders", nullable = false)
+    private Integer notDeliveredOrders;
+
+    // Totals over orders that were not marked NOT_DELIVERED
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "tips", nullable = false)
+    private BigDecimal tips;
+
+    // Sum of (delivery_time - order_time) over delivered orders that have a delivery time
+    @Column(name = "delivery_seconds", nullable = false)
+    private Long deliverySeconds;
+
+    @Column(name = "timed_deliveries", nullable = false)
+    private Integer timedDeliveries;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.frontdash.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantDailyStatsId implements Serializable {
+    private Integer restaurantId;
+    private LocalDate statDate;
+}
@@ -0,0 +1,29 @@
+package com.frontdash.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "RollupWatermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupWatermark {
+
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    // Orders with updated_at before this have been aggregated
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+}
@@ -0,0 +1,50 @@
+package com.frontdash.event;
+
+import com.frontdash.entity.Orders;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService after every order lifecycle change, recorded in the outbox and relayed to OrderEventListeners
+ * Carries the order state after the change so listeners do not need to reload it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+    private Long eventId; // outbox id, set by the relay
+    private OrderEventType type;
+    private String orderId;
+    private Integer restaurantId;
+    private Orders.OrderStatus previousStatus;
+    private Orders.OrderStatus orderStatus;
+    private Integer assignedDriverId;
+    private BigDecimal totalAmount;
+    private BigDecimal tips;
+    private LocalDateTime orderTime;
+    private LocalDateTime deliveryTime;
+    private LocalDateTime previousDeliveryTime; // set when a delivery time is corrected
+    private LocalDateTime occurredAt;
+
+    public static OrderEvent of(OrderEventType type, Orders order, Orders.OrderStatus previousStatus) {
+        return OrderEvent.builder()
+                .type(type)
+                .orderId(order.getOrderId())
+                .restaurantId(order.getRestaurantId())
+                .previousStatus(previousStatus)
+                .orderStatus(order.getOrderStatus())
+                .assignedDriverId(order.getAssignedDriverId())
+                .totalAmount(order.getTotalAmount())
+                .tips(order.getTips())
+                .orderTime(order.getOrderTime())
+                .deliveryTime(order.getDeliveryTime())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.frontdash.event;
+
+/**
+ * Receives order events from OrderOutboxRelay once the change that produced them is committed.
+ * Delivery is at least once and in order for each order, so implementations must tolerate
+ * seeing an event again; listeners that count events skip ids they have applied (RecentEventIds).
+ * Events reach only the node running the relay, which is the single backend instance.
+ */
+public interface OrderEventListener {
+
+    void onOrderEvent(OrderEvent event);
+}
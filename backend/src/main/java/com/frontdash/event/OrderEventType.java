@@ -0,0 +1,8 @@
+package com.frontdash.event;
+
+public enum OrderEventType {
+    CREATED,
+    DRIVER_ASSIGNED,
+    STATUS_CHANGED,
+    DELIVERED
+}
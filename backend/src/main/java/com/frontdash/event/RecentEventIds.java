@@ -0,0 +1,41 @@
+package com.frontdash.event;
+
+import java.util.LinkedHashSet;
+
+/**
+ * The most recently seen outbox event ids, bounded to a fixed number.
+ * Lets an OrderEventListener ignore an event the relay delivers a second time.
+ */
+public class RecentEventIds {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final LinkedHashSet<Long> ids = new LinkedHashSet<>();
+
+    public RecentEventIds() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RecentEventIds(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Record an event id
+     * @param eventId the outbox event id, null for events that did not come from the outbox
+     * @return false if the id was already seen, true otherwise
+     */
+    public synchronized boolean firstSeen(Long eventId) {
+        if (eventId == null) {
+            return true;
+        }
+        if (!ids.add(eventId)) {
+            return false;
+        }
+        if (ids.size() > capacity) {
+            ids.remove(ids.iterator().next());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.frontdash.exception;
+
+/**
+ * Thrown when the order intake queue has no room for another order.
+ * Controllers map it to 503 Service Unavailable with a Retry-After header.
+ */
+public class IntakeQueueFullException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public IntakeQueueFullException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
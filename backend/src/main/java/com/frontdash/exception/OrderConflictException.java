@@ -0,0 +1,13 @@
+package com.frontdash.exception;
+
+/**
+ * Thrown when an order or driver is no longer in the state an operation expects,
+ * either because the transition is not allowed or because a concurrent request got there first.
+ * Controllers map it to 409 Conflict.
+ */
+public class OrderConflictException extends RuntimeException {
+
+    public OrderConflictException(String message) {
+        super(message);
+    }
+}
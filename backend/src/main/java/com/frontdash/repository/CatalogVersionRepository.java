@@ -0,0 +1,21 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+
+    // Creates the row at version 1 or increments it; the row stays locked until the caller commits
+    @Modifying
+    @Query(value = "INSERT INTO CatalogVersion (scope, version) VALUES (:scope, 1) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    int increment(@Param("scope") String scope);
+
+    @Query("SELECT v.version FROM CatalogVersion v WHERE v.scope = :scope")
+    Long findVersion(@Param("scope") String scope);
+}
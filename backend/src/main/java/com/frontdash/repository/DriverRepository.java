@@ -2,6 +2,9 @@ package com.frontdash.repository;
 
 import com.frontdash.entity.Driver;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -33,4 +36,11 @@ public interface DriverRepository extends JpaRepository<Driver, Integer> {
 
     // Find drivers by lastname containing (case-insensitive search)
     List<Driver> findByLastnameContainingIgnoreCase(String lastname);
+
+    // Move a driver between availability states only if it is still in the expected one; 0 means it was not
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Driver d SET d.availabilityStatus = :to WHERE d.driverId = :driverId AND d.availabilityStatus = :from")
+    int transitionAvailability(@Param("driverId") Integer driverId,
+                               @Param("from") Driver.AvailabilityStatus from,
+                               @Param("to") Driver.AvailabilityStatus to);
 }
@@ -1,11 +1,14 @@
 package com.frontdash.repository;
 
+import com.frontdash.dao.response.MenuItemResponse;
 import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +24,52 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Integer> {
             """)
     Optional<MenuItem> findByMenuItemIdAndRestaurantId(@Param("menuItemId") Integer menuItemId,
                                                        @Param("restaurantId") Integer restaurantId);
+
+    // [menuItemId, restaurantId, price, availability] rows for the pricing engine's price snapshots
+    @Query("""
+            SELECT mi.menuItemId, mc.restaurantId, mi.price, mi.availability FROM MenuItem mi
+            JOIN MenuCategory mc ON mi.categoryId = mc.categoryId
+            WHERE mi.menuItemId IN :menuItemIds
+            """)
+    List<Object[]> findPriceRowsByMenuItemIdIn(@Param("menuItemIds") Collection<Integer> menuItemIds);
+
+    // [restaurantId, menuItemId, itemName, description, categoryName, price] rows for the search index
+
+    @Query("""
+            SELECT mc.restaurantId, mi.menuItemId, mi.itemName, mi.description, mc.categoryName, mi.price
+            FROM MenuItem mi
+            JOIN MenuCategory mc ON mi.categoryId = mc.categoryId
+            JOIN Restaurant r ON r.restaurantId = mc.restaurantId
+            WHERE r.status = :status
+            """)
+    List<Object[]> findSearchRowsByRestaurantStatus(@Param("status") Restaurant.RestaurantStatus status);
+
+    @Query("""
+            SELECT mc.restaurantId, mi.menuItemId, mi.itemName, mi.description, mc.categoryName, mi.price
+            FROM MenuItem mi
+            JOIN MenuCategory mc ON mi.categoryId = mc.categoryId
+            WHERE mc.restaurantId = :restaurantId
+            """)
+    List<Object[]> findSearchRowsByRestaurantId(@Param("restaurantId") Integer restaurantId);
+
+    // Menu items with their category names in one join, built straight into responses
+
+    @Query("""
+            SELECT new com.frontdash.dao.response.MenuItemResponse(mi.menuItemId, mi.categoryId, mc.categoryName,
+                mi.itemName, mi.description, mi.pictureUrl, mi.price, mi.availability)
+            FROM MenuItem mi
+            JOIN MenuCategory mc ON mi.categoryId = mc.categoryId
+            WHERE mc.restaurantId = :restaurantId
+            ORDER BY mc.categoryId, mi.menuItemId
+            """)
+    List<MenuItemResponse> findResponsesByRestaurantId(@Param("restaurantId") Integer restaurantId);
+
+    @Query("""
+            SELECT new com.frontdash.dao.response.MenuItemResponse(mi.menuItemId, mi.categoryId, mc.categoryName,
+                mi.itemName, mi.description, mi.pictureUrl, mi.price, mi.availability)
+            FROM MenuItem mi
+            JOIN MenuCategory mc ON mi.categoryId = mc.categoryId
+            WHERE mi.menuItemId IN :menuItemIds
+            """)
+    List<MenuItemResponse> findResponsesByMenuItemIdIn(@Param("menuItemIds") Collection<Integer> menuItemIds);
 }
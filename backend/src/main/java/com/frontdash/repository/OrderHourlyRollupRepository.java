@@ -0,0 +1,19 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.OrderHourlyRollup;
+import com.frontdash.entity.OrderHourlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderHourlyRollupRepository extends JpaRepository<OrderHourlyRollup, OrderHourlyRollupId> {
+
+    List<OrderHourlyRollup> findByRestaurantIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            Integer restaurantId, LocalDateTime from, LocalDateTime to);
+
+    List<OrderHourlyRollup> findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAscRestaurantIdAsc(
+            LocalDateTime from, LocalDateTime to);
+}
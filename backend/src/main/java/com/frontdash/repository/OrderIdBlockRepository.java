@@ -0,0 +1,27 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.OrderIdBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderIdBlockRepository extends JpaRepository<OrderIdBlock, String> {
+
+    // Row lock so that concurrent nodes reserve disjoint blocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM OrderIdBlock b WHERE b.sequenceName = :sequenceName")
+    Optional<OrderIdBlock> findForUpdate(@Param("sequenceName") String sequenceName);
+
+    // Creates the sequence row unless it already exists; never fails on a concurrent insert
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO OrderIdBlock (sequence_name, next_value) VALUES (:sequenceName, :nextValue)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("sequenceName") String sequenceName, @Param("nextValue") long nextValue);
+}
@@ -0,0 +1,31 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.OrderItemArchive;
+import com.frontdash.entity.OrderItemId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemArchiveRepository extends JpaRepository<OrderItemArchive, OrderItemId> {
+    List<OrderItemArchive> findByOrderId(String orderId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO OrderItemArchive (order_id, menu_item_id, quantity)
+            SELECT order_id, menu_item_id, quantity FROM OrderItem WHERE order_id IN (:orderIds)
+            """, nativeQuery = true)
+    int copyFromOrderItems(@Param("orderIds") Collection<String> orderIds);
+
+    @Modifying
+    @Query("""
+            DELETE FROM OrderItemArchive i
+            WHERE i.orderId IN (SELECT o.orderId FROM OrdersArchive o WHERE o.restaurantId = :restaurantId)
+            """)
+    int deleteByRestaurantIdInBulk(@Param("restaurantId") Integer restaurantId);
+}
@@ -3,11 +3,20 @@ package com.frontdash.repository;
 import com.frontdash.entity.OrderItem;
 import com.frontdash.entity.OrderItemId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {
     List<OrderItem> findByOrderId(String orderId);
+    List<OrderItem> findByOrderIdIn(Collection<String> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.orderId IN :orderIds")
+    int deleteByOrderIdInBulk(@Param("orderIds") Collection<String> orderIds);
 }
@@ -0,0 +1,27 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.OrderOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    // Oldest events first, locked so relays on different nodes take turns and keep each order's events in order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OrderOutbox e ORDER BY e.eventId")
+    List<OrderOutbox> findOldestForUpdate(Pageable pageable);
+
+    @Query("SELECT MAX(e.eventId) FROM OrderOutbox e")
+    Long findMaxEventId();
+
+    @Query("SELECT MIN(e.createdAt) FROM OrderOutbox e")
+    LocalDateTime findOldestCreatedAt();
+}
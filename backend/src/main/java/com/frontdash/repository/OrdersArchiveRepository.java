@@ -0,0 +1,58 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.OrdersArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface OrdersArchiveRepository extends JpaRepository<OrdersArchive, String> {
+
+    // Copies the given orders in one statement; the caller deletes them from Orders in the same transaction
+    @Modifying
+    @Query(value = """
+            INSERT INTO OrdersArchive (order_id, restaurant_id, customer_name, customer_phone, address_id, total_amount,
+                                       order_time, assigned_driver_id, estimated_delivery_time, order_status, tips,
+                                       subtotal, delivery_time, updated_at, archived_at)
+            SELECT order_id, restaurant_id, customer_name, customer_phone, address_id, total_amount,
+                   order_time, assigned_driver_id, estimated_delivery_time, order_status, tips,
+                   subtotal, delivery_time, updated_at, :archivedAt
+            FROM Orders WHERE order_id IN (:orderIds)
+            """, nativeQuery = true)
+    int copyFromOrders(@Param("orderIds") Collection<String> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Same shape as OrdersRepository.findRollupRows
+    @Query("""
+            SELECT o.orderStatus, o.totalAmount, o.tips, o.orderTime, o.deliveryTime FROM OrdersArchive o
+            WHERE o.restaurantId = :restaurantId AND o.orderTime >= :from AND o.orderTime < :to
+            """)
+    List<Object[]> findRollupRows(@Param("restaurantId") Integer restaurantId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    // Forward-only scroll for exports, see OrdersRepository.streamByOrderTimeRange
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT o FROM OrdersArchive o
+            WHERE o.orderTime >= :from AND o.orderTime < :to
+            ORDER BY o.orderTime, o.orderId
+            """)
+    Stream<OrdersArchive> streamByOrderTimeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM OrdersArchive o WHERE o.restaurantId = :restaurantId")
+    int deleteByRestaurantIdInBulk(@Param("restaurantId") Integer restaurantId);
+}
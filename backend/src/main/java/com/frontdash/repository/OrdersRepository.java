@@ -1,17 +1,242 @@
 package com.frontdash.repository;
 
+import com.frontdash.dao.response.OrderSummaryResponse;
 import com.frontdash.entity.Orders;
 import com.frontdash.entity.Orders.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrdersRepository extends JpaRepository<Orders, String> {
     List<Orders> findByRestaurantId(Integer restaurantId);
     List<Orders> findByAssignedDriverId(Integer driverId);
+
+    // Full entities for the deprecated unpaged listing; read-only, so Hibernate keeps no snapshots to dirty-check
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Orders> findByOrderStatus(OrderStatus status);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Orders> findByOrderStatusAndAssignedDriverIdIsNull(OrderStatus status);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Orders> findByOrderStatusAndAssignedDriverIdIsNotNull(OrderStatus status);
+
+    // List-view projections, newest first. Every selected column is in idx_orders_status_time /
+    // idx_orders_status_driver_time, so MySQL answers these from the index without reading the rows.
+
+    @Query("""
+            SELECT new com.frontdash.dao.response.OrderSummaryResponse(
+                o.orderId, o.restaurantId, o.orderStatus, o.assignedDriverId, o.orderTime, o.totalAmount)
+            FROM Orders o
+            WHERE o.orderStatus = :status
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<OrderSummaryResponse> findSummariesByOrderStatus(@Param("status") OrderStatus status);
+
+    @Query("""
+            SELECT new com.frontdash.dao.response.OrderSummaryResponse(
+                o.orderId, o.restaurantId, o.orderStatus, o.assignedDriverId, o.orderTime, o.totalAmount)
+            FROM Orders o
+            WHERE o.orderStatus = :status AND o.assignedDriverId IS NULL
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<OrderSummaryResponse> findSummariesByOrderStatusWithoutDriver(@Param("status") OrderStatus status);
+
+    @Query("""
+            SELECT new com.frontdash.dao.response.OrderSummaryResponse(
+                o.orderId, o.restaurantId, o.orderStatus, o.assignedDriverId, o.orderTime, o.totalAmount)
+            FROM Orders o
+            WHERE o.orderStatus = :status AND o.assignedDriverId IS NOT NULL
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<OrderSummaryResponse> findSummariesByOrderStatusWithDriver(@Param("status") OrderStatus status);
+
+    // Conditional single-statement transitions: they only match while the order is still in the expected
+    // state, so a return value of 0 means another request changed it first. Bulk updates skip @PreUpdate,
+    // so each one sets updated_at itself.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Orders o SET o.orderStatus = :to, o.assignedDriverId = :driverId, o.updatedAt = :updatedAt
+            WHERE o.orderId = :orderId AND o.orderStatus = :from AND o.assignedDriverId IS NULL
+            """)
+    int assignDriverIfUnassigned(@Param("orderId") String orderId,
+                                 @Param("driverId") Integer driverId,
+                                 @Param("from") OrderStatus from,
+                                 @Param("to") OrderStatus to,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Orders o SET o.orderStatus = :to, o.updatedAt = :updatedAt WHERE o.orderId = :orderId AND o.orderStatus = :from")
+    int transitionStatus(@Param("orderId") String orderId,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Orders o SET o.orderStatus = :to, o.deliveryTime = :deliveryTime, o.updatedAt = :updatedAt
+            WHERE o.orderId = :orderId AND o.orderStatus = :from
+            """)
+    int transitionStatusWithDeliveryTime(@Param("orderId") String orderId,
+                                         @Param("from") OrderStatus from,
+                                         @Param("to") OrderStatus to,
+                                         @Param("deliveryTime") LocalDateTime deliveryTime,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Highest numeric part of existing "FDnnnn" ids, used to seed the order id allocator
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(order_id, 3) AS DECIMAL(20))), 0) FROM Orders WHERE order_id LIKE 'FD%'",
+            nativeQuery = true)
+    Number findMaxOrderNumber();
+
+    // Keyset pages, newest first: rows strictly after (orderTime, orderId) in (order_time DESC, order_id DESC) order.
+    // The leading "order_time <=" bound lets MySQL range-scan the (…, order_time, order_id) indexes instead of using OFFSET.
+
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.orderTime <= :orderTime AND (o.orderTime < :orderTime OR o.orderId < :orderId)
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<Orders> findPageAfter(@Param("orderTime") LocalDateTime orderTime,
+                               @Param("orderId") String orderId,
+                               Pageable pageable);
+
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.restaurantId = :restaurantId
+              AND o.orderTime <= :orderTime AND (o.orderTime < :orderTime OR o.orderId < :orderId)
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<Orders> findPageByRestaurantIdAfter(@Param("restaurantId") Integer restaurantId,
+                                             @Param("orderTime") LocalDateTime orderTime,
+                                             @Param("orderId") String orderId,
+                                             Pageable pageable);
+
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.orderStatus = :status
+              AND o.orderTime <= :orderTime AND (o.orderTime < :orderTime OR o.orderId < :orderId)
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<Orders> findPageByOrderStatusAfter(@Param("status") OrderStatus status,
+                                            @Param("orderTime") LocalDateTime orderTime,
+                                            @Param("orderId") String orderId,
+                                            Pageable pageable);
+
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.orderStatus = :status AND o.assignedDriverId IS NULL
+              AND o.orderTime <= :orderTime AND (o.orderTime < :orderTime OR o.orderId < :orderId)
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<Orders> findPageByOrderStatusWithoutDriverAfter(@Param("status") OrderStatus status,
+                                                         @Param("orderTime") LocalDateTime orderTime,
+                                                         @Param("orderId") String orderId,
+                                                         Pageable pageable);
+
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.orderStatus = :status AND o.assignedDriverId IS NOT NULL
+              AND o.orderTime <= :orderTime AND (o.orderTime < :orderTime OR o.orderId < :orderId)
+            ORDER BY o.orderTime DESC, o.orderId DESC
+            """)
+    List<Orders> findPageByOrderStatusWithDriverAfter(@Param("status") OrderStatus status,
+                                                      @Param("orderTime") LocalDateTime orderTime,
+                                                      @Param("orderId") String orderId,
+                                                      Pageable pageable);
+
+    // Oldest unassigned orders first, for the dispatcher
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.orderStatus = :status AND o.assignedDriverId IS NULL
+            ORDER BY o.orderTime, o.orderId
+            """)
+    List<Orders> findOldestWithoutDriver(@Param("status") OrderStatus status, Pageable pageable);
+
+    long countByOrderStatusAndAssignedDriverIdIsNull(OrderStatus status);
+
+    // Per restaurant, order day and status: [restaurant_id, day, status, orders, revenue, tips, delivery seconds, timed deliveries].
+    // Used to rebuild the in-memory restaurant statistics at startup.
+    @Query(value = """
+            SELECT restaurant_id, DATE(order_time), order_status, COUNT(*),
+                   COALESCE(SUM(total_amount), 0), COALESCE(SUM(tips), 0),
+                   COALESCE(SUM(CASE WHEN order_status = 'DELIVERED' AND delivery_time IS NOT NULL
+                                     THEN TIMESTAMPDIFF(SECOND, order_time, delivery_time) END), 0),
+                   COALESCE(SUM(CASE WHEN order_status = 'DELIVERED' AND delivery_time IS NOT NULL THEN 1 ELSE 0 END), 0)
+            FROM Orders
+            WHERE order_time >= :since AND restaurant_id IS NOT NULL
+            GROUP BY restaurant_id, DATE(order_time), order_status
+            """, nativeQuery = true)
+    List<Object[]> aggregateDailyStatsSince(@Param("since") LocalDateTime since);
+
+    // (restaurant_id, hour of order_time) buckets touched by orders changed in [from, to), for the hourly rollup job
+    @Query(value = """
+            SELECT DISTINCT restaurant_id, DATE_FORMAT(order_time, '%Y-%m-%d %H:00:00') FROM Orders
+            WHERE updated_at >= :from AND updated_at < :to AND restaurant_id IS NOT NULL
+            """, nativeQuery = true)
+    List<Object[]> findHourBucketsChangedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Every (restaurant_id, hour of order_time) bucket, for the first rollup run
+    @Query(value = """
+            SELECT DISTINCT restaurant_id, DATE_FORMAT(order_time, '%Y-%m-%d %H:00:00') FROM Orders
+            WHERE restaurant_id IS NOT NULL
+            """, nativeQuery = true)
+    List<Object[]> findAllHourBuckets();
+
+    // [orderStatus, totalAmount, tips, orderTime, deliveryTime] of one restaurant's orders placed in [from, to)
+    @Query("""
+            SELECT o.orderStatus, o.totalAmount, o.tips, o.orderTime, o.deliveryTime FROM Orders o
+            WHERE o.restaurantId = :restaurantId AND o.orderTime >= :from AND o.orderTime < :to
+            """)
+    List<Object[]> findRollupRows(@Param("restaurantId") Integer restaurantId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    // Oldest finished orders placed before the cutoff, locked so no delivery-time correction slips in while
+    // the archival job copies and deletes them
+    @Query(value = """
+            SELECT order_id FROM Orders
+            WHERE order_status IN ('DELIVERED', 'NOT_DELIVERED') AND order_time < :cutoff
+            ORDER BY order_time, order_id
+            LIMIT :limit
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<String> lockArchivableOrderIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // Forward-only scroll for exports. Integer.MIN_VALUE makes Connector/J stream rows one at a time
+    // instead of buffering the whole result set; the caller must consume it inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT o FROM Orders o
+            WHERE o.orderTime >= :from AND o.orderTime < :to
+            ORDER BY o.orderTime, o.orderId
+            """)
+    Stream<Orders> streamByOrderTimeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [restaurantId, orderTime, deliveryTime] of orders in the given status placed since the given time, streamed
+    // like streamByOrderTimeRange, to rebuild the delivery time history at startup
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT o.restaurantId, o.orderTime, o.deliveryTime FROM Orders o
+            WHERE o.orderTime >= :since AND o.orderStatus = :status
+              AND o.deliveryTime IS NOT NULL AND o.restaurantId IS NOT NULL
+            ORDER BY o.orderTime
+            """)
+    Stream<Object[]> streamDeliveryDurationsSince(@Param("since") LocalDateTime since,
+                                                  @Param("status") Orders.OrderStatus status);
 }
@@ -0,0 +1,10 @@
+package com.frontdash.repository;
+
+import com.frontdash.entity.RestaurantDailyStats;
+import com.frontdash.entity.RestaurantDailyStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RestaurantDailyStatsRepository extends JpaRepository<RestaurantDailyStats, RestaurantDailyStatsId> {
+}
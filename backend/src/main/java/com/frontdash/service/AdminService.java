@@ -14,6 +14,7 @@ import com.frontdash.dao.response.RestaurantResponse;
 import com.frontdash.entity.Address;
 import com.frontdash.entity.EmployeeLogin;
 import com.frontdash.entity.MenuCategory;
+import com.frontdash.entity.MenuItem;
 import com.frontdash.entity.Orders;
 import com.frontdash.entity.Restaurant;
 import com.frontdash.entity.RestaurantLogin;
@@ -23,7 +24,9 @@ import com.frontdash.repository.EmployeeLoginRepository;
 import com.frontdash.repository.MenuCategoryRepository;
 import com.frontdash.repository.MenuItemRepository;
 import com.frontdash.repository.OperatingHourRepository;
+import com.frontdash.repository.OrderItemArchiveRepository;
 import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersArchiveRepository;
 import com.frontdash.repository.OrdersRepository;
 import com.frontdash.repository.RestaurantLoginRepository;
 import com.frontdash.repository.RestaurantRepository;
@@ -42,6 +45,12 @@ public class AdminService {
     @Autowired
     private OrdersRepository ordersRepository;
 
+    @Autowired
+    private OrderItemArchiveRepository orderItemArchiveRepository;
+
+    @Autowired
+    private OrdersArchiveRepository ordersArchiveRepository;
+
     @Autowired
     private MenuItemRepository menuItemRepository;
 
@@ -63,6 +72,12 @@ public class AdminService {
     @Autowired
     private ServiceChargeRepository serviceChargeRepository;
 
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private CatalogChangeNotifier catalogChangeNotifier;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -83,15 +98,22 @@ public class AdminService {
         // 2. Delete Orders (depends on Restaurant)
         ordersRepository.deleteAll(orders);
 
+        // Archived orders have no foreign keys, but go with the rest of the restaurant's orders
+        orderItemArchiveRepository.deleteByRestaurantIdInBulk(restaurantId);
+        ordersArchiveRepository.deleteByRestaurantIdInBulk(restaurantId);
+
         // 3. Delete MenuItem (depends on MenuCategory)
         // First get all menu categories for this restaurant, then delete their menu items
         List<MenuCategory> categories = menuCategoryRepository.findByRestaurantId(restaurantId);
         for (MenuCategory category : categories) {
-            menuItemRepository.deleteAll(menuItemRepository.findByCategoryId(category.getCategoryId()));
+            List<MenuItem> menuItems = menuItemRepository.findByCategoryId(category.getCategoryId());
+            menuItemRepository.deleteAll(menuItems);
+            menuItems.forEach(item -> pricingEngine.invalidateMenuItem(item.getMenuItemId()));
         }
 
         // 4. Delete MenuCategory (depends on Restaurant)
         menuCategoryRepository.deleteAll(categories);
+        catalogChangeNotifier.menuChanged(restaurantId);
 
         // 5. Delete OperatingHour (depends on Restaurant)
         operatingHourRepository.deleteAll(operatingHourRepository.findByRestaurantId(restaurantId));
@@ -128,6 +150,7 @@ public class AdminService {
             if (restaurant.getStatus() == Restaurant.RestaurantStatus.NEW_REG) {
                 restaurant.setStatus(Restaurant.RestaurantStatus.ACTIVE);
                 Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+                catalogChangeNotifier.restaurantStatusChanged(restaurantId);
 
                 // Create restaurant login with auto-generated credentials
                 String username = restaurant.getContactPersonName().split(" ")[0] + restaurantId;
@@ -209,6 +232,7 @@ public class AdminService {
                 // For rejection, delete the restaurant as it's a rejected registration
                 deleteRestaurantRelatedRecords(restaurantId);
                 restaurantRepository.delete(restaurant);
+                catalogChangeNotifier.restaurantStatusChanged(restaurantId);
             } else {
                 throw new IllegalArgumentException("Restaurant is not in NEW_REG status");
             }
@@ -257,6 +281,7 @@ public class AdminService {
                 // For approved withdrawal, delete the restaurant
                 deleteRestaurantRelatedRecords(restaurantId);
                 restaurantRepository.delete(restaurant);
+                catalogChangeNotifier.restaurantStatusChanged(restaurantId);
             } else {
                 throw new IllegalArgumentException("Restaurant is not in WITHDRAW_REQ status");
             }
@@ -279,6 +304,7 @@ public class AdminService {
                 // For rejected withdrawal, set status back to ACTIVE
                 restaurant.setStatus(Restaurant.RestaurantStatus.ACTIVE);
                 Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+                catalogChangeNotifier.restaurantStatusChanged(restaurantId);
 
                 // Send withdrawal rejection email
                 if (restaurant.getEmailAddress() != null && !restaurant.getEmailAddress().isEmpty()) {
@@ -380,6 +406,8 @@ public class AdminService {
     public ServiceCharge updateServiceCharge(java.math.BigDecimal percentage) {
         ServiceCharge serviceCharge = getServiceCharge();
         serviceCharge.setPercentage(percentage);
-        return serviceChargeRepository.save(serviceCharge);
+        ServiceCharge saved = serviceChargeRepository.save(serviceCharge);
+        pricingEngine.invalidateServiceCharge();
+        return saved;
     }
 }
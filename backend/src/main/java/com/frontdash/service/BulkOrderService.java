@@ -0,0 +1,272 @@
+package com.frontdash.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderItemRequest;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.dao.response.BulkOrderResponse;
+import com.frontdash.dao.response.BulkOrderResult;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.OrderItem;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Accepts a batch of orders in one call, for partner integrations.
+ *
+ * The whole batch is validated and priced with one IN-query per referenced table, ids come
+ * from a single reserved block, and every valid order is inserted in one transaction with
+ * batched statements.
+ * Invalid orders are reported individually and do not stop the rest. If the batch insert itself
+ * fails, orders are retried one per transaction so a single bad row only rejects itself.
+ */
+@Service
+public class BulkOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderService.class);
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OrderIdAllocator orderIdAllocator;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate insertTransaction;
+
+    @PostConstruct
+    void init() {
+        insertTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create many orders at once
+     * @param requests orders to create, at most orders.bulk-max-batch-size
+     * @return per-order results in request order
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    public BulkOrderResponse createOrders(List<OrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one order is required");
+        }
+        if (requests.size() > orderProperties.getBulkMaxBatchSize()) {
+            throw new IllegalArgumentException("At most " + orderProperties.getBulkMaxBatchSize() + " orders per batch");
+        }
+
+        BulkOrderResult[] results = new BulkOrderResult[requests.size()];
+        List<PricedOrder> valid = validate(requests, results);
+
+        List<String> orderIds = orderIdAllocator.nextOrderIds(valid.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingOrder> pending = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            PricedOrder priced = valid.get(i);
+            String orderId = orderIds.get(i);
+            OrderRequest request = requests.get(priced.index());
+            LocalDateTime estimate = deliveryTimeEstimator.estimate(request.getRestaurantId(), now, request.getEstimatedDeliveryTime());
+            Orders order = OrderService.buildOrder(orderId, request, priced.quote(), now, estimate);
+            pending.add(new PendingOrder(priced.index(), order, OrderService.buildItems(orderId, priced.quantities())));
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                insertTransaction.executeWithoutResult(status -> insert(pending));
+                pending.forEach(p -> results[p.index()] = accepted(p));
+            } catch (DataAccessException e) {
+                logger.warn("Bulk insert of {} orders failed, retrying individually", pending.size(), e);
+                insertIndividually(pending, results);
+            }
+        }
+
+        int acceptedCount = 0;
+        for (BulkOrderResult result : results) {
+            if (result.isAccepted()) {
+                acceptedCount++;
+            }
+        }
+        return BulkOrderResponse.builder()
+                .acceptedCount(acceptedCount)
+                .rejectedCount(results.length - acceptedCount)
+                .results(List.of(results))
+                .build();
+    }
+
+    // Fills results for rejected orders and returns the valid ones with their prices
+    private List<PricedOrder> validate(List<OrderRequest> requests, BulkOrderResult[] results) {
+        Set<Integer> restaurantIds = new HashSet<>();
+        Set<Integer> addressIds = new HashSet<>();
+        Set<Integer> menuItemIds = new HashSet<>();
+        for (OrderRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            if (request.getRestaurantId() != null) {
+                restaurantIds.add(request.getRestaurantId());
+            }
+            if (request.getAddressId() != null) {
+                addressIds.add(request.getAddressId());
+            }
+            if (request.getItems() != null) {
+                for (OrderItemRequest item : request.getItems()) {
+                    if (item != null && item.getMenuItemId() != null) {
+                        menuItemIds.add(item.getMenuItemId());
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Restaurant.RestaurantStatus> restaurants = new HashMap<>();
+        for (Restaurant restaurant : restaurantRepository.findAllById(restaurantIds)) {
+            restaurants.put(restaurant.getRestaurantId(), restaurant.getStatus());
+        }
+        Set<Integer> addresses = new HashSet<>();
+        for (Address address : addressRepository.findAllById(addressIds)) {
+            addresses.add(address.getAddressId());
+        }
+        pricingEngine.preload(menuItemIds);
+
+        List<PricedOrder> valid = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            OrderRequest request = requests.get(index);
+            String error = validateOne(request, restaurants, addresses);
+            if (error == null) {
+                try {
+                    Map<Integer, Integer> quantities = OrderService.mergeItems(request.getItems());
+                    valid.add(new PricedOrder(index, quantities,
+                            pricingEngine.quote(request.getRestaurantId(), quantities, request.getTips())));
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            results[index] = BulkOrderResult.builder().index(index).accepted(false).error(error).build();
+        }
+        return valid;
+    }
+
+    private static String validateOne(OrderRequest request,
+                                      Map<Integer, Restaurant.RestaurantStatus> restaurants,
+                                      Set<Integer> addresses) {
+        if (request == null) {
+            return "Order is empty";
+        }
+        if (request.getRestaurantId() == null || !restaurants.containsKey(request.getRestaurantId())) {
+            return "Restaurant not found";
+        }
+        if (restaurants.get(request.getRestaurantId()) != Restaurant.RestaurantStatus.ACTIVE) {
+            return "Restaurant is not accepting orders";
+        }
+        if (request.getCustomerName() == null || request.getCustomerName().isBlank()) {
+            return "Customer name is required";
+        }
+        if (request.getAddressId() != null && !addresses.contains(request.getAddressId())) {
+            return "Address not found";
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return "At least one item is required";
+        }
+        for (OrderItemRequest item : request.getItems()) {
+            if (item == null) {
+                return "Each order item needs a menuItemId and a positive quantity";
+            }
+        }
+        // Menu items, quantities and tips are checked by the pricing engine
+        return null;
+    }
+
+    private void insert(List<PendingOrder> pending) {
+        List<Orders> orders = new ArrayList<>(pending.size());
+        List<OrderItem> items = new ArrayList<>();
+        for (PendingOrder p : pending) {
+            orders.add(p.order());
+            items.addAll(p.items());
+        }
+        ordersRepository.saveAll(orders);
+        orderItemRepository.saveAll(items);
+        // Recorded in the outbox with this transaction, exactly as for single orders
+        for (Orders order : orders) {
+            eventPublisher.publishEvent(OrderEvent.of(OrderEventType.CREATED, order, null));
+        }
+    }
+
+    private void insertIndividually(List<PendingOrder> pending, BulkOrderResult[] results) {
+        for (PendingOrder p : pending) {
+            // The failed attempt may already have marked these entities as persisted
+            p.order().setNewEntity(true);
+            p.items().forEach(item -> item.setNewEntity(true));
+            try {
+                insertTransaction.executeWithoutResult(status -> insert(List.of(p)));
+                results[p.index()] = accepted(p);
+            } catch (DataAccessException e) {
+                logger.warn("Bulk order at index {} rejected: {}", p.index(), e.getMostSpecificCause().getMessage());
+                results[p.index()] = BulkOrderResult.builder()
+                        .index(p.index())
+                        .accepted(false)
+                        .error("Order could not be saved")
+                        .build();
+            }
+        }
+    }
+
+    private static BulkOrderResult accepted(PendingOrder p) {
+        return BulkOrderResult.builder()
+                .index(p.index())
+                .accepted(true)
+                .orderId(p.order().getOrderId())
+                .totalAmount(p.order().getTotalAmount())
+                .build();
+    }
+
+    private record PricedOrder(int index, Map<Integer, Integer> quantities, PricingEngine.PriceQuote quote) {
+    }
+
+    private record PendingOrder(int index, Orders order, List<OrderItem> items) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.frontdash.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tells every catalog cache and index about a restaurant or menu change, so the services that
+ * write restaurants do not each have to know which of them depend on what. The indexes follow
+ * the CatalogVersions versions moved here, on this node and the others.
+ * All notifications take effect once the current transaction commits.
+ */
+@Service
+public class CatalogChangeNotifier {
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    /**
+     * The restaurant became active, stopped being active or was deleted: the listings and every
+     * catalog index change
+     */
+    public void restaurantStatusChanged(Integer restaurantId) {
+        catalogVersions.restaurantChanged(restaurantId);
+    }
+
+    /**
+     * The restaurant's profile, contact details, address or opening hours changed: the listings
+     * change and every catalog index re-reads the restaurant
+     */
+    public void restaurantDetailsChanged(Integer restaurantId) {
+        catalogVersions.restaurantChanged(restaurantId);
+    }
+
+    /**
+     * Menu items or categories changed: drop the cached snapshot, move the menu ETag on and
+     * re-index for search
+     */
+    public void menuChanged(Integer restaurantId) {
+        menuSnapshotCache.invalidate(restaurantId);
+        catalogVersions.menuChanged(restaurantId);
+    }
+}
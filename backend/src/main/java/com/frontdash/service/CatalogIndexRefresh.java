@@ -0,0 +1,84 @@
+package com.frontdash.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one of the in-memory catalog indexes current. The index is built in full at startup, and
+ * again on every refresh until a build succeeds; after that each refresh updates only the restaurants
+ * marked since the last one. Indexes mark a restaurant when CatalogVersions reports its version
+ * moving, so changes committed through other nodes reach every node's indexes.
+ */
+final class CatalogIndexRefresh {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexRefresh.class);
+
+    private final String indexName;
+    private final Runnable rebuild;
+    private final Consumer<Integer> update;
+
+    private final Set<Integer> changedRestaurants = ConcurrentHashMap.newKeySet();
+    private volatile boolean built = false;
+
+    /**
+     * @param indexName names the index in log messages
+     * @param rebuild reads every active restaurant and replaces the index's contents
+     * @param update re-reads one restaurant, adding, moving or removing it
+     */
+    CatalogIndexRefresh(String indexName, Runnable rebuild, Consumer<Integer> update) {
+        this.indexName = indexName;
+        this.rebuild = rebuild;
+        this.update = update;
+    }
+
+    void init() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // The index stays empty until a refresh manages to build it
+            logger.error("Could not build the {}", indexName, e);
+        }
+    }
+
+    void restaurantChanged(Integer restaurantId) {
+        changedRestaurants.add(restaurantId);
+    }
+
+    void refresh() {
+        if (!built) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("Could not build the {}", indexName, e);
+                return;
+            }
+        }
+        if (changedRestaurants.isEmpty()) {
+            return;
+        }
+        List<Integer> restaurantIds = new ArrayList<>(changedRestaurants);
+        changedRestaurants.removeAll(restaurantIds);
+        for (Integer restaurantId : restaurantIds) {
+            try {
+                update.accept(restaurantId);
+            } catch (RuntimeException e) {
+                changedRestaurants.add(restaurantId);
+                logger.warn("Could not update restaurant {} in the {}, retrying on the next refresh", restaurantId,
+                        indexName, e);
+            }
+        }
+    }
+
+    private void rebuild() {
+        // Marks are only made after a commit, so the build reads every change marked before it starts
+        changedRestaurants.clear();
+        rebuild.run();
+        built = true;
+    }
+}
@@ -0,0 +1,518 @@
+package com.frontdash.service;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjDoubleConsumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.response.CatalogSearchResult;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory inverted index over active restaurants and their menu items, behind GET /api/restaurant/search.
+ *
+ * Restaurant names, item names, descriptions and category names are lowercased, stripped of accents
+ * and split into terms. A query term matches an indexed term exactly, as a prefix (so results follow
+ * the customer's typing) or within one edit (two for long terms), and a hit must match every query
+ * term. Each query term adds field weight x match quality x inverse document frequency to the score.
+ * The index is built at startup; when a restaurant's or its menu's CatalogVersions version moves,
+ * on any node, a scheduled refresh re-reads that restaurant.
+ */
+@Service
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    // Field weights: a term in a name says more about a hit than one in a description
+    private static final int RESTAURANT_NAME = 4;
+    private static final int ITEM_NAME = 3;
+    private static final int CATEGORY_NAME = 2;
+    private static final int DESCRIPTION = 1;
+    // Menu items also carry their restaurant's name, so "thai curry" finds the curry of a Thai restaurant
+    private static final int ITEM_RESTAURANT_NAME = 1;
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.6;
+    private static final double FUZZY = 0.4;
+
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // A short prefix such as "ch" would otherwise expand to a large part of the vocabulary
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_TWO_EDIT_LENGTH = 8;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CatalogProperties catalogProperties;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Guards terms, docs, docRanges and nextDocId
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    // A restaurant's documents get consecutive ids, so [first, end) identifies all of them
+    private final Map<Integer, int[]> docRanges = new HashMap<>();
+    private int nextDocId = 0;
+
+    private final CatalogIndexRefresh refresh = new CatalogIndexRefresh("catalog search index", this::rebuild, this::reindex);
+
+    @PostConstruct
+    void init() {
+        catalogVersions.onRestaurantChanged(this::restaurantChanged);
+        catalogVersions.onMenuChanged(this::restaurantChanged);
+        refresh.init();
+    }
+
+    /**
+     * Re-index the restaurant on the next refresh
+     * @param restaurantId a restaurant whose name, status, categories or menu items changed and committed
+     */
+    public void restaurantChanged(Integer restaurantId) {
+        refresh.restaurantChanged(restaurantId);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search-refresh-interval-ms:1000}", initialDelayString = "${catalog.search-refresh-interval-ms:1000}")
+    public void refresh() {
+        refresh.refresh();
+    }
+
+    /**
+     * Best matches for a free-text query, restaurants and menu items mixed
+     * @param query the customer's search text
+     * @param limit maximum number of results
+     * @return results by descending score; empty if the query has no terms
+     */
+    public List<CatalogSearchResult> search(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        limit = Math.min(limit, catalogProperties.getSearchMaxResults());
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+        lock.readLock().lock();
+        try {
+            DocScores scores = null;
+            for (String queryTerm : queryTerms) {
+                scores = score(queryTerm, scores);
+                if (scores.size == 0) {
+                    return List.of();
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<Integer, List<Object[]>> rowsByRestaurant = new HashMap<>();
+        for (Object[] row : menuItemRepository.findSearchRowsByRestaurantStatus(Restaurant.RestaurantStatus.ACTIVE)) {
+            rowsByRestaurant.computeIfAbsent((Integer) row[0], k -> new ArrayList<>()).add(row);
+        }
+        List<Restaurant> restaurants = restaurantRepository.findByStatus(Restaurant.RestaurantStatus.ACTIVE);
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            docs.clear();
+            docRanges.clear();
+            nextDocId = 0;
+            for (Restaurant restaurant : restaurants) {
+                index(restaurant, rowsByRestaurant.getOrDefault(restaurant.getRestaurantId(), List.of()));
+            }
+            logger.info("Indexed {} restaurants and {} menu items with {} terms for search in {} ms", restaurants.size(),
+                    docs.size() - restaurants.size(), terms.size(), System.currentTimeMillis() - started);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reindex(Integer restaurantId) {
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .filter(r -> r.getStatus() == Restaurant.RestaurantStatus.ACTIVE)
+                .orElse(null);
+        List<Object[]> rows = restaurant == null ? List.of() : menuItemRepository.findSearchRowsByRestaurantId(restaurantId);
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+            if (restaurant != null) {
+                index(restaurant, rows);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rows are [restaurantId, menuItemId, itemName, description, categoryName, price]
+    private void index(Restaurant restaurant, List<Object[]> rows) {
+        int first = nextDocId;
+        Map<String, Integer> restaurantTerms = new HashMap<>();
+        addTerms(restaurantTerms, restaurant.getName(), RESTAURANT_NAME);
+        for (Object[] row : rows) {
+            addTerms(restaurantTerms, (String) row[4], CATEGORY_NAME);
+        }
+        addDoc(restaurant, null, restaurantTerms);
+        for (Object[] row : rows) {
+            Map<String, Integer> itemTerms = new HashMap<>();
+            addTerms(itemTerms, restaurant.getName(), ITEM_RESTAURANT_NAME);
+            addTerms(itemTerms, (String) row[3], DESCRIPTION);
+            addTerms(itemTerms, (String) row[4], CATEGORY_NAME);
+            addTerms(itemTerms, (String) row[2], ITEM_NAME);
+            addDoc(restaurant, row, itemTerms);
+        }
+        docRanges.put(restaurant.getRestaurantId(), new int[]{first, nextDocId});
+    }
+
+    // A null row adds the restaurant's own document
+    private void addDoc(Restaurant restaurant, Object[] row, Map<String, Integer> docTerms) {
+        int docId = nextDocId++;
+        String[] docTermArray = docTerms.keySet().toArray(new String[0]);
+        docs.put(docId, row == null
+                ? new Doc(restaurant.getRestaurantId(), restaurant.getName(), null, null, null, null, docTermArray)
+                : new Doc(restaurant.getRestaurantId(), restaurant.getName(), (Integer) row[1], (String) row[2],
+                        (String) row[4], (BigDecimal) row[5], docTermArray));
+        for (Map.Entry<String, Integer> entry : docTerms.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), k -> new Postings()).add(docId, entry.getValue());
+        }
+    }
+
+    private void remove(Integer restaurantId) {
+        int[] range = docRanges.remove(restaurantId);
+        if (range == null) {
+            return;
+        }
+        Set<String> touched = new HashSet<>();
+        for (int docId = range[0]; docId < range[1]; docId++) {
+            Doc doc = docs.remove(docId);
+            if (doc != null) {
+                touched.addAll(Arrays.asList(doc.terms()));
+            }
+        }
+        for (String term : touched) {
+            Postings postings = terms.get(term);
+            postings.removeRange(range[0], range[1]);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    // Keeps the best field weight when a term occurs in several fields
+    private static void addTerms(Map<String, Integer> docTerms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            docTerms.merge(term, weight, Math::max);
+        }
+    }
+
+    // Adds this query term's best score per document to the previous terms' scores; with previous
+    // scores only documents that matched all earlier terms are considered
+    private DocScores score(String queryTerm, DocScores previous) {
+        // Matches are collected first so the scores are sized once for all of their postings
+        List<Postings> matched = new ArrayList<>();
+        List<Double> qualities = new ArrayList<>();
+        matchTerms(queryTerm, (term, quality) -> {
+            matched.add(terms.get(term));
+            qualities.add(quality);
+        });
+        int postingCount = 0;
+        for (Postings postings : matched) {
+            postingCount += postings.size;
+        }
+        DocScores best = new DocScores(previous == null ? postingCount : Math.min(postingCount, previous.size));
+        int documentCount = docs.size();
+        for (int m = 0; m < matched.size(); m++) {
+            Postings postings = matched.get(m);
+            double quality = qualities.get(m);
+            double idf = Math.log(1 + (double) documentCount / postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                int docId = postings.docIds[i];
+                if (previous == null || previous.contains(docId)) {
+                    best.max(docId, postings.weights[i] * quality * idf);
+                }
+            }
+        }
+        if (previous != null) {
+            best.addAll(previous);
+        }
+        return best;
+    }
+
+    // The best documents by descending score, of equal scores the earlier document first
+    private List<CatalogSearchResult> top(DocScores scores, int limit) {
+        int[] topDocIds = new int[limit];
+        double[] topScores = new double[limit];
+        int count = 0;
+        for (int slot = 0; slot < scores.keys.length; slot++) {
+            int docId = scores.keys[slot] - 1;
+            if (docId < 0) {
+                continue;
+            }
+            double score = scores.values[slot];
+            if (count == limit && !ranksAbove(score, docId, topScores[limit - 1], topDocIds[limit - 1])) {
+                continue;
+            }
+            int i = count < limit ? count++ : limit - 1;
+            for (; i > 0 && ranksAbove(score, docId, topScores[i - 1], topDocIds[i - 1]); i--) {
+                topDocIds[i] = topDocIds[i - 1];
+                topScores[i] = topScores[i - 1];
+            }
+            topDocIds[i] = docId;
+            topScores[i] = score;
+        }
+        List<CatalogSearchResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(toResult(docs.get(topDocIds[i]), topScores[i]));
+        }
+        return results;
+    }
+
+    private static boolean ranksAbove(double score, int docId, double otherScore, int otherDocId) {
+        return score > otherScore || (score == otherScore && docId < otherDocId);
+    }
+
+    private void matchTerms(String queryTerm, ObjDoubleConsumer<String> matches) {
+        if (terms.containsKey(queryTerm)) {
+            matches.accept(queryTerm, EXACT);
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (String term : terms.tailMap(queryTerm, false).keySet()) {
+                if (!term.startsWith(queryTerm) || expanded++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.accept(term, PREFIX);
+            }
+        }
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = queryTerm.length() >= MIN_TWO_EDIT_LENGTH ? 2 : 1;
+            // Shared by every comparison; a term more than maxEdits longer than the query is skipped before it is used
+            int[][] rows = new int[3][queryTerm.length() + maxEdits + 1];
+            // Typos in the first letter are rare, and keeping it bounds the terms compared
+            String firstLetter = queryTerm.substring(0, 1);
+            for (String term : terms.subMap(firstLetter, true, firstLetter + Character.MAX_VALUE, false).keySet()) {
+                if (!term.startsWith(queryTerm) && withinEdits(queryTerm, term, maxEdits, rows)) {
+                    matches.accept(term, FUZZY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lowercased terms of the text with accents removed, split at anything but letters and digits
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Optimal string alignment distance (an adjacent swap is one edit), abandoned once it must exceed max;
+    // rows are three arrays of at least a.length() + max + 1 ints, overwritten
+    static boolean withinEdits(String a, String b, int max, int[][] rows) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return false;
+        }
+        int[] beforePrevious = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m] <= max;
+    }
+
+    private static CatalogSearchResult toResult(Doc doc, double score) {
+        return CatalogSearchResult.builder()
+                .type(doc.menuItemId() == null ? "RESTAURANT" : "MENU_ITEM")
+                .restaurantId(doc.restaurantId())
+                .restaurantName(doc.restaurantName())
+                .menuItemId(doc.menuItemId())
+                .itemName(doc.itemName())
+                .categoryName(doc.categoryName())
+                .price(doc.price())
+                .score(score)
+                .build();
+    }
+
+    // A restaurant (menuItemId null) or a menu item, with the terms it was indexed under
+    private record Doc(Integer restaurantId, String restaurantName, Integer menuItemId, String itemName,
+                       String categoryName, BigDecimal price, String[] terms) {
+    }
+
+    // Score per document id without boxing: open addressing with linear probing, keys stored as docId + 1 so 0 is free
+    private static final class DocScores {
+        private int[] keys;
+        private double[] values;
+        private int size;
+
+        DocScores(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) {
+                capacity <<= 1;
+            }
+            keys = new int[capacity];
+            values = new double[capacity];
+        }
+
+        boolean contains(int docId) {
+            return keys[slot(docId)] != 0;
+        }
+
+        void max(int docId, double score) {
+            int slot = slot(docId);
+            if (keys[slot] == 0) {
+                keys[slot] = docId + 1;
+                values[slot] = score;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+            } else if (score > values[slot]) {
+                values[slot] = score;
+            }
+        }
+
+        // Adds the other scores of the documents present here
+        void addAll(DocScores other) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    values[slot] += other.values[other.slot(keys[slot] - 1)];
+                }
+            }
+        }
+
+        private int slot(int docId) {
+            int mask = keys.length - 1;
+            int hash = docId * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != docId + 1) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(oldKeys[i] - 1);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    // Document ids in ascending order (ids are handed out in increasing order) with the term's field weight
+    private static final class Postings {
+        private int[] docIds = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+
+        void add(int docId, int weight) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docIds[size] = docId;
+            weights[size] = (byte) weight;
+            size++;
+        }
+
+        void removeRange(int fromDocId, int toDocId) {
+            int from = lowerBound(fromDocId);
+            int to = lowerBound(toDocId);
+            System.arraycopy(docIds, to, docIds, from, size - to);
+            System.arraycopy(weights, to, weights, from, size - to);
+            size -= to - from;
+        }
+
+        private int lowerBound(int docId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docIds[mid] < docId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
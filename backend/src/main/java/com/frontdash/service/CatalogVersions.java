@@ -0,0 +1,201 @@
+package com.frontdash.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.entity.CatalogVersion;
+import com.frontdash.repository.CatalogVersionRepository;
+import com.frontdash.util.EncodedPayload;
+import com.frontdash.util.TransactionUtils;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Versions behind the ETags of the restaurant lists and of each restaurant's menu.
+ *
+ * Every write that changes what those endpoints return increments the matching CatalogVersion
+ * row in its own transaction, so the version moves exactly when the change commits, whichever
+ * node handled it. Conditional GETs are answered from an in-memory copy of the table: this
+ * node's own changes are applied right after they commit, and the table is re-read every
+ * catalog.version-refresh-interval-ms for changes committed through other nodes. A change made
+ * directly in the database is only seen once its CatalogVersion row is incremented as well.
+ *
+ * Besides the list and menu versions each restaurant has its own, moved by changes to its
+ * profile, status, address or hours. The in-memory catalog indexes listen for restaurant and
+ * menu versions moving forward, so they follow changes made through any node.
+ */
+@Service
+public class CatalogVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersions.class);
+
+    private static final String RESTAURANTS = "restaurants";
+    private static final String RESTAURANT_PREFIX = "restaurant:";
+    private static final String MENU_PREFIX = "menu:";
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    // Last known version per scope; only ever moves forward
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final List<Consumer<Integer>> restaurantListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Integer>> menuListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void init() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Versions start at 0 and catch up with the next refresh
+            logger.error("Could not load the catalog versions", e);
+        }
+    }
+
+    /**
+     * Strong ETag of GET /api/restaurant and /api/restaurant/with-address
+     */
+    public String restaurantsETag() {
+        return "\"r-" + restaurantsVersion() + "\"";
+    }
+
+    /**
+     * Current version of the restaurant lists, moved on by every committed change to them
+     */
+    public long restaurantsVersion() {
+        return versions.getOrDefault(RESTAURANTS, 0L);
+    }
+
+    /**
+     * Strong ETag of GET /api/restaurant/{restaurantId}/menu
+     */
+    public String menuETag(Integer restaurantId) {
+        return "\"m" + restaurantId + "-" + menuVersion(restaurantId) + "\"";
+    }
+
+    /**
+     * Current version of the restaurant's menu, moved on by every committed change to it
+     */
+    public long menuVersion(Integer restaurantId) {
+        return versions.getOrDefault(menuScope(restaurantId), 0L);
+    }
+
+    /**
+     * Change the restaurant lists' ETag and the restaurant's own version when the current transaction commits
+     */
+    @Transactional
+    public void restaurantChanged(Integer restaurantId) {
+        increment(RESTAURANTS);
+        increment(restaurantScope(restaurantId));
+    }
+
+    /**
+     * Change the restaurant's menu ETag when the current transaction commits
+     */
+    @Transactional
+    public void menuChanged(Integer restaurantId) {
+        increment(menuScope(restaurantId));
+    }
+
+    /**
+     * Pick up versions incremented through other nodes
+     */
+    @Scheduled(fixedDelayString = "${catalog.version-refresh-interval-ms:1000}", initialDelayString = "${catalog.version-refresh-interval-ms:1000}")
+    public void refresh() {
+        for (CatalogVersion row : catalogVersionRepository.findAll()) {
+            advance(row.getScope(), row.getVersion());
+        }
+    }
+
+    /**
+     * Call the listener with the restaurant's id whenever its restaurant version moves forward,
+     * from a commit on this node or a refresh that sees another node's
+     */
+    public void onRestaurantChanged(Consumer<Integer> listener) {
+        restaurantListeners.add(listener);
+    }
+
+    /**
+     * Call the listener with the restaurant's id whenever its menu version moves forward
+     */
+    public void onMenuChanged(Consumer<Integer> listener) {
+        menuListeners.add(listener);
+    }
+
+    private void increment(String scope) {
+        catalogVersionRepository.increment(scope);
+        long version = catalogVersionRepository.findVersion(scope);
+        TransactionUtils.afterCommit(() -> advance(scope, version));
+    }
+
+    private void advance(String scope, long version) {
+        if (!moveForward(scope, version)) {
+            return;
+        }
+        if (scope.startsWith(RESTAURANT_PREFIX)) {
+            Integer restaurantId = Integer.valueOf(scope.substring(RESTAURANT_PREFIX.length()));
+            restaurantListeners.forEach(listener -> listener.accept(restaurantId));
+        } else if (scope.startsWith(MENU_PREFIX)) {
+            Integer restaurantId = Integer.valueOf(scope.substring(MENU_PREFIX.length()));
+            menuListeners.forEach(listener -> listener.accept(restaurantId));
+        }
+    }
+
+    // True if this call moved the version; a refresh and an after-commit update can race on the same scope
+    private boolean moveForward(String scope, long version) {
+        while (true) {
+            Long current = versions.putIfAbsent(scope, version);
+            if (current == null) {
+                return true;
+            }
+            if (current >= version) {
+                return false;
+            }
+            if (versions.replace(scope, current, version)) {
+                return true;
+            }
+        }
+    }
+
+    private static String restaurantScope(Integer restaurantId) {
+        return RESTAURANT_PREFIX + restaurantId;
+    }
+
+    private static String menuScope(Integer restaurantId) {
+        return MENU_PREFIX + restaurantId;
+    }
+
+    /**
+     * Whether an If-None-Match header matches the current ETag. The ETag has to be read before
+     * the data it describes, so a change in between can only make the client fetch again.
+     * @param ifNoneMatch the header value, or null
+     * @param etag the current ETag; its gzip variant matches as well
+     * @return true if the client's copy is current and 304 can be sent
+     */
+    public static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String gzipETag = EncodedPayload.gzipETag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses the weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,253 @@
+package com.frontdash.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventListener;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.event.RecentEventIds;
+import com.frontdash.repository.OrderOutboxRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Estimates delivery times from how long a restaurant's orders actually took at the same hour of the week.
+ *
+ * Each restaurant keeps one delivery-duration histogram per hour of the week plus one over all hours,
+ * in 2-minute buckets up to two hours, so a restaurant costs at most 169 x 61 ints (about 41 KB).
+ * A histogram halves all its buckets when it reaches orders.eta-max-samples, so recent weeks outweigh
+ * old ones. Every update recomputes the histogram's orders.eta-percentile, which makes estimating a
+ * plain array read. Histograms are rebuilt from the last orders.eta-history-days of delivered orders
+ * at startup and then fed by DELIVERED events.
+ */
+@Service
+public class DeliveryTimeEstimator implements OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryTimeEstimator.class);
+
+    static final int BUCKET_MINUTES = 2;
+    static final int MAX_TRACKED_MINUTES = 120;
+    // The last bucket collects everything from MAX_TRACKED_MINUTES up
+    static final int BUCKETS = MAX_TRACKED_MINUTES / BUCKET_MINUTES + 1;
+    static final int HOURS_PER_WEEK = 7 * 24;
+    // Slot HOURS_PER_WEEK is the restaurant-wide histogram
+    static final int SLOTS = HOURS_PER_WEEK + 1;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Integer, Sketch> sketches = new ConcurrentHashMap<>();
+
+    private volatile boolean rebuilt = false;
+
+    // Outbox events up to this id were committed before the rebuild read Orders
+    private volatile long rebuiltThroughEventId = 0;
+
+    // A redelivered event would add its delivery to the sketch a second time
+    private final RecentEventIds appliedEvents = new RecentEventIds();
+
+    @PostConstruct
+    void init() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Estimates fall back to the requested or default time and are learned again from new deliveries
+            logger.error("Could not rebuild delivery time history", e);
+        }
+        rebuilt = true;
+    }
+
+    /**
+     * Estimated delivery time for an order placed now
+     * @param restaurantId the restaurant
+     * @param orderTime when the order is placed
+     * @param requested estimate sent by the client, used when the restaurant has too little history
+     * @return the estimated delivery time
+     */
+    public LocalDateTime estimate(Integer restaurantId, LocalDateTime orderTime, LocalDateTime requested) {
+        int minutes = estimateMinutes(restaurantId, orderTime);
+        if (minutes >= 0) {
+            return orderTime.plusMinutes(minutes);
+        }
+        return requested != null ? requested : orderTime.plusMinutes(orderProperties.getEtaDefaultMinutes());
+    }
+
+    /**
+     * Estimated minutes from order to delivery, without allocating
+     * @return the minutes, or -1 if neither the hour of the week nor the restaurant as a whole has enough history
+     */
+    public int estimateMinutes(Integer restaurantId, LocalDateTime orderTime) {
+        Sketch sketch = restaurantId == null ? null : sketches.get(restaurantId);
+        if (sketch == null) {
+            return -1;
+        }
+        int minutes = sketch.estimates.get(hourOfWeek(orderTime));
+        return minutes >= 0 ? minutes : sketch.estimates.get(HOURS_PER_WEEK);
+    }
+
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        if (!rebuilt || event.getType() != OrderEventType.DELIVERED || event.getRestaurantId() == null
+                || event.getOrderTime() == null) {
+            return;
+        }
+        if (event.getEventId() != null && event.getEventId() <= rebuiltThroughEventId) {
+            return; // already read from Orders by the rebuild
+        }
+        if (!appliedEvents.firstSeen(event.getEventId())) {
+            return;
+        }
+        Sketch sketch = sketches.computeIfAbsent(event.getRestaurantId(), k -> new Sketch());
+        if (event.getPreviousStatus() == event.getOrderStatus() && event.getPreviousDeliveryTime() != null) {
+            // A corrected delivery time replaces the sample recorded for the first one
+            sketch.remove(event.getOrderTime(), event.getPreviousDeliveryTime());
+        }
+        if (event.getDeliveryTime() != null) {
+            add(sketch, event.getOrderTime(), event.getDeliveryTime());
+        }
+    }
+
+    private void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusDays(orderProperties.getEtaHistoryDays());
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        // The watermark and the history come from one snapshot, so a delivery committed in between is counted once
+        readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        long samples = readTransaction.execute(status -> {
+            Long pendingThrough = orderOutboxRepository.findMaxEventId();
+            long count = 0;
+            try (Stream<Object[]> rows = ordersRepository.streamDeliveryDurationsSince(since, Orders.OrderStatus.DELIVERED)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    add(sketches.computeIfAbsent((Integer) row[0], k -> new Sketch()),
+                            (LocalDateTime) row[1], (LocalDateTime) row[2]);
+                    count++;
+                }
+            }
+            rebuiltThroughEventId = pendingThrough == null ? 0 : pendingThrough;
+            return count;
+        });
+        logger.info("Rebuilt delivery time history from {} deliveries of {} restaurants since {}",
+                samples, sketches.size(), since);
+    }
+
+    private void add(Sketch sketch, LocalDateTime orderTime, LocalDateTime deliveryTime) {
+        sketch.add(orderTime, deliveryTime, orderProperties.getEtaMaxSamples(),
+                orderProperties.getEtaPercentile(), orderProperties.getEtaMinSamples());
+    }
+
+    // Monday 00:00 is 0
+    static int hourOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    static int bucket(LocalDateTime orderTime, LocalDateTime deliveryTime) {
+        long minutes = Duration.between(orderTime, deliveryTime).toMinutes();
+        if (minutes < 0) {
+            return -1;
+        }
+        return (int) Math.min(minutes / BUCKET_MINUTES, BUCKETS - 1);
+    }
+
+    private static final class Sketch {
+        // Histograms are allocated on the first sample of their slot; guarded by this
+        private final int[][] counts = new int[SLOTS][];
+        private final int[] totals = new int[SLOTS];
+        // Current estimate in minutes per slot, -1 while the slot has too few samples
+        private final AtomicIntegerArray estimates = new AtomicIntegerArray(SLOTS);
+
+        Sketch() {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                estimates.set(slot, -1);
+            }
+        }
+
+        synchronized void add(LocalDateTime orderTime, LocalDateTime deliveryTime, int maxSamples, int percentile, int minSamples) {
+            int bucket = bucket(orderTime, deliveryTime);
+            if (bucket < 0) {
+                return; // delivery recorded before the order time
+            }
+            addToSlot(hourOfWeek(orderTime), bucket, maxSamples, percentile, minSamples);
+            addToSlot(HOURS_PER_WEEK, bucket, maxSamples, percentile, minSamples);
+        }
+
+        synchronized void remove(LocalDateTime orderTime, LocalDateTime deliveryTime) {
+            int bucket = bucket(orderTime, deliveryTime);
+            if (bucket < 0) {
+                return;
+            }
+            removeFromSlot(hourOfWeek(orderTime), bucket);
+            removeFromSlot(HOURS_PER_WEEK, bucket);
+            // The estimates are refreshed by the corrected sample that follows
+        }
+
+        private void addToSlot(int slot, int bucket, int maxSamples, int percentile, int minSamples) {
+            if (counts[slot] == null) {
+                counts[slot] = new int[BUCKETS];
+            }
+            if (totals[slot] >= maxSamples) {
+                decay(slot);
+            }
+            counts[slot][bucket]++;
+            totals[slot]++;
+            estimates.set(slot, quantile(slot, percentile, minSamples));
+        }
+
+        private void removeFromSlot(int slot, int bucket) {
+            // A decayed histogram may no longer hold the sample
+            if (counts[slot] != null && counts[slot][bucket] > 0) {
+                counts[slot][bucket]--;
+                totals[slot]--;
+            }
+        }
+
+        private void decay(int slot) {
+            int total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[slot][i] = (counts[slot][i] + 1) / 2;
+                total += counts[slot][i];
+            }
+            totals[slot] = total;
+        }
+
+        // Upper edge of the bucket holding the percentile, so the estimate errs late rather than early
+        private int quantile(int slot, int percentile, int minSamples) {
+            if (totals[slot] < minSamples) {
+                return -1;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totals[slot]));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[slot][i];
+                if (seen >= rank) {
+                    return Math.min((i + 1) * BUCKET_MINUTES, MAX_TRACKED_MINUTES);
+                }
+            }
+            return MAX_TRACKED_MINUTES;
+        }
+    }
+}
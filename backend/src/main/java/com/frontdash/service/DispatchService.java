@@ -0,0 +1,260 @@
+package com.frontdash.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.DispatchMetricsResponse;
+import com.frontdash.entity.Driver;
+import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventListener;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.repository.DriverRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Automatic driver dispatch.
+ *
+ * Keeps an in-memory pool of AVAILABLE driver ids that the scheduler tick claims from without
+ * locking. On every tick the longest-waiting unassigned PENDING orders are paired with claimed
+ * drivers and all pairs are written in one transaction using the same conditional updates as
+ * manual assignment, so the database stays the source of truth: a driver that was taken elsewhere
+ * simply fails its update and is dropped from the pool. The pool is rebuilt from the database at
+ * startup and periodically, which also picks up drivers added or changed through DriverService.
+ */
+@Service
+public class DispatchService implements OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchService.class);
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate dispatchTransaction;
+
+    // The queue gives FIFO claiming; the set stops a driver from being queued twice
+    private final Queue<Integer> availableDrivers = new ConcurrentLinkedQueue<>();
+    private final Set<Integer> pooledDrivers = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready = false;
+    private volatile long queueDepth = 0;
+    private volatile long lastTickDurationMs = 0;
+    private volatile long lastTimeToAssignMs = 0;
+    private volatile LocalDateTime lastTickAt;
+    private volatile LocalDateTime lastResyncAt;
+    private final AtomicLong totalAssignments = new AtomicLong();
+    private final AtomicLong totalTimeToAssignMs = new AtomicLong();
+    private final AtomicLong maxTimeToAssignMs = new AtomicLong();
+    private final AtomicLong lostClaims = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        dispatchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPool() {
+        resync();
+        ready = true;
+    }
+
+    /**
+     * Return a driver to the pool once its order is finished
+     */
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getAssignedDriverId() == null || event.getOrderStatus() == null || !event.getOrderStatus().isTerminal()) {
+            return;
+        }
+        if (event.getPreviousStatus() != null && event.getPreviousStatus().isTerminal()) {
+            return; // delivery time correction, the driver was already released
+        }
+        release(event.getAssignedDriverId());
+    }
+
+    @Scheduled(fixedDelayString = "${orders.dispatch-interval-ms:2000}", initialDelayString = "${orders.dispatch-interval-ms:2000}")
+    public void tick() {
+        if (!ready || !orderProperties.isDispatchEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            if (lastResyncAt == null || Duration.between(lastResyncAt, LocalDateTime.now()).toMillis()
+                    >= orderProperties.getDispatchResyncIntervalMs()) {
+                resync();
+            }
+            dispatchBatch();
+            queueDepth = ordersRepository.countByOrderStatusAndAssignedDriverIdIsNull(Orders.OrderStatus.PENDING);
+        } catch (RuntimeException e) {
+            // Keep the scheduler alive; the next tick retries and the next resync repairs the pool
+            logger.warn("Dispatch tick failed", e);
+        } finally {
+            lastTickDurationMs = System.currentTimeMillis() - started;
+            lastTickAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Current dispatcher state for monitoring
+     * @return DispatchMetricsResponse
+     */
+    public DispatchMetricsResponse getMetrics() {
+        long assignments = totalAssignments.get();
+        return DispatchMetricsResponse.builder()
+                .enabled(orderProperties.isDispatchEnabled())
+                .queueDepth(queueDepth)
+                .availableDrivers(pooledDrivers.size())
+                .totalAssignments(assignments)
+                .lostClaims(lostClaims.get())
+                .averageTimeToAssignMs(assignments == 0 ? 0 : totalTimeToAssignMs.get() / assignments)
+                .maxTimeToAssignMs(maxTimeToAssignMs.get())
+                .lastTimeToAssignMs(lastTimeToAssignMs)
+                .lastTickDurationMs(lastTickDurationMs)
+                .lastTickAt(lastTickAt)
+                .lastResyncAt(lastResyncAt)
+                .build();
+    }
+
+    private void dispatchBatch() {
+        if (availableDrivers.isEmpty()) {
+            return;
+        }
+        List<Orders> waiting = ordersRepository.findOldestWithoutDriver(Orders.OrderStatus.PENDING,
+                PageRequest.of(0, orderProperties.getDispatchBatchSize()));
+        if (waiting.isEmpty()) {
+            return;
+        }
+
+        List<Integer> claimed = new ArrayList<>(waiting.size());
+        for (int i = 0; i < waiting.size(); i++) {
+            Integer driverId = claim();
+            if (driverId == null) {
+                break;
+            }
+            claimed.add(driverId);
+        }
+
+        List<Integer> unused = new ArrayList<>();
+        try {
+            dispatchTransaction.executeWithoutResult(status -> assignAll(waiting, claimed, unused));
+        } catch (RuntimeException e) {
+            // Nothing was written; every claimed driver is still available in the database
+            claimed.forEach(this::release);
+            throw e;
+        }
+        unused.forEach(this::release);
+    }
+
+    private void assignAll(List<Orders> waiting, List<Integer> claimed, List<Integer> unused) {
+        List<String> assigned = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        int next = 0;
+        for (Integer driverId : claimed) {
+            if (driverRepository.transitionAvailability(driverId, Driver.AvailabilityStatus.AVAILABLE, Driver.AvailabilityStatus.BUSY) == 0) {
+                // Taken by a manual assignment or changed by staff; leave it out of the pool until it is freed
+                lostClaims.incrementAndGet();
+                continue;
+            }
+            boolean placed = false;
+            while (next < waiting.size() && !placed) {
+                Orders order = waiting.get(next++);
+                if (ordersRepository.assignDriverIfUnassigned(order.getOrderId(), driverId,
+                        Orders.OrderStatus.PENDING, Orders.OrderStatus.OUT_FOR_DELIVERY, now) == 1) {
+                    assigned.add(order.getOrderId());
+                    placed = true;
+                }
+            }
+            if (!placed) {
+                // Every remaining order was assigned by someone else; give the driver back
+                driverRepository.transitionAvailability(driverId, Driver.AvailabilityStatus.BUSY, Driver.AvailabilityStatus.AVAILABLE);
+                unused.add(driverId);
+            }
+        }
+
+        for (Orders order : ordersRepository.findAllById(assigned)) {
+            recordTimeToAssign(order.getOrderTime(), now);
+            // Recorded in the outbox with this transaction, like a manual assignment
+            eventPublisher.publishEvent(OrderEvent.of(OrderEventType.DRIVER_ASSIGNED, order, Orders.OrderStatus.PENDING));
+        }
+        if (!assigned.isEmpty()) {
+            logger.info("Dispatched {} orders", assigned.size());
+        }
+    }
+
+    private void recordTimeToAssign(LocalDateTime orderTime, LocalDateTime assignedAt) {
+        if (orderTime == null) {
+            return;
+        }
+        long millis = Math.max(0, Duration.between(orderTime, assignedAt).toMillis());
+        totalAssignments.incrementAndGet();
+        totalTimeToAssignMs.addAndGet(millis);
+        maxTimeToAssignMs.accumulateAndGet(millis, Math::max);
+        lastTimeToAssignMs = millis;
+    }
+
+    private Integer claim() {
+        Integer driverId;
+        while ((driverId = availableDrivers.poll()) != null) {
+            if (pooledDrivers.remove(driverId)) {
+                return driverId;
+            }
+        }
+        return null;
+    }
+
+    private void release(Integer driverId) {
+        if (pooledDrivers.add(driverId)) {
+            availableDrivers.add(driverId);
+        }
+    }
+
+    private void resync() {
+        List<Driver> drivers = driverRepository.findByAvailabilityStatus(Driver.AvailabilityStatus.AVAILABLE);
+        Set<Integer> current = ConcurrentHashMap.newKeySet();
+        for (Driver driver : drivers) {
+            current.add(driver.getDriverId());
+        }
+        // Drop drivers that are no longer available, then add any the pool does not know about
+        pooledDrivers.retainAll(current);
+        availableDrivers.removeIf(id -> !current.contains(id));
+        for (Integer driverId : current) {
+            release(driverId);
+        }
+        lastResyncAt = LocalDateTime.now();
+        logger.debug("Driver pool resynced with {} available drivers", current.size());
+    }
+}
@@ -0,0 +1,112 @@
+package com.frontdash.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.response.MenuItemResponse;
+import com.frontdash.util.EncodedPayload;
+import com.frontdash.util.TransactionUtils;
+
+/**
+ * Read-through cache of each restaurant's menu as served by GET /api/restaurant/{id}/menu.
+ *
+ * A snapshot is an unmodifiable list built once per load and shared by every reader, so a hit
+ * touches no database and copies nothing; callers must not modify the items. Each snapshot also
+ * holds the menu already serialized and gzipped, so the GET endpoint writes bytes without running
+ * Jackson or the compressor per request. Snapshots are
+ * evicted least recently used beyond catalog.menu-cache-size, expire after
+ * catalog.menu-cache-ttl-seconds, and are dropped after the transaction that changes the
+ * restaurant's menu commits. A snapshot older than the menu's CatalogVersions version is reloaded
+ * too, which covers menu changes committed through another node.
+ */
+@Service
+public class MenuSnapshotCache {
+
+    @Autowired
+    private CatalogProperties catalogProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Access-ordered for LRU eviction; guarded by lock, like the generation below
+    private final Map<Integer, Snapshot> snapshots = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Snapshot> eldest) {
+            return size() > catalogProperties.getMenuCacheSize();
+        }
+    };
+
+    // A load is published only if no invalidation ran since it started, so a read racing with
+    // a menu change cannot cache the old menu
+    private final Object lock = new Object();
+    private long generation = 0;
+
+    /**
+     * The restaurant's menu, loaded on a miss
+     * @param restaurantId the restaurant
+     * @param loader reads the menu from the database; only called on a miss
+     * @return the shared, unmodifiable snapshot
+     */
+    public List<MenuItemResponse> get(Integer restaurantId, Function<Integer, List<MenuItemResponse>> loader) {
+        return snapshot(restaurantId, loader).items();
+    }
+
+    /**
+     * The restaurant's menu as encoded response bytes, loaded on a miss
+     * @param restaurantId the restaurant
+     * @param loader reads the menu from the database; only called on a miss
+     * @return the shared payload
+     */
+    public EncodedPayload getPayload(Integer restaurantId, Function<Integer, List<MenuItemResponse>> loader) {
+        return snapshot(restaurantId, loader).payload();
+    }
+
+    /**
+     * Drop the restaurant's snapshot once the current transaction commits
+     * @param restaurantId the restaurant whose menu items or categories changed
+     */
+    public void invalidate(Integer restaurantId) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                generation++;
+                snapshots.remove(restaurantId);
+            }
+        });
+    }
+
+    private Snapshot snapshot(Integer restaurantId, Function<Integer, List<MenuItemResponse>> loader) {
+        long now = System.currentTimeMillis();
+        // Read before loading, so a change committed during the load leaves the snapshot stale
+        long version = catalogVersions.menuVersion(restaurantId);
+        long loadGeneration;
+        synchronized (lock) {
+            Snapshot cached = snapshots.get(restaurantId);
+            if (cached != null && cached.expiresAt() > now && cached.version() >= version) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        List<MenuItemResponse> items = List.copyOf(loader.apply(restaurantId));
+        Snapshot loaded = new Snapshot(version, items, EncodedPayload.encode(objectMapper, items),
+                now + catalogProperties.getMenuCacheTtlSeconds() * 1000);
+        synchronized (lock) {
+            if (loadGeneration == generation) {
+                snapshots.put(restaurantId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private record Snapshot(long version, List<MenuItemResponse> items, EncodedPayload payload, long expiresAt) {
+    }
+}
@@ -0,0 +1,244 @@
+package com.frontdash.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.frontdash.entity.OperatingHour;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.OperatingHourRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Which active restaurants are open at a given minute of the week.
+ *
+ * Every minute of the week has a bitmap with one bit per restaurant slot, so "open at T" reads a
+ * single row of words; 1,000 restaurants cost about 1.3 MB. A day's hours whose close time is not
+ * after the open time run past midnight into the next day (Sunday's into Monday), equal open and
+ * close times mean open around the clock, and missing times mean closed that day. A restaurant
+ * without hours is never open here. Built at startup; when a restaurant's CatalogVersions version
+ * moves, on any node, a scheduled refresh re-reads its hours and status.
+ */
+@Service
+public class OpenHoursIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenHoursIndex.class);
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OperatingHourRepository operatingHourRepository;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Guards everything below it
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // openBits[minuteOfWeek][slot / 64], bit slot % 64 set while the restaurant in that slot is open
+    private long[][] openBits = new long[MINUTES_PER_WEEK][1];
+    private int[] slotRestaurantIds = new int[64];
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot = 0;
+
+    private final CatalogIndexRefresh refresh = new CatalogIndexRefresh("opening hours index", this::rebuild, this::update);
+
+    @PostConstruct
+    void init() {
+        catalogVersions.onRestaurantChanged(this::restaurantChanged);
+        refresh.init();
+    }
+
+    /**
+     * Re-read the restaurant's committed hours and status on the next refresh
+     */
+    public void restaurantChanged(Integer restaurantId) {
+        refresh.restaurantChanged(restaurantId);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.open-hours-refresh-interval-ms:1000}", initialDelayString = "${catalog.open-hours-refresh-interval-ms:1000}")
+    public void refresh() {
+        refresh.refresh();
+    }
+
+    /**
+     * Ids of the active restaurants open at the given time, in ascending order
+     * @param time local time of the restaurants
+     */
+    public List<Integer> openAt(LocalDateTime time) {
+        int minute = minuteOfWeek(time);
+        List<Integer> restaurantIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long[] row = openBits[minute];
+            for (int word = 0; word < row.length; word++) {
+                long bits = row[word];
+                while (bits != 0) {
+                    int slot = word * 64 + Long.numberOfTrailingZeros(bits);
+                    restaurantIds.add(slotRestaurantIds[slot]);
+                    bits &= bits - 1;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        restaurantIds.sort(null);
+        return restaurantIds;
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        List<Restaurant> restaurants = restaurantRepository.findByStatus(Restaurant.RestaurantStatus.ACTIVE);
+        Map<Integer, List<OperatingHour>> hoursByRestaurant = operatingHourRepository.findAll().stream()
+                .collect(Collectors.groupingBy(OperatingHour::getRestaurantId));
+        lock.writeLock().lock();
+        try {
+            openBits = new long[MINUTES_PER_WEEK][Math.max(1, (restaurants.size() + 63) / 64)];
+            slotRestaurantIds = new int[openBits[0].length * 64];
+            slots.clear();
+            freeSlots.clear();
+            nextSlot = 0;
+            for (Restaurant restaurant : restaurants) {
+                put(restaurant.getRestaurantId(),
+                        weeklyMinutes(hoursByRestaurant.getOrDefault(restaurant.getRestaurantId(), List.of())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed opening hours of {} restaurants in {} ms", restaurants.size(), System.currentTimeMillis() - started);
+    }
+
+    private void update(Integer restaurantId) {
+        boolean active = restaurantRepository.findById(restaurantId)
+                .map(r -> r.getStatus() == Restaurant.RestaurantStatus.ACTIVE)
+                .orElse(false);
+        BitSet openMinutes = active ? weeklyMinutes(operatingHourRepository.findByRestaurantId(restaurantId)) : null;
+        lock.writeLock().lock();
+        try {
+            if (openMinutes != null) {
+                put(restaurantId, openMinutes);
+            } else {
+                remove(restaurantId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Integer restaurantId, BitSet openMinutes) {
+        Integer slot = slots.get(restaurantId);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? allocateSlot() : freeSlots.pop();
+            slots.put(restaurantId, slot);
+            slotRestaurantIds[slot] = restaurantId;
+        }
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        for (int minute = 0; minute < MINUTES_PER_WEEK; minute++) {
+            if (openMinutes.get(minute)) {
+                openBits[minute][word] |= mask;
+            } else {
+                openBits[minute][word] &= ~mask;
+            }
+        }
+    }
+
+    private void remove(Integer restaurantId) {
+        Integer slot = slots.remove(restaurantId);
+        if (slot == null) {
+            return;
+        }
+        int word = slot >>> 6;
+        long mask = ~(1L << slot);
+        for (int minute = 0; minute < MINUTES_PER_WEEK; minute++) {
+            openBits[minute][word] &= mask;
+        }
+        freeSlots.push(slot);
+    }
+
+    private int allocateSlot() {
+        if (nextSlot == slotRestaurantIds.length) {
+            int words = openBits[0].length * 2;
+            for (int minute = 0; minute < MINUTES_PER_WEEK; minute++) {
+                openBits[minute] = Arrays.copyOf(openBits[minute], words);
+            }
+            slotRestaurantIds = Arrays.copyOf(slotRestaurantIds, words * 64);
+        }
+        return nextSlot++;
+    }
+
+    /**
+     * The minutes of the week covered by a restaurant's operating hours
+     */
+    static BitSet weeklyMinutes(List<OperatingHour> hours) {
+        BitSet minutes = new BitSet(MINUTES_PER_WEEK);
+        for (OperatingHour hour : hours) {
+            DayOfWeek day = parseWeekDay(hour.getWeekDay());
+            if (day == null || hour.getOpenTime() == null || hour.getCloseTime() == null) {
+                continue;
+            }
+            int open = minuteOfDay(hour.getOpenTime());
+            int close = minuteOfDay(hour.getCloseTime());
+            // 23:59 is how a close at midnight is usually entered
+            if (close == MINUTES_PER_DAY - 1) {
+                close = MINUTES_PER_DAY;
+            }
+            int length = close > open ? close - open : close + MINUTES_PER_DAY - open;
+            int start = (day.getValue() - 1) * MINUTES_PER_DAY + open;
+            int end = start + length;
+            if (end <= MINUTES_PER_WEEK) {
+                minutes.set(start, end);
+            } else {
+                minutes.set(start, MINUTES_PER_WEEK);
+                minutes.set(0, end - MINUTES_PER_WEEK);
+            }
+        }
+        return minutes;
+    }
+
+    // Monday 00:00 is 0
+    static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + minuteOfDay(time.toLocalTime());
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // Week days are stored as entered, e.g. "MONDAY", "Monday" or "Mon"
+    private static DayOfWeek parseWeekDay(String weekDay) {
+        if (weekDay == null || weekDay.isBlank()) {
+            return null;
+        }
+        String upper = weekDay.trim().toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(upper) || (upper.length() >= 3 && day.name().startsWith(upper))) {
+                return day;
+            }
+        }
+        return null;
+    }
+}
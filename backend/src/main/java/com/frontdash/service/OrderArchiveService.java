@@ -0,0 +1,165 @@
+package com.frontdash.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.entity.OrderItem;
+import com.frontdash.entity.OrderItemArchive;
+import com.frontdash.repository.OrderItemArchiveRepository;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersArchiveRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves finished orders out of the hot Orders / OrderItem tables into OrdersArchive / OrderItemArchive.
+ *
+ * Only DELIVERED and NOT_DELIVERED orders older than orders.archive-after-days are moved, so the
+ * operational queries keep working on a table sized by recent traffic rather than by all history.
+ * Each chunk is locked, copied with INSERT ... SELECT and deleted in one transaction, and the job
+ * pauses between chunks and stops after a bounded number per run to limit its load on the database.
+ * Runs go to a dedicated thread so those pauses never hold up the shared scheduling pool.
+ * Archived orders are read-only and are still found by id through findArchivedOrder.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrdersArchiveRepository ordersArchiveRepository;
+
+    @Autowired
+    private OrderItemArchiveRepository orderItemArchiveRepository;
+
+    @Autowired
+    private OrderHydrator orderHydrator;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate archiveTransaction;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService archiver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        archiveTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Look up an order that has been archived
+     * @param orderId the order id
+     * @return the hydrated order, or empty if it is not in the archive
+     */
+    public Optional<OrderResponse> findArchivedOrder(String orderId) {
+        return ordersArchiveRepository.findById(orderId).map(archived -> {
+            List<OrderItem> items = orderItemArchiveRepository.findByOrderId(orderId).stream()
+                    .map(OrderItemArchive::toOrderItem)
+                    .collect(Collectors.toList());
+            return orderHydrator.hydrate(archived.toOrder(), items);
+        });
+    }
+
+    public boolean isArchived(String orderId) {
+        return ordersArchiveRepository.existsById(orderId);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive-interval-ms:3600000}", initialDelayString = "${orders.archive-interval-ms:3600000}")
+    public void archive() {
+        // A run still in progress covers this tick
+        if (!orderProperties.isArchiveEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        archiver.execute(() -> {
+            try {
+                runOnce();
+            } catch (RuntimeException e) {
+                // Every committed chunk is complete; the rest is picked up by the next run
+                logger.warn("Order archival failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupts the pause between chunks; the chunk in flight commits or rolls back whole
+        archiver.shutdownNow();
+    }
+
+    private void runOnce() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays());
+        int chunkSize = orderProperties.getArchiveChunkSize();
+        long moved = 0;
+        for (int chunk = 0; chunk < orderProperties.getArchiveMaxChunksPerRun(); chunk++) {
+            int count = archiveTransaction.execute(status -> archiveChunk(cutoff, chunkSize));
+            moved += count;
+            if (count < chunkSize || !pause()) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} orders placed before {}", moved, cutoff);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff, int chunkSize) {
+        List<String> orderIds = ordersRepository.lockArchivableOrderIds(cutoff, chunkSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        ordersArchiveRepository.copyFromOrders(orderIds, LocalDateTime.now());
+        orderItemArchiveRepository.copyFromOrderItems(orderIds);
+        orderItemRepository.deleteByOrderIdInBulk(orderIds);
+        ordersRepository.deleteAllByIdInBatch(orderIds);
+        return orderIds.size();
+    }
+
+    // Restaurant statistics rebuild from Orders for the retention window, so those days must stay hot
+    private int archiveAfterDays() {
+        return Math.max(orderProperties.getArchiveAfterDays(), orderProperties.getStatsRetentionDays() + 1);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(orderProperties.getArchivePauseMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
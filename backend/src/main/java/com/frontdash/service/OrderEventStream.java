@@ -0,0 +1,205 @@
+package com.frontdash.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventListener;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events feed of order lifecycle events for the restaurant and staff dashboards.
+ *
+ * Each subscriber gets a bounded buffer drained by a sender task. Publishing only offers to
+ * those buffers, so a slow client never blocks OrderService; when a buffer is full the client
+ * is dropped and is expected to reconnect with Last-Event-ID. The most recent events are kept
+ * in a replay window so a reconnecting client can resume without reloading every order.
+ * Event ids are the outbox event ids, so they stay the same across restarts; they increase but
+ * are not contiguous. A Last-Event-ID that is not in the replay window gets a RESYNC event.
+ */
+@Service
+public class OrderEventStream implements OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventStream.class);
+
+    // Sent when the requested Last-Event-ID is not in the replay window (too old, or from before a
+    // restart); the client must reload
+    static final String RESYNC_EVENT = "RESYNC";
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    private final Object lock = new Object();
+    private final Queue<StreamedEvent> replayWindow = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "order-event-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Outbox id of the newest event in the replay window
+    private long lastEventId = 0;
+
+    /**
+     * Open a feed of order events
+     * @param restaurantId only events for this restaurant, or null for all
+     * @param status only events leaving the order in this status, or null for all
+     * @param lastEventId id of the last event the client received, or null for live events only
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Integer restaurantId, Orders.OrderStatus status, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(orderProperties.getEventStreamTimeoutMs());
+        Subscriber subscriber = new Subscriber(emitter, restaurantId, status, orderProperties.getEventSubscriberBufferSize());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (lock) {
+            // Replay and registration happen under the publish lock so no event is missed or sent twice
+            if (lastEventId != null) {
+                // Ids have gaps, so only an id we still hold proves nothing was missed in between
+                if (lastEventId != this.lastEventId
+                        && replayWindow.stream().noneMatch(event -> event.id() == lastEventId)) {
+                    subscriber.resync = true;
+                } else {
+                    for (StreamedEvent event : replayWindow) {
+                        if (event.id() > lastEventId && subscriber.accepts(event.event())
+                                && !subscriber.buffer.offer(event)) {
+                            // More missed events than the buffer holds; a reload is cheaper than a partial replay
+                            subscriber.buffer.clear();
+                            subscriber.resync = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            // The RESYNC event carries the newest id, so reconnecting after the reload resumes from there
+            subscriber.resyncEventId = this.lastEventId;
+            subscribers.add(subscriber);
+        }
+        scheduleSend(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        synchronized (lock) {
+            if (event.getEventId() <= lastEventId) {
+                return; // redelivered by the relay after a failed delete; subscribers already have it
+            }
+            lastEventId = event.getEventId();
+            StreamedEvent streamed = new StreamedEvent(lastEventId, event);
+            replayWindow.add(streamed);
+            while (replayWindow.size() > orderProperties.getEventReplayWindow()) {
+                replayWindow.poll();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.accepts(event)) {
+                    continue;
+                }
+                if (!subscriber.buffer.offer(streamed)) {
+                    logger.info("Dropping slow order event subscriber after {} buffered events", subscriber.buffer.size());
+                    drop(subscriber);
+                }
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            scheduleSend(subscriber);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if ((subscriber.resync || !subscriber.buffer.isEmpty()) && subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            if (subscriber.resync) {
+                subscriber.resync = false;
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(subscriber.resyncEventId))
+                        .name(RESYNC_EVENT)
+                        .data(""));
+            }
+            StreamedEvent next;
+            while ((next = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(next.id()))
+                        .name(next.event().getType().name())
+                        .data(next.event(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter was already completed
+            subscribers.remove(subscriber);
+            subscriber.buffer.clear();
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // An event may have arrived between the last poll and releasing the flag
+        scheduleSend(subscriber);
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.buffer.clear();
+        subscriber.emitter.complete();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private record StreamedEvent(long id, OrderEvent event) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Integer restaurantId;
+        final Orders.OrderStatus status;
+        final ArrayBlockingQueue<StreamedEvent> buffer;
+        final AtomicBoolean sending = new AtomicBoolean(false);
+        volatile boolean resync;
+        long resyncEventId;
+
+        Subscriber(SseEmitter emitter, Integer restaurantId, Orders.OrderStatus status, int bufferSize) {
+            this.emitter = emitter;
+            this.restaurantId = restaurantId;
+            this.status = status;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean accepts(OrderEvent event) {
+            return (restaurantId == null || restaurantId.equals(event.getRestaurantId()))
+                    && (status == null || status == event.getOrderStatus());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.frontdash.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.OrdersArchive;
+import com.frontdash.repository.OrdersArchiveRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams orders in an order-time range as NDJSON or CSV, archived orders included.
+ * Rows are read through a forward-only result set and written one at a time, and the
+ * persistence context is cleared as we go, so memory use does not depend on the row count.
+ */
+@Service
+public class OrderExportService {
+
+    // Rows between persistence context clears / writer flushes
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String CSV_HEADER = "order_id,restaurant_id,customer_name,customer_phone,address_id,"
+            + "order_time,estimated_delivery_time,delivery_time,order_status,assigned_driver_id,subtotal,tips,total_amount";
+
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrdersArchiveRepository ordersArchiveRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate exportTransaction;
+
+    @PostConstruct
+    void init() {
+        exportTransaction = new TransactionTemplate(transactionManager);
+        exportTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write all orders placed in [from, to) to the output stream
+     * @param from inclusive start of the order time range
+     * @param to exclusive end of the order time range
+     * @param format NDJSON or CSV
+     * @param out destination, flushed but not closed
+     * @throws IllegalArgumentException if the range is empty or inverted
+     */
+    public void export(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range must have from before to");
+        }
+
+        exportTransaction.executeWithoutResult(status -> {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                RowWriter rows = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+                // Connector/J allows one streaming result set per connection, so the archive is read to
+                // the end and closed before Orders is queried. Archived orders go first: they are older
+                // than anything still finished in Orders.
+                try (Stream<OrdersArchive> archived = ordersArchiveRepository.streamByOrderTimeRange(from, to)) {
+                    writeAll(archived.map(OrdersArchive::toOrder).iterator(), rows, writer);
+                }
+                try (Stream<Orders> live = ordersRepository.streamByOrderTimeRange(from, to)) {
+                    writeAll(live.iterator(), rows, writer);
+                }
+                rows.finish();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeAll(Iterator<Orders> orders, RowWriter rows, Writer writer) throws IOException {
+        while (orders.hasNext()) {
+            if (rows.write(orders.next()) % CHUNK_SIZE == 0) {
+                releaseChunk(writer);
+            }
+        }
+    }
+
+    private void releaseChunk(Writer writer) throws IOException {
+        // Entities already written are never read again; drop them so the session stays small
+        entityManager.clear();
+        writer.flush();
+    }
+
+    private interface RowWriter {
+        /** Write one order and return the number of rows written so far */
+        long write(Orders order) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final SequenceWriter rows;
+        private long count;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.rows = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(writer);
+        }
+
+        @Override
+        public long write(Orders order) throws IOException {
+            rows.write(order);
+            return ++count;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            rows.close();
+            if (count > 0) {
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private long count;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public long write(Orders o) throws IOException {
+            writer.write(csv(o.getOrderId()));
+            writer.write(',');
+            writer.write(csv(o.getRestaurantId()));
+            writer.write(',');
+            writer.write(csv(o.getCustomerName()));
+            writer.write(',');
+            writer.write(csv(o.getCustomerPhone()));
+            writer.write(',');
+            writer.write(csv(o.getAddressId()));
+            writer.write(',');
+            writer.write(csv(o.getOrderTime()));
+            writer.write(',');
+            writer.write(csv(o.getEstimatedDeliveryTime()));
+            writer.write(',');
+            writer.write(csv(o.getDeliveryTime()));
+            writer.write(',');
+            writer.write(csv(o.getOrderStatus()));
+            writer.write(',');
+            writer.write(csv(o.getAssignedDriverId()));
+            writer.write(',');
+            writer.write(money(o.getSubtotal()));
+            writer.write(',');
+            writer.write(money(o.getTips()));
+            writer.write(',');
+            writer.write(money(o.getTotalAmount()));
+            writer.write('\n');
+            return ++count;
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private static String money(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,215 @@
+package com.frontdash.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.frontdash.dao.response.AddressResponse;
+import com.frontdash.dao.response.DriverResponse;
+import com.frontdash.dao.response.MenuItemResponse;
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.dao.response.RestaurantResponse;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.Driver;
+import com.frontdash.entity.OrderItem;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.DriverRepository;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+/**
+ * Builds OrderResponse objects for a batch of orders.
+ * Every related table is read with one IN-query per chunk of ids, so the number of
+ * queries stays fixed no matter how many orders are hydrated at once.
+ */
+@Service
+public class OrderHydrator {
+
+    // Keeps IN-lists well below MySQL packet and optimizer limits
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    /**
+     * Hydrate a single order
+     * @param order the order to hydrate
+     * @return OrderResponse with items, restaurant, address and driver resolved
+     */
+    public OrderResponse hydrate(Orders order) {
+        return hydrate(List.of(order)).get(0);
+    }
+
+    /**
+     * Hydrate a batch of orders
+     * @param orders the orders to hydrate
+     * @return OrderResponse list in the same order as the input
+     */
+    public List<OrderResponse> hydrate(List<Orders> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<String> orderIds = orders.stream().map(Orders::getOrderId).collect(Collectors.toList());
+        return hydrate(orders, findInChunks(orderIds, orderItemRepository::findByOrderIdIn));
+    }
+
+    /**
+     * Hydrate a single order whose items were read elsewhere, e.g. from the archive
+     * @param order the order to hydrate
+     * @param items the order's items
+     * @return OrderResponse with items, restaurant, address and driver resolved
+     */
+    public OrderResponse hydrate(Orders order, List<OrderItem> items) {
+        return hydrate(List.of(order), items).get(0);
+    }
+
+    private List<OrderResponse> hydrate(List<Orders> orders, List<OrderItem> orderItems) {
+        Map<String, List<OrderItem>> itemsByOrder = orderItems.stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
+
+        Set<Integer> menuItemIds = itemsByOrder.values().stream()
+                .flatMap(List::stream)
+                .map(OrderItem::getMenuItemId)
+                .collect(Collectors.toSet());
+        // Category names come with the items from the same join
+        Map<Integer, MenuItemResponse> menuItems = indexById(
+                findInChunks(menuItemIds, menuItemRepository::findResponsesByMenuItemIdIn), MenuItemResponse::getMenuItemId);
+
+        Map<Integer, Restaurant> restaurants = indexById(
+                findInChunks(collectIds(orders, Orders::getRestaurantId), restaurantRepository::findAllById),
+                Restaurant::getRestaurantId);
+        Map<Integer, Address> addresses = indexById(
+                findInChunks(collectIds(orders, Orders::getAddressId), addressRepository::findAllById),
+                Address::getAddressId);
+        Map<Integer, Driver> drivers = indexById(
+                findInChunks(collectIds(orders, Orders::getAssignedDriverId), driverRepository::findAllById),
+                Driver::getDriverId);
+
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Orders o : orders) {
+            List<MenuItemResponse> items = itemsByOrder.getOrDefault(o.getOrderId(), List.of()).stream()
+                    .map(oi -> menuItems.get(oi.getMenuItemId()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            responses.add(OrderResponse.builder()
+                    .orderId(o.getOrderId())
+                    .restaurant(toRestaurantResponse(restaurants.get(o.getRestaurantId())))
+                    .customerName(o.getCustomerName())
+                    .customerPhone(o.getCustomerPhone())
+                    .deliveryAddress(toAddressResponse(addresses.get(o.getAddressId())))
+                    .totalAmount(o.getTotalAmount())
+                    .orderTime(o.getOrderTime())
+                    .assignedDriver(toDriverResponse(drivers.get(o.getAssignedDriverId())))
+                    .estimatedDeliveryTime(o.getEstimatedDeliveryTime())
+                    .orderStatus(o.getOrderStatus())
+                    .tips(o.getTips())
+                    .subtotal(o.getSubtotal())
+                    .serviceCharge(serviceCharge(o))
+                    .deliveryTime(o.getDeliveryTime())
+                    .items(items)
+                    .build());
+        }
+        return responses;
+    }
+
+    // Not stored separately; total = subtotal + service charge + tips
+    private static BigDecimal serviceCharge(Orders order) {
+        if (order.getTotalAmount() == null || order.getSubtotal() == null) {
+            return null;
+        }
+        BigDecimal tips = order.getTips() == null ? BigDecimal.ZERO : order.getTips();
+        return order.getTotalAmount().subtract(order.getSubtotal()).subtract(tips);
+    }
+
+    private static <T> Set<Integer> collectIds(List<T> rows, Function<T, Integer> idGetter) {
+        Set<Integer> ids = new HashSet<>();
+        for (T row : rows) {
+            Integer id = idGetter.apply(row);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static <K, V> List<V> findInChunks(Collection<K> ids, Function<List<K>, List<V>> finder) {
+        List<V> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
+        List<K> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, idList.size());
+            results.addAll(finder.apply(idList.subList(from, to)));
+        }
+        return results;
+    }
+
+    private static <T> Map<Integer, T> indexById(List<T> rows, Function<T, Integer> idGetter) {
+        return rows.stream().collect(Collectors.toMap(idGetter, Function.identity(), (a, b) -> a));
+    }
+
+    private static RestaurantResponse toRestaurantResponse(Restaurant restaurant) {
+        if (restaurant == null) {
+            return null;
+        }
+        return RestaurantResponse.builder()
+                .restaurantId(restaurant.getRestaurantId())
+                .name(restaurant.getName())
+                .pictureUrl(restaurant.getPictureUrl())
+                .addressId(restaurant.getAddressId())
+                .phoneNumber(restaurant.getPhoneNumber())
+                .contactPersonName(restaurant.getContactPersonName())
+                .emailAddress(restaurant.getEmailAddress())
+                .status(restaurant.getStatus().name())
+                .build();
+    }
+
+    private static AddressResponse toAddressResponse(Address address) {
+        if (address == null) {
+            return null;
+        }
+        return AddressResponse.builder()
+                .addressId(address.getAddressId())
+                .bldg(address.getBldg())
+                .streetAddress(address.getStreetAddress())
+                .city(address.getCity())
+                .state(address.getState())
+                .zipCode(address.getZipCode())
+                .build();
+    }
+
+    private static DriverResponse toDriverResponse(Driver driver) {
+        if (driver == null) {
+            return null;
+        }
+        return new DriverResponse(driver.getDriverId(), driver.getFirstname(), driver.getLastname(), driver.getAvailabilityStatus());
+    }
+}
@@ -0,0 +1,151 @@
+package com.frontdash.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.entity.OrderIdBlock;
+import com.frontdash.repository.OrderIdBlockRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hands out "FD0001"-style order ids from blocks reserved in the OrderIdBlock table (hi/lo).
+ * Reserving a block is one locked row update; every id inside the block is then an in-memory
+ * increment, so ids never collide across threads or backend nodes and are never reused after
+ * a restart. Ids left in a block when a node stops are skipped, which leaves gaps.
+ */
+@Service
+public class OrderIdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdAllocator.class);
+
+    static final String ORDER_SEQUENCE = "ORDER";
+    private static final int MAX_RESERVATION_ATTEMPTS = 5;
+
+    @Autowired
+    private OrderIdBlockRepository orderIdBlockRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate reservationTransaction;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+
+    @PostConstruct
+    void init() {
+        // Reservations commit on their own so a rolled back order never returns its block
+        reservationTransaction = new TransactionTemplate(transactionManager);
+        reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Allocate the next order id
+     * @return order id in the format "FD0001"
+     */
+    public String nextOrderId() {
+        return format(nextValue());
+    }
+
+    /**
+     * Allocate ids for a batch of orders from one freshly reserved block
+     * @param count number of ids needed
+     * @return consecutive order ids in the format "FD0001"
+     */
+    public List<String> nextOrderIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        if (count <= 0) {
+            return ids;
+        }
+        Block block = reserveBlock(count);
+        for (long value = block.next.get(); value < block.end; value++) {
+            ids.add(format(value));
+        }
+        return ids;
+    }
+
+    static String format(long value) {
+        return String.format("FD%04d", value);
+    }
+
+    private long nextValue() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            refill(block);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) {
+            return; // another thread already installed a fresh block
+        }
+        current.set(reserveBlock(orderProperties.getIdBlockSize()));
+    }
+
+    Block reserveBlock(int size) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return reservationTransaction.execute(status -> doReserveBlock(size));
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // Nodes starting together race to create and lock the sequence row; MySQL resolves
+                // that by failing one of them (deadlock, lock wait timeout), which only needs a retry
+                if (attempt >= MAX_RESERVATION_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Order id block reservation attempt {} failed, retrying", attempt, e);
+            }
+        }
+    }
+
+    private Block doReserveBlock(int size) {
+        OrderIdBlock row = orderIdBlockRepository.findForUpdate(ORDER_SEQUENCE).orElse(null);
+        if (row == null) {
+            // Continue after the highest existing id so imported or demo orders are never reused.
+            // INSERT IGNORE leaves a row another node created first untouched instead of failing.
+            long seed = ordersRepository.findMaxOrderNumber().longValue() + 1;
+            orderIdBlockRepository.insertIfAbsent(ORDER_SEQUENCE, seed);
+            row = orderIdBlockRepository.findForUpdate(ORDER_SEQUENCE).orElseThrow();
+        }
+        long start = row.getNextValue();
+        row.setNextValue(start + size);
+        orderIdBlockRepository.save(row);
+        logger.info("Reserved order id block [{}, {})", start, start + size);
+        return new Block(start, start + size);
+    }
+
+    static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
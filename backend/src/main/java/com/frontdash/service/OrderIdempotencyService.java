@@ -0,0 +1,222 @@
+package com.frontdash.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.entity.OrderIdempotencyKey;
+import com.frontdash.repository.OrderIdempotencyKeyRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Order creation with an Idempotency-Key, so a client retrying after a timeout gets its
+ * original order back instead of a duplicate.
+ *
+ * Recent results are kept in a bounded in-memory map with a TTL and returned without any
+ * database work. Requests with the same key that arrive while the first is still running wait
+ * for its result instead of running again. Across nodes, the key is inserted into
+ * OrderIdempotencyKey in the same transaction as the order, so a second node blocks on the
+ * primary key, fails once the first commits, and returns the stored order instead.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate createTransaction;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    // Access-ordered, so the least recently used key is evicted first; guarded by itself
+    private final Map<String, Completed> completed = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+            return size() > orderProperties.getIdempotencyCacheSize();
+        }
+    };
+
+    @PostConstruct
+    void init() {
+        createTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create an order at most once per idempotency key
+     * @param idempotencyKey value of the Idempotency-Key header, or null to always create
+     * @param request the order to create
+     * @return the created order, or the order created by an earlier request with the same key
+     * @throws IllegalArgumentException if the request is invalid, the key is malformed, or the key was used for a different request
+     */
+    public OrderResponse createOrder(String idempotencyKey, OrderRequest request) {
+        if (idempotencyKey == null) {
+            return orderService.createOrder(request);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        Completed done = cached(idempotencyKey);
+        if (done != null) {
+            checkSameRequest(done.requestHash(), requestHash);
+            return done.response();
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(idempotencyKey, mine);
+        if (running != null) {
+            checkSameRequest(running.requestHash(), requestHash);
+            return await(running.result());
+        }
+        try {
+            OrderResponse response = createOnce(idempotencyKey, requestHash, request);
+            synchronized (completed) {
+                completed.put(idempotencyKey, new Completed(requestHash, response, System.currentTimeMillis() + ttlMillis()));
+            }
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Nothing was stored, so waiting requests fail the same way and a later retry runs again
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency-cleanup-interval-ms:3600000}", initialDelayString = "${orders.idempotency-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = orderIdempotencyKeyRepository.deleteCreatedBefore(
+                LocalDateTime.now().minusSeconds(orderProperties.getIdempotencyTtlSeconds()));
+        long now = System.currentTimeMillis();
+        synchronized (completed) {
+            completed.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired idempotency keys", removed);
+        }
+    }
+
+    private OrderResponse createOnce(String idempotencyKey, String requestHash, OrderRequest request) {
+        Optional<OrderIdempotencyKey> stored = orderIdempotencyKeyRepository.findById(idempotencyKey);
+        if (stored.isPresent()) {
+            return replay(stored.get(), requestHash);
+        }
+        try {
+            return createTransaction.execute(status -> {
+                // Inserted first: a concurrent request for the same key on another node waits here
+                OrderIdempotencyKey key = orderIdempotencyKeyRepository.saveAndFlush(OrderIdempotencyKey.builder()
+                        .idempotencyKey(idempotencyKey)
+                        .requestHash(requestHash)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+                OrderResponse response = orderService.createOrder(request);
+                key.setOrderId(response.getOrderId());
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node committed this key first
+            return orderIdempotencyKeyRepository.findById(idempotencyKey)
+                    .map(key -> replay(key, requestHash))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private OrderResponse replay(OrderIdempotencyKey key, String requestHash) {
+        checkSameRequest(key.getRequestHash(), requestHash);
+        OrderResponse response = orderService.getOrderById(key.getOrderId());
+        if (response == null) {
+            throw new IllegalArgumentException("The order created for this Idempotency-Key no longer exists");
+        }
+        return response;
+    }
+
+    private Completed cached(String idempotencyKey) {
+        synchronized (completed) {
+            Completed done = completed.get(idempotencyKey);
+            if (done != null && done.expiresAt() <= System.currentTimeMillis()) {
+                completed.remove(idempotencyKey);
+                return null;
+            }
+            return done;
+        }
+    }
+
+    private static OrderResponse await(CompletableFuture<OrderResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void checkSameRequest(String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different order");
+        }
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint order request", e);
+        }
+    }
+
+    private long ttlMillis() {
+        return orderProperties.getIdempotencyTtlSeconds() * 1000;
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> result) {
+    }
+
+    private record Completed(String requestHash, OrderResponse response, long expiresAt) {
+    }
+}
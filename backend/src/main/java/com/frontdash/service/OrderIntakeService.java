@@ -0,0 +1,662 @@
+package com.frontdash.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.dao.response.OrderIntakeMetricsResponse;
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.OrderItem;
+import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.exception.IntakeQueueFullException;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional write-behind intake for order creation (orders.intake-enabled).
+ *
+ * An order is validated, priced from PricingEngine's cached snapshots, given an id from the current
+ * OrderIdAllocator block, appended to a local journal and put on a bounded queue once its line is
+ * on disk. Concurrent orders share one fsync (group commit): the first to sync covers every line
+ * appended before it, and the others wait for it instead of syncing again. A single writer thread
+ * takes orders off the queue and inserts them in batches, one transaction per batch.
+ *
+ * Request threads only reach the database to load a price missing from the cache or to reserve
+ * the next id block, so a database stall holds up those requests and delays the writes, but
+ * orders for cached items keep being acknowledged. The address is checked by the writer: an
+ * order for an unknown address is acknowledged, then dropped and counted as failed. When the
+ * queue is full new orders are refused with IntakeQueueFullException rather than waiting.
+ *
+ * The journal is split into segments; a segment is deleted once every order in it is written.
+ * At startup any segments left by a crash are replayed and orders not yet in the database are
+ * queued again, so an acknowledged order is never lost to a crash.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    // A full segment is sealed and a new one started, so the journal never grows without bound
+    private static final long SEGMENT_BYTES = 16L * 1024 * 1024;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+    private static final long POLL_INTERVAL_MS = 250;
+    private static final long SHUTDOWN_WAIT_MS = 10000;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OrderIdAllocator orderIdAllocator;
+
+    @Autowired
+    private OrderHydrator orderHydrator;
+
+    @Autowired
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate insertTransaction;
+
+    // Appending to the journal and the capacity check happen together under this lock
+    private final Object journalLock = new Object();
+    // Held while syncing a segment; taken after journalLock when both are needed
+    private final Object syncLock = new Object();
+    private final LinkedBlockingQueue<Intake> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Intake> pending = new ConcurrentHashMap<>();
+    private Segment currentSegment;
+    private long nextSegmentSeq = 1;
+
+    private Thread writer;
+    private volatile boolean running = false;
+
+    private final AtomicLong acceptedOrders = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong persistedOrders = new AtomicLong();
+    private final AtomicLong failedOrders = new AtomicLong();
+    private final AtomicLong replayedOrders = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedOrders = new AtomicLong();
+    private final AtomicLong journalSyncs = new AtomicLong();
+    private final RateWindow acceptedRate = new RateWindow();
+    private final RateWindow persistedRate = new RateWindow();
+    private volatile long lastBatchDurationMs;
+    private volatile LocalDateTime lastBatchAt;
+
+    @PostConstruct
+    void init() {
+        insertTransaction = new TransactionTemplate(transactionManager);
+        if (!orderProperties.isIntakeEnabled()) {
+            return;
+        }
+        try {
+            replayJournal();
+            synchronized (journalLock) {
+                currentSegment = openSegment();
+            }
+        } catch (IOException e) {
+            // Acknowledging orders without a journal would lose them on a crash
+            throw new IllegalStateException("Cannot open order intake journal " + orderProperties.getIntakeJournalPath(), e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "order-intake-writer");
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Validate and price an order, journal it and queue it for writing
+     * @param request the order to create
+     * @return the acknowledged order with its id and amounts; restaurant, address and items are not expanded
+     * @throws IllegalArgumentException if the order is invalid
+     * @throws IntakeQueueFullException if the queue is full
+     */
+    public OrderResponse accept(OrderRequest request) {
+        checkCapacity();
+        if (request.getCustomerName() == null || request.getCustomerName().isBlank()) {
+            throw new IllegalArgumentException("Customer name is required");
+        }
+        Map<Integer, Integer> quantities = request.getItems() == null ? Map.of() : OrderService.mergeItems(request.getItems());
+        PricingEngine.PriceQuote quote = pricingEngine.quote(request.getRestaurantId(), quantities, request.getTips());
+
+        String orderId = orderIdAllocator.nextOrderId();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime estimate = deliveryTimeEstimator.estimate(request.getRestaurantId(), now, request.getEstimatedDeliveryTime());
+        Orders order = OrderService.buildOrder(orderId, request, quote, now, estimate);
+        JournalEntry entry = new JournalEntry(order, OrderService.buildItems(orderId, quantities));
+        byte[] line = toJournalLine(entry);
+
+        Segment segment;
+        long end;
+        synchronized (journalLock) {
+            checkCapacity();
+            segment = currentSegment;
+            try {
+                if (segment.channel.size() >= SEGMENT_BYTES) {
+                    segment = rotateSegment();
+                }
+                append(segment.channel, line);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write order intake journal", e);
+            }
+            segment.appended += line.length;
+            end = segment.appended;
+            segment.outstanding.incrementAndGet();
+        }
+        try {
+            sync(segment, end);
+        } catch (IOException e) {
+            release(segment);
+            throw new UncheckedIOException("Could not sync order intake journal", e);
+        }
+        // Only an order whose line is on disk is queued for the writer and acknowledged
+        Intake intake = new Intake(entry, segment, System.currentTimeMillis());
+        pending.put(orderId, intake);
+        queue.add(intake);
+        acceptedOrders.incrementAndGet();
+        acceptedRate.add(1);
+
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .restaurantId(order.getRestaurantId())
+                .customerName(order.getCustomerName())
+                .customerPhone(order.getCustomerPhone())
+                .totalAmount(order.getTotalAmount())
+                .orderTime(order.getOrderTime())
+                .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
+                .orderStatus(order.getOrderStatus())
+                .tips(order.getTips())
+                .subtotal(order.getSubtotal())
+                .serviceCharge(quote.serviceCharge())
+                .build();
+    }
+
+    /**
+     * Look up an acknowledged order that has not been written yet
+     * @param orderId the order id
+     * @return the hydrated order, or empty if it is not waiting in the intake
+     */
+    public Optional<OrderResponse> findPendingOrder(String orderId) {
+        Intake intake = pending.get(orderId);
+        if (intake == null) {
+            return Optional.empty();
+        }
+        return Optional.of(orderHydrator.hydrate(intake.entry().order(), intake.entry().items()));
+    }
+
+    /**
+     * Current intake state for monitoring
+     * @return OrderIntakeMetricsResponse
+     */
+    public OrderIntakeMetricsResponse getMetrics() {
+        long batchCount = batches.get();
+        Intake oldest = queue.peek();
+        return OrderIntakeMetricsResponse.builder()
+                .enabled(running)
+                .queueDepth(queue.size())
+                .queueCapacity(orderProperties.getIntakeQueueCapacity())
+                .acceptedOrders(acceptedOrders.get())
+                .rejectedQueueFull(rejectedQueueFull.get())
+                .persistedOrders(persistedOrders.get())
+                .failedOrders(failedOrders.get())
+                .replayedOrders(replayedOrders.get())
+                .acceptedPerSecond(acceptedRate.perSecond())
+                .persistedPerSecond(persistedRate.perSecond())
+                .batches(batchCount)
+                .averageBatchSize(batchCount == 0 ? 0 : (double) batchedOrders.get() / batchCount)
+                .journalSyncs(journalSyncs.get())
+                .lastBatchDurationMs(lastBatchDurationMs)
+                .oldestPendingAgeMs(oldest == null ? 0 : System.currentTimeMillis() - oldest.acceptedAt())
+                .lastBatchAt(lastBatchAt)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!running) {
+            return;
+        }
+        // The writer finishes its current batch; anything still queued stays in the journal for the next start
+        running = false;
+        try {
+            writer.join(SHUTDOWN_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (journalLock) {
+            closeQuietly(currentSegment);
+        }
+    }
+
+    private void checkCapacity() {
+        if (queue.size() >= orderProperties.getIntakeQueueCapacity()) {
+            rejectedQueueFull.incrementAndGet();
+            throw new IntakeQueueFullException("Order intake queue is full", orderProperties.getIntakeRetryAfterSeconds());
+        }
+    }
+
+    private void writeLoop() {
+        List<Intake> batch = new ArrayList<>();
+        while (running) {
+            if (batch.isEmpty()) {
+                Intake first;
+                try {
+                    first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) {
+                    truncateIfDrained();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, orderProperties.getIntakeBatchSize() - 1);
+            }
+            if (!write(batch)) {
+                sleep(orderProperties.getIntakeRetryBackoffMs());
+            }
+        }
+    }
+
+    // Removes finished orders from the batch; false if the database failed and the rest must be retried
+    private boolean write(List<Intake> batch) {
+        long started = System.currentTimeMillis();
+        int size = batch.size();
+        try {
+            dropUnknownAddresses(batch);
+            if (batch.isEmpty()) {
+                return true;
+            }
+            insertTransaction.executeWithoutResult(status -> insert(batch));
+            batch.forEach(intake -> finish(intake, true));
+            batch.clear();
+        } catch (DataIntegrityViolationException e) {
+            // Some order in the batch can never be written; find it by writing one order per transaction
+            logger.warn("Intake batch of {} orders rejected, writing individually", size, e);
+            if (!writeIndividually(batch)) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Writing {} intake orders failed, retrying", size, e);
+            batch.forEach(Intake::markNew);
+            return false;
+        }
+        batches.incrementAndGet();
+        batchedOrders.addAndGet(size);
+        lastBatchDurationMs = System.currentTimeMillis() - started;
+        lastBatchAt = LocalDateTime.now();
+        return true;
+    }
+
+    private boolean writeIndividually(List<Intake> batch) {
+        Iterator<Intake> remaining = batch.iterator();
+        while (remaining.hasNext()) {
+            Intake intake = remaining.next();
+            intake.markNew();
+            try {
+                insertTransaction.executeWithoutResult(status -> insert(List.of(intake)));
+                finish(intake, true);
+            } catch (DataIntegrityViolationException e) {
+                String orderId = intake.entry().order().getOrderId();
+                if (ordersRepository.existsById(orderId)) {
+                    // Written before a crash and replayed from the journal
+                    finish(intake, true);
+                } else {
+                    logger.error("Dropping acknowledged order {}: {}", orderId, e.getMostSpecificCause().getMessage());
+                    finish(intake, false);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Writing intake order failed, retrying", e);
+                batch.forEach(Intake::markNew);
+                return false;
+            }
+            remaining.remove();
+        }
+        return true;
+    }
+
+    // One query per batch instead of one per request; addresses are never deleted, so a found one stays valid
+    private void dropUnknownAddresses(List<Intake> batch) {
+        Set<Integer> addressIds = new HashSet<>();
+        for (Intake intake : batch) {
+            if (intake.entry().order().getAddressId() != null) {
+                addressIds.add(intake.entry().order().getAddressId());
+            }
+        }
+        if (addressIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> found = new HashSet<>();
+        for (Address address : addressRepository.findAllById(addressIds)) {
+            found.add(address.getAddressId());
+        }
+        Iterator<Intake> remaining = batch.iterator();
+        while (remaining.hasNext()) {
+            Intake intake = remaining.next();
+            Integer addressId = intake.entry().order().getAddressId();
+            if (addressId != null && !found.contains(addressId)) {
+                logger.error("Dropping acknowledged order {}: address {} not found",
+                        intake.entry().order().getOrderId(), addressId);
+                finish(intake, false);
+                remaining.remove();
+            }
+        }
+    }
+
+    private void insert(List<Intake> batch) {
+        List<Orders> orders = new ArrayList<>(batch.size());
+        List<OrderItem> items = new ArrayList<>();
+        for (Intake intake : batch) {
+            orders.add(intake.entry().order());
+            items.addAll(intake.entry().items());
+        }
+        ordersRepository.saveAll(orders);
+        orderItemRepository.saveAll(items);
+        // Recorded in the outbox with this transaction, exactly as for synchronously created orders
+        for (Orders order : orders) {
+            eventPublisher.publishEvent(OrderEvent.of(OrderEventType.CREATED, order, null));
+        }
+    }
+
+    private void finish(Intake intake, boolean written) {
+        pending.remove(intake.entry().order().getOrderId());
+        if (written) {
+            persistedOrders.incrementAndGet();
+            persistedRate.add(1);
+        } else {
+            failedOrders.incrementAndGet();
+        }
+        release(intake.segment());
+    }
+
+    private void release(Segment segment) {
+        if (segment.outstanding.decrementAndGet() == 0 && segment.sealed) {
+            deleteSegment(segment);
+        }
+    }
+
+    // With nothing left to write, the current segment's contents are all in the database
+    private void truncateIfDrained() {
+        synchronized (journalLock) {
+            try {
+                if (queue.isEmpty() && currentSegment.outstanding.get() == 0 && currentSegment.channel.size() > 0) {
+                    currentSegment.channel.truncate(0);
+                    currentSegment.channel.force(true);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not truncate order intake journal", e);
+            }
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        Path base = Path.of(orderProperties.getIntakeJournalPath()).toAbsolutePath();
+        Files.createDirectories(base.getParent());
+        Map<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(base.getParent(), base.getFileName() + ".*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(base.getFileName().toString().length() + 1);
+                if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty()) {
+                    segments.put(Long.parseLong(suffix), file);
+                }
+            }
+        }
+        for (Map.Entry<Long, Path> file : segments.entrySet()) {
+            nextSegmentSeq = Math.max(nextSegmentSeq, file.getKey() + 1);
+            List<JournalEntry> entries = readSegment(file.getValue());
+            Set<String> written = findWritten(entries);
+            Segment segment = new Segment(file.getValue(), null);
+            segment.sealed = true;
+            for (JournalEntry entry : entries) {
+                String orderId = entry.order().getOrderId();
+                if (written.contains(orderId) || pending.containsKey(orderId)) {
+                    continue;
+                }
+                entry.order().setNewEntity(true);
+                entry.items().forEach(item -> item.setNewEntity(true));
+                Intake intake = new Intake(entry, segment, System.currentTimeMillis());
+                segment.outstanding.incrementAndGet();
+                pending.put(orderId, intake);
+                queue.add(intake);
+                replayedOrders.incrementAndGet();
+            }
+            if (segment.outstanding.get() == 0) {
+                Files.deleteIfExists(file.getValue());
+            }
+        }
+        if (replayedOrders.get() > 0) {
+            logger.info("Replayed {} unwritten orders from the intake journal", replayedOrders.get());
+        }
+    }
+
+    private List<JournalEntry> readSegment(Path file) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, JournalEntry.class));
+                } catch (JsonProcessingException e) {
+                    // A torn last line from a crash mid-write; that order was never acknowledged
+                    logger.warn("Skipping unreadable order intake journal line in {}", file);
+                }
+            }
+        }
+        return entries;
+    }
+
+    // Ids already in Orders; if the database is unreachable none are skipped and the writer sorts out duplicates
+    private Set<String> findWritten(List<JournalEntry> entries) {
+        Set<String> written = new HashSet<>();
+        try {
+            List<String> ids = entries.stream().map(entry -> entry.order().getOrderId()).toList();
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size());
+                ordersRepository.findAllById(ids.subList(from, to)).forEach(order -> written.add(order.getOrderId()));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not check replayed intake orders against the database", e);
+        }
+        return written;
+    }
+
+    private Segment openSegment() throws IOException {
+        Path file = Path.of(orderProperties.getIntakeJournalPath() + "." + nextSegmentSeq++).toAbsolutePath();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return new Segment(file, channel);
+    }
+
+    private Segment rotateSegment() throws IOException {
+        Segment sealed = currentSegment;
+        currentSegment = openSegment();
+        // Orders still waiting for their sync are covered by this one
+        synchronized (syncLock) {
+            sealed.channel.force(false);
+            sealed.synced = sealed.appended;
+        }
+        closeQuietly(sealed);
+        sealed.sealed = true;
+        if (sealed.outstanding.get() == 0) {
+            deleteSegment(sealed);
+        }
+        return currentSegment;
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            logger.warn("Could not delete order intake journal segment {}", segment.path, e);
+        }
+    }
+
+    private static void append(FileChannel channel, byte[] line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Returns once the segment is on disk up to end. Whoever holds the lock syncs everything appended so
+    // far, so threads that appended while another sync ran usually find their line covered when they get it.
+    private void sync(Segment segment, long end) throws IOException {
+        synchronized (syncLock) {
+            if (segment.synced >= end) {
+                return;
+            }
+            long appended = segment.appended;
+            segment.channel.force(false);
+            segment.synced = appended;
+            journalSyncs.incrementAndGet();
+        }
+    }
+
+    private byte[] toJournalLine(JournalEntry entry) {
+        try {
+            return (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order for the intake journal", e);
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        if (segment == null || segment.channel == null) {
+            return;
+        }
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            logger.warn("Could not close order intake journal segment {}", segment.path, e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record JournalEntry(Orders order, List<OrderItem> items) {
+    }
+
+    private record Intake(JournalEntry entry, Segment segment, long acceptedAt) {
+
+        // A failed insert may already have marked the entities as persisted
+        void markNew() {
+            entry.order().setNewEntity(true);
+            entry.items().forEach(item -> item.setNewEntity(true));
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final AtomicInteger outstanding = new AtomicInteger();
+        volatile boolean sealed;
+        // Bytes ever appended (under journalLock) and how many of them are synced (under syncLock);
+        // unlike the file size these only grow, even when a drained segment is truncated
+        volatile long appended;
+        long synced;
+
+        Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    // Events per second over the last minute, one slot per second
+    private static final class RateWindow {
+        private final long[] seconds = new long[60];
+        private final long[] counts = new long[60];
+
+        synchronized void add(long count) {
+            long now = System.currentTimeMillis() / 1000;
+            int slot = (int) (now % seconds.length);
+            if (seconds[slot] != now) {
+                seconds[slot] = now;
+                counts[slot] = 0;
+            }
+            counts[slot] += count;
+        }
+
+        synchronized double perSecond() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int i = 0; i < seconds.length; i++) {
+                if (now - seconds[i] < seconds.length) {
+                    total += counts[i];
+                }
+            }
+            return total / (double) seconds.length;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.frontdash.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.OrderOutboxMetricsResponse;
+import com.frontdash.entity.OrderOutbox;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventListener;
+import com.frontdash.event.RecentEventIds;
+import com.frontdash.repository.OrderOutboxRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Delivers events from the OrderOutbox table to every OrderEventListener bean.
+ *
+ * Each poll locks the oldest events, hands them to the listeners in event id order and deletes
+ * them in the same transaction, so an event is removed only after it was delivered and a crash in
+ * between delivers it again after the restart (at least once). An order's events are written
+ * while its row is locked, so their ids follow the order's history and they are delivered in that
+ * order. A listener that throws is logged and does not hold up the other listeners or later events.
+ *
+ * Listeners keep their state in this process, and a claimed event reaches only the node that
+ * claimed it. FrontDash is therefore deployed as a single backend instance; a second instance
+ * would split the events between the two and leave the SSE feed, the dispatch pool, statistics
+ * and delivery estimates on each node incomplete.
+ */
+@Service
+public class OrderOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    // Batches per poll while the outbox is backed up, so one poll cannot run unbounded
+    private static final int MAX_BATCHES_PER_POLL = 20;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private List<OrderEventListener> listeners;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate relayTransaction;
+
+    // Events delivered by this node whose delete has not necessarily committed; a retried batch skips them
+    private RecentEventIds recentlyDelivered;
+
+    private volatile boolean ready = false;
+    private final AtomicLong deliveredEvents = new AtomicLong();
+    private final AtomicLong listenerErrors = new AtomicLong();
+    private final AtomicLong totalLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+    private volatile long lastLagMs;
+    private volatile int lastBatchSize;
+    private volatile long lastPollDurationMs;
+    private volatile LocalDateTime lastPollAt;
+
+    @PostConstruct
+    void init() {
+        relayTransaction = new TransactionTemplate(transactionManager);
+        recentlyDelivered = new RecentEventIds(orderProperties.getOutboxBatchSize() * MAX_BATCHES_PER_POLL);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ready = true;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.outbox-poll-interval-ms:200}", initialDelayString = "${orders.outbox-poll-interval-ms:200}")
+    public void poll() {
+        if (!ready) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int batchSize = orderProperties.getOutboxBatchSize();
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+                int relayed = relayTransaction.execute(status -> relayBatch(batchSize));
+                lastBatchSize = relayed;
+                if (relayed < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Undeleted events are delivered again on the next poll
+            logger.warn("Order outbox relay failed", e);
+        } finally {
+            lastPollDurationMs = System.currentTimeMillis() - started;
+            lastPollAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Current relay state for monitoring
+     * @return OrderOutboxMetricsResponse
+     */
+    public OrderOutboxMetricsResponse getMetrics() {
+        LocalDateTime oldest = orderOutboxRepository.findOldestCreatedAt();
+        long delivered = deliveredEvents.get();
+        return OrderOutboxMetricsResponse.builder()
+                .pendingEvents(orderOutboxRepository.count())
+                .oldestPendingAgeMs(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                .deliveredEvents(delivered)
+                .listenerErrors(listenerErrors.get())
+                .lastLagMs(lastLagMs)
+                .averageLagMs(delivered == 0 ? 0 : totalLagMs.get() / delivered)
+                .maxLagMs(maxLagMs.get())
+                .lastBatchSize(lastBatchSize)
+                .lastPollDurationMs(lastPollDurationMs)
+                .lastPollAt(lastPollAt)
+                .build();
+    }
+
+    private int relayBatch(int batchSize) {
+        List<OrderOutbox> rows = orderOutboxRepository.findOldestForUpdate(PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (OrderOutbox row : rows) {
+            ids.add(row.getEventId());
+            if (!recentlyDelivered.firstSeen(row.getEventId())) {
+                continue;
+            }
+            OrderEvent event = read(row);
+            if (event != null) {
+                deliver(event);
+                recordLag(row.getCreatedAt());
+            }
+        }
+        orderOutboxRepository.deleteAllByIdInBatch(ids);
+        return rows.size();
+    }
+
+    private OrderEvent read(OrderOutbox row) {
+        try {
+            OrderEvent event = objectMapper.readValue(row.getPayload(), OrderEvent.class);
+            event.setEventId(row.getEventId());
+            return event;
+        } catch (JsonProcessingException e) {
+            // Cannot ever be delivered; drop it rather than block the outbox
+            logger.error("Dropping unreadable order outbox event {}", row.getEventId(), e);
+            return null;
+        }
+    }
+
+    private void deliver(OrderEvent event) {
+        for (OrderEventListener listener : listeners) {
+            try {
+                listener.onOrderEvent(event);
+            } catch (RuntimeException e) {
+                listenerErrors.incrementAndGet();
+                logger.error("{} failed on order event {} for order {}", ClassUtils.getUserClass(listener).getSimpleName(),
+                        event.getEventId(), event.getOrderId(), e);
+            }
+        }
+        deliveredEvents.incrementAndGet();
+    }
+
+    private void recordLag(LocalDateTime createdAt) {
+        long lag = Math.max(0, Duration.between(createdAt, LocalDateTime.now()).toMillis());
+        lastLagMs = lag;
+        totalLagMs.addAndGet(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+    }
+}
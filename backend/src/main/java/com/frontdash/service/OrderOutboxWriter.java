@@ -0,0 +1,85 @@
+package com.frontdash.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.event.OrderEvent;
+
+/**
+ * Records every published OrderEvent in the OrderOutbox table inside the publishing transaction,
+ * so an event exists exactly when the order change it describes was committed.
+ *
+ * Events of one transaction are collected and written in one JDBC batch just before commit. The
+ * outbox key is AUTO_INCREMENT, which Hibernate cannot batch, so this goes through JdbcTemplate on
+ * the transaction's own connection.
+ */
+@Service
+public class OrderOutboxWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO OrderOutbox (order_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<OrderEvent> pending = (List<OrderEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OrderEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderOutboxWriter.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    private void insert(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            rows.add(new Object[] { event.getOrderId(), event.getType().name(), toJson(event), now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event for the outbox", e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.frontdash.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.OrderHourlyRollupResponse;
+import com.frontdash.entity.OrderHourlyRollup;
+import com.frontdash.entity.OrderHourlyRollupId;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.RollupWatermark;
+import com.frontdash.repository.OrderHourlyRollupRepository;
+import com.frontdash.repository.OrdersArchiveRepository;
+import com.frontdash.repository.OrdersRepository;
+import com.frontdash.repository.RollupWatermarkRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Maintains the OrderHourlyRollup table and answers range queries from it.
+ *
+ * Each run finds the (restaurant, hour) buckets of orders whose updated_at moved since the
+ * stored watermark and recomputes those buckets from scratch, so a run can be repeated or
+ * overlap the previous one without double counting. That also covers late changes such as a
+ * corrected delivery time on an old order. The first run, with no watermark, aggregates every
+ * bucket. The watermark only advances after all buckets of a run are written.
+ */
+@Service
+public class OrderRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollupService.class);
+
+    static final String HOURLY_JOB = "ORDER_HOURLY";
+
+    // Longest range one query may ask for
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderHourlyRollupRepository orderHourlyRollupRepository;
+
+    @Autowired
+    private OrdersArchiveRepository ordersArchiveRepository;
+
+    @Autowired
+    private RollupWatermarkRepository rollupWatermarkRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate rollupTransaction;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @PostConstruct
+    void init() {
+        rollupTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Hourly rollups in [from, to)
+     * @param restaurantId one restaurant, or null for all
+     * @param from inclusive start, truncated to the hour
+     * @param to exclusive end
+     * @return rollups ordered by hour (then restaurant); hours without orders are omitted
+     * @throws IllegalArgumentException if the range is missing, inverted or longer than a year
+     */
+    public List<OrderHourlyRollupResponse> getHourlyRollups(Integer restaurantId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Range must have from before to");
+        }
+        if (Duration.between(from, to).toDays() > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        List<OrderHourlyRollup> rows = restaurantId == null
+                ? orderHourlyRollupRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAscRestaurantIdAsc(start, to)
+                : orderHourlyRollupRepository.findByRestaurantIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(restaurantId, start, to);
+        return rows.stream().map(OrderRollupService::toResponse).collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${orders.rollup-interval-ms:300000}", initialDelayString = "${orders.rollup-interval-ms:300000}")
+    public void aggregate() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            // Buckets written so far are correct; the next run redoes the rest from the same watermark
+            logger.warn("Hourly order rollup failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runOnce() {
+        LocalDateTime upper = LocalDateTime.now().minusSeconds(orderProperties.getRollupSettleSeconds());
+        LocalDateTime watermark = rollupWatermarkRepository.findById(HOURLY_JOB)
+                .map(RollupWatermark::getWatermark)
+                .orElse(null);
+
+        List<Object[]> changed = watermark == null
+                ? ordersRepository.findAllHourBuckets()
+                : ordersRepository.findHourBucketsChangedBetween(
+                        watermark.minusMinutes(orderProperties.getRollupLookbackMinutes()), upper);
+
+        // restaurant -> day -> hours, so each query reads one restaurant-day
+        Map<Integer, Map<LocalDateTime, NavigableSet<LocalDateTime>>> buckets = new TreeMap<>();
+        for (Object[] row : changed) {
+            LocalDateTime hour = LocalDateTime.parse((String) row[1], BUCKET_FORMAT);
+            buckets.computeIfAbsent(((Number) row[0]).intValue(), k -> new TreeMap<>())
+                    .computeIfAbsent(hour.truncatedTo(ChronoUnit.DAYS), k -> new TreeSet<>())
+                    .add(hour);
+        }
+
+        int written = 0;
+        for (Map.Entry<Integer, Map<LocalDateTime, NavigableSet<LocalDateTime>>> restaurant : buckets.entrySet()) {
+            for (NavigableSet<LocalDateTime> hours : restaurant.getValue().values()) {
+                written += rollupTransaction.execute(status -> recompute(restaurant.getKey(), hours));
+            }
+        }
+
+        rollupWatermarkRepository.save(RollupWatermark.builder().jobName(HOURLY_JOB).watermark(upper).build());
+        if (written > 0) {
+            logger.info("Recomputed {} hourly order rollups up to {}", written, upper);
+        }
+    }
+
+    private int recompute(Integer restaurantId, NavigableSet<LocalDateTime> hours) {
+        LocalDateTime from = hours.first();
+        LocalDateTime to = hours.last().plusHours(1);
+        Map<LocalDateTime, Bucket> totals = new TreeMap<>();
+        for (LocalDateTime hour : hours) {
+            totals.put(hour, new Bucket());
+        }
+        // An hour can be split between Orders and the archive while the archival job works through it
+        List<Object[]> orderRows = new ArrayList<>(ordersRepository.findRollupRows(restaurantId, from, to));
+        orderRows.addAll(ordersArchiveRepository.findRollupRows(restaurantId, from, to));
+        for (Object[] row : orderRows) {
+            LocalDateTime orderTime = (LocalDateTime) row[3];
+            Bucket bucket = totals.get(orderTime.truncatedTo(ChronoUnit.HOURS));
+            if (bucket != null) {
+                bucket.add((Orders.OrderStatus) row[0], (BigDecimal) row[1], (BigDecimal) row[2], orderTime, (LocalDateTime) row[4]);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderHourlyRollup> rows = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, Bucket> entry : totals.entrySet()) {
+            if (entry.getValue().orderCount == 0) {
+                // Every order of the hour is gone (restaurant removal); drop the stale rollup
+                OrderHourlyRollupId id = new OrderHourlyRollupId(restaurantId, entry.getKey());
+                if (orderHourlyRollupRepository.existsById(id)) {
+                    orderHourlyRollupRepository.deleteById(id);
+                }
+                continue;
+            }
+            rows.add(entry.getValue().toRollup(restaurantId, entry.getKey(), now));
+        }
+        orderHourlyRollupRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    private static OrderHourlyRollupResponse toResponse(OrderHourlyRollup rollup) {
+        return OrderHourlyRollupResponse.builder()
+                .restaurantId(rollup.getRestaurantId())
+                .hour(rollup.getBucketStart())
+                .orderCount(rollup.getOrderCount())
+                .deliveredCount(rollup.getDeliveredCount())
+                .notDeliveredCount(rollup.getNotDeliveredCount())
+                .revenue(rollup.getRevenue())
+                .tips(rollup.getTips())
+                .timedDeliveries(rollup.getTimedDeliveries())
+                .avgDeliverySeconds(rollup.getAvgDeliverySeconds())
+                .p50DeliverySeconds(rollup.getP50DeliverySeconds())
+                .p90DeliverySeconds(rollup.getP90DeliverySeconds())
+                .p95DeliverySeconds(rollup.getP95DeliverySeconds())
+                .build();
+    }
+
+    private static final class Bucket {
+        int orderCount;
+        int deliveredCount;
+        int notDeliveredCount;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal tips = BigDecimal.ZERO;
+        final List<Long> deliverySeconds = new ArrayList<>();
+
+        void add(Orders.OrderStatus status, BigDecimal total, BigDecimal tip, LocalDateTime orderTime, LocalDateTime deliveryTime) {
+            orderCount++;
+            if (status == Orders.OrderStatus.NOT_DELIVERED) {
+                notDeliveredCount++;
+                return;
+            }
+            revenue = revenue.add(total == null ? BigDecimal.ZERO : total);
+            tips = tips.add(tip == null ? BigDecimal.ZERO : tip);
+            if (status == Orders.OrderStatus.DELIVERED) {
+                deliveredCount++;
+                if (deliveryTime != null) {
+                    deliverySeconds.add(Duration.between(orderTime, deliveryTime).getSeconds());
+                }
+            }
+        }
+
+        OrderHourlyRollup toRollup(Integer restaurantId, LocalDateTime hour, LocalDateTime now) {
+            Collections.sort(deliverySeconds);
+            Long average = null;
+            if (!deliverySeconds.isEmpty()) {
+                long sum = 0;
+                for (long seconds : deliverySeconds) {
+                    sum += seconds;
+                }
+                average = sum / deliverySeconds.size();
+            }
+            return OrderHourlyRollup.builder()
+                    .restaurantId(restaurantId)
+                    .bucketStart(hour)
+                    .orderCount(orderCount)
+                    .deliveredCount(deliveredCount)
+                    .notDeliveredCount(notDeliveredCount)
+                    .revenue(revenue)
+                    .tips(tips)
+                    .timedDeliveries(deliverySeconds.size())
+                    .avgDeliverySeconds(average)
+                    .p50DeliverySeconds(percentile(50))
+                    .p90DeliverySeconds(percentile(90))
+                    .p95DeliverySeconds(percentile(95))
+                    .updatedAt(now)
+                    .build();
+        }
+
+        // Nearest-rank percentile over the sorted delivery durations
+        private Long percentile(int p) {
+            if (deliverySeconds.isEmpty()) {
+                return null;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * deliverySeconds.size());
+            return deliverySeconds.get(Math.max(rank, 1) - 1);
+        }
+    }
+}
@@ -1,27 +1,34 @@
 package com.frontdash.service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderItemRequest;
 import com.frontdash.dao.request.OrderRequest;
-import com.frontdash.dao.response.AddressResponse;
-import com.frontdash.dao.response.DriverResponse;
-import com.frontdash.dao.response.MenuItemResponse;
+import com.frontdash.dao.response.OrderPageResponse;
 import com.frontdash.dao.response.OrderResponse;
-import com.frontdash.dao.response.RestaurantResponse;
+import com.frontdash.dao.response.OrderSummaryResponse;
 import com.frontdash.entity.Driver;
 import com.frontdash.entity.OrderItem;
 import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.exception.OrderConflictException;
 import com.frontdash.repository.DriverRepository;
 import com.frontdash.repository.OrderItemRepository;
 import com.frontdash.repository.OrdersRepository;
+import com.frontdash.util.OrderCursor;
 
 @Service
 public class OrderService {
@@ -36,105 +43,253 @@ public class OrderService {
     private DriverRepository driverRepository;
 
     @Autowired
-    private RestaurantService restaurantService;
+    private OrderHydrator orderHydrator;
 
     @Autowired
-    private AddressService addressService;
+    private OrderIdAllocator orderIdAllocator;
 
     @Autowired
-    private DriverService driverService;
+    private PricingEngine pricingEngine;
 
-    
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
 
+    @Autowired
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public OrderResponse createOrder(OrderRequest request) {
         // If an addressId is not provided, the caller should create the address first via AddressService.
 
-        BigDecimal subtotal = request.getSubtotal() == null ? BigDecimal.ZERO : request.getSubtotal();
-        BigDecimal tips = request.getTips() == null ? BigDecimal.ZERO : request.getTips();
-        BigDecimal total = subtotal.add(tips);
+        // Amounts are always computed here from menu prices; a client-supplied subtotal is ignored
+        Map<Integer, Integer> quantities = request.getItems() == null ? Map.of() : mergeItems(request.getItems());
+        PricingEngine.PriceQuote quote = pricingEngine.quote(request.getRestaurantId(), quantities, request.getTips());
 
         // Generate orderId in format "FD0001", "FD0002", etc.
-        String orderId = generateOrderId();
-
-        Orders order = Orders.builder()
-                .orderId(orderId)
-                .restaurantId(request.getRestaurantId())
-                .customerName(request.getCustomerName())
-                .customerPhone(request.getCustomerPhone())
-                .addressId(request.getAddressId())
-                .subtotal(subtotal)
-                .tips(tips)
-                .totalAmount(total)
-                .orderTime(LocalDateTime.now())
-                .estimatedDeliveryTime(request.getEstimatedDeliveryTime())
-                .orderStatus(Orders.OrderStatus.PENDING)
-                .build();
+        String orderId = orderIdAllocator.nextOrderId();
 
-        Orders saved = ordersRepository.save(order);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime estimate = deliveryTimeEstimator.estimate(request.getRestaurantId(), now, request.getEstimatedDeliveryTime());
+        Orders saved = ordersRepository.save(buildOrder(orderId, request, quote, now, estimate));
 
-        // Save items if present
-        if (request.getItems() != null) {
-            List<OrderItem> items = request.getItems().stream().map(i -> {
-                OrderItem oi = new OrderItem();
-                oi.setOrderId(saved.getOrderId());
-                oi.setMenuItemId(i.getMenuItemId());
-                oi.setQuantity(i.getQuantity());
-                return oi;
-            }).collect(Collectors.toList());
-            orderItemRepository.saveAll(items);
-        }
+        // With JDBC batching the items go out as one multi-row INSERT
+        orderItemRepository.saveAll(buildItems(orderId, quantities));
 
+        eventPublisher.publishEvent(OrderEvent.of(OrderEventType.CREATED, saved, null));
         return toResponse(saved);
     }
 
     public OrderResponse getOrderById(String id) {
-        return ordersRepository.findById(id).map(this::toResponse).orElse(null);
+        // Orders acknowledged by the intake are not written yet; finished orders move to the archive
+        // after orders.archive-after-days. The intake is checked first because it drops an order only
+        // after the order is committed.
+        return orderIntakeService.findPendingOrder(id)
+                .or(() -> ordersRepository.findById(id).map(this::toResponse))
+                .or(() -> orderArchiveService.findArchivedOrder(id))
+                .orElse(null);
     }
 
     public List<OrderResponse> getOrdersByRestaurantId(Integer restaurantId) {
-        return ordersRepository.findByRestaurantId(restaurantId).stream().map(this::toResponse).collect(Collectors.toList());
+        return orderHydrator.hydrate(ordersRepository.findByRestaurantId(restaurantId));
     }
 
+    /**
+     * Assign a driver to a pending order and move it to OUT_FOR_DELIVERY.
+     * The driver is claimed with a conditional AVAILABLE -> BUSY update and the order with a
+     * conditional PENDING -> OUT_FOR_DELIVERY update; if either loses a race the whole assignment rolls back.
+     * @throws IllegalArgumentException if the order or driver does not exist
+     * @throws OrderConflictException if the order is not pending/unassigned or the driver is not available
+     */
+    @Transactional
     public OrderResponse assignDriver(String orderId, Integer driverId) {
-        Orders order = ordersRepository.findById(orderId).orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        order.setAssignedDriverId(driverId);
-        order.setOrderStatus(Orders.OrderStatus.OUT_FOR_DELIVERY);
-        Orders updated = ordersRepository.save(order);
-
-        Driver driver = driverRepository.findById(driverId).orElseThrow(() -> new IllegalArgumentException("Driver not found"));
-        driver.setAvailabilityStatus(Driver.AvailabilityStatus.BUSY);
-        driverRepository.save(driver);
-        
+        Orders order = findOrder(orderId);
+        if (!driverRepository.existsById(driverId)) {
+            throw new IllegalArgumentException("Driver not found");
+        }
+        Orders.OrderStatus previousStatus = order.getOrderStatus();
+        if (!previousStatus.canTransitionTo(Orders.OrderStatus.OUT_FOR_DELIVERY) || order.getAssignedDriverId() != null) {
+            throw new OrderConflictException("Order " + orderId + " is " + previousStatus + " and cannot be assigned a driver");
+        }
+
+        if (driverRepository.transitionAvailability(driverId, Driver.AvailabilityStatus.AVAILABLE, Driver.AvailabilityStatus.BUSY) == 0) {
+            throw new OrderConflictException("Driver " + driverId + " is not available");
+        }
+        if (ordersRepository.assignDriverIfUnassigned(orderId, driverId, previousStatus, Orders.OrderStatus.OUT_FOR_DELIVERY, LocalDateTime.now()) == 0) {
+            throw new OrderConflictException("Order " + orderId + " was modified concurrently");
+        }
+
+        Orders updated = findOrder(orderId);
+        eventPublisher.publishEvent(OrderEvent.of(OrderEventType.DRIVER_ASSIGNED, updated, previousStatus));
         return toResponse(updated);
     }
 
+    /**
+     * Record the delivery time. An OUT_FOR_DELIVERY order becomes DELIVERED and its driver is released;
+     * on an already DELIVERED order only the delivery time is corrected.
+     * @throws IllegalArgumentException if the order does not exist
+     * @throws OrderConflictException if the order is in any other state or changed concurrently
+     */
+    @Transactional
     public OrderResponse updateDeliveryTime(String orderId, LocalDateTime deliveryTime) {
-        Orders order = ordersRepository.findById(orderId).orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        order.setDeliveryTime(deliveryTime);
-        order.setOrderStatus(Orders.OrderStatus.DELIVERED);
-        Orders updated = ordersRepository.save(order);
+        Orders order = findOrder(orderId);
+        Orders.OrderStatus previousStatus = order.getOrderStatus();
+        if (previousStatus != Orders.OrderStatus.DELIVERED && !previousStatus.canTransitionTo(Orders.OrderStatus.DELIVERED)) {
+            throw new OrderConflictException("Order " + orderId + " is " + previousStatus + " and cannot be marked delivered");
+        }
+
+        if (ordersRepository.transitionStatusWithDeliveryTime(orderId, previousStatus, Orders.OrderStatus.DELIVERED, deliveryTime, LocalDateTime.now()) == 0) {
+            throw new OrderConflictException("Order " + orderId + " was modified concurrently");
+        }
+        if (previousStatus != Orders.OrderStatus.DELIVERED) {
+            releaseDriver(order.getAssignedDriverId());
+        }
+
+        Orders updated = findOrder(orderId);
+        OrderEvent event = OrderEvent.of(OrderEventType.DELIVERED, updated, previousStatus);
+        event.setPreviousDeliveryTime(order.getDeliveryTime());
+        eventPublisher.publishEvent(event);
         return toResponse(updated);
     }
 
+    /**
+     * Move an order along PENDING -> OUT_FOR_DELIVERY -> DELIVERED / NOT_DELIVERED.
+     * Entering OUT_FOR_DELIVERY goes through assignDriver; finishing an order releases its driver.
+     * @throws IllegalArgumentException if the order does not exist or status is OUT_FOR_DELIVERY
+     * @throws OrderConflictException if the transition is not allowed or the order changed concurrently
+     */
+    @Transactional
     public OrderResponse updateOrderStatus(String orderId, Orders.OrderStatus status) {
-        Orders order = ordersRepository.findById(orderId).orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        order.setOrderStatus(status);
-        Orders updated = ordersRepository.save(order);
+        if (status == Orders.OrderStatus.OUT_FOR_DELIVERY) {
+            throw new IllegalArgumentException("Orders go out for delivery by assigning a driver");
+        }
+        Orders order = findOrder(orderId);
+        Orders.OrderStatus previousStatus = order.getOrderStatus();
+        if (!previousStatus.canTransitionTo(status)) {
+            throw new OrderConflictException("Cannot move order " + orderId + " from " + previousStatus + " to " + status);
+        }
 
+        if (ordersRepository.transitionStatus(orderId, previousStatus, status, LocalDateTime.now()) == 0) {
+            throw new OrderConflictException("Order " + orderId + " was modified concurrently");
+        }
         // If order is completed (delivered or not delivered), set driver back to available
-        if ((status == Orders.OrderStatus.DELIVERED || status == Orders.OrderStatus.NOT_DELIVERED) && order.getAssignedDriverId() != null) {
-            Driver driver = driverRepository.findById(order.getAssignedDriverId()).orElse(null);
-            if (driver != null) {
-                driver.setAvailabilityStatus(Driver.AvailabilityStatus.AVAILABLE);
-                driverRepository.save(driver);
-            }
+        if (status.isTerminal()) {
+            releaseDriver(order.getAssignedDriverId());
         }
 
+        Orders updated = findOrder(orderId);
+        OrderEventType eventType = status == Orders.OrderStatus.DELIVERED ? OrderEventType.DELIVERED : OrderEventType.STATUS_CHANGED;
+        eventPublisher.publishEvent(OrderEvent.of(eventType, updated, previousStatus));
         return toResponse(updated);
     }
 
+    static Orders buildOrder(String orderId, OrderRequest request, PricingEngine.PriceQuote quote, LocalDateTime orderTime,
+                             LocalDateTime estimatedDeliveryTime) {
+        return Orders.builder()
+                .orderId(orderId)
+                .restaurantId(request.getRestaurantId())
+                .customerName(request.getCustomerName())
+                .customerPhone(request.getCustomerPhone())
+                .addressId(request.getAddressId())
+                .subtotal(quote.subtotal())
+                .tips(quote.tips())
+                .totalAmount(quote.total())
+                .orderTime(orderTime)
+                .estimatedDeliveryTime(estimatedDeliveryTime)
+                .orderStatus(Orders.OrderStatus.PENDING)
+                .build();
+    }
+
+    static List<OrderItem> buildItems(String orderId, Map<Integer, Integer> quantities) {
+        return quantities.entrySet().stream()
+                .map(e -> new OrderItem(orderId, e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    // (order_id, menu_item_id) is the OrderItem key, so repeated cart lines for one item become one row
+    static Map<Integer, Integer> mergeItems(List<OrderItemRequest> requested) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : requested) {
+            if (item == null || item.getMenuItemId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each order item needs a menuItemId and a positive quantity");
+            }
+            quantities.merge(item.getMenuItemId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Orders findOrder(String orderId) {
+        return ordersRepository.findById(orderId).orElseThrow(() -> orderArchiveService.isArchived(orderId)
+                ? new OrderConflictException("Order " + orderId + " is archived and can no longer be changed")
+                : new IllegalArgumentException("Order not found"));
+    }
+
+    private void releaseDriver(Integer driverId) {
+        if (driverId != null) {
+            driverRepository.transitionAvailability(driverId, Driver.AvailabilityStatus.BUSY, Driver.AvailabilityStatus.AVAILABLE);
+        }
+    }
+
     public List<OrderResponse> getAllOrders() {
-        return ordersRepository.findAll().stream().map(this::toResponse).collect(Collectors.toList());
+        return orderHydrator.hydrate(ordersRepository.findAll());
+    }
+
+    /**
+     * Get one page of orders, newest first, using keyset pagination on (orderTime, orderId)
+     * @param restaurantId only orders of this restaurant, or null
+     * @param status only orders in this status, or null (ignored when restaurantId is set)
+     * @param hasDriver with status: true for assigned orders, false for unassigned, null for both
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit requested page size, capped at orders.max-page-size
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public OrderPageResponse getOrdersPage(Integer restaurantId, Orders.OrderStatus status, Boolean hasDriver,
+                                           String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        // One extra row tells us whether another page exists without a count query
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+
+        List<Orders> orders;
+        if (restaurantId != null) {
+            orders = ordersRepository.findPageByRestaurantIdAfter(restaurantId, after.orderTime(), after.orderId(), fetch);
+        } else if (status == null) {
+            orders = ordersRepository.findPageAfter(after.orderTime(), after.orderId(), fetch);
+        } else if (hasDriver == null) {
+            orders = ordersRepository.findPageByOrderStatusAfter(status, after.orderTime(), after.orderId(), fetch);
+        } else if (hasDriver) {
+            orders = ordersRepository.findPageByOrderStatusWithDriverAfter(status, after.orderTime(), after.orderId(), fetch);
+        } else {
+            orders = ordersRepository.findPageByOrderStatusWithoutDriverAfter(status, after.orderTime(), after.orderId(), fetch);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            Orders last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getOrderTime(), last.getOrderId()).encode();
+        }
+
+        return OrderPageResponse.builder()
+                .items(orderHydrator.hydrate(orders))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return orderProperties.getDefaultPageSize();
+        }
+        return Math.min(limit, orderProperties.getMaxPageSize());
     }
 
     public List<OrderResponse> getOrdersByStatus(Orders.OrderStatus status, Boolean hasDriver) {
@@ -146,74 +301,25 @@ public class OrderService {
         } else {
             orders = ordersRepository.findByOrderStatusAndAssignedDriverIdIsNull(status);
         }
-        return orders.stream().map(this::toResponse).collect(Collectors.toList());
+        return orderHydrator.hydrate(orders);
     }
 
-    private String generateOrderId() {
-        long rowCount = ordersRepository.count();
-        int nextNumber = (int) rowCount + 1;
-        if (nextNumber <= 999) {
-            return String.format("FD%04d", nextNumber);
-        } else if (nextNumber <= 9999) {
-            return String.format("FD%04d", nextNumber);
-        } else {
-            return String.format("FD%05d", nextNumber);
+    /**
+     * List-view rows for every order in a status, newest first, read without loading entities
+     * @param status the order status
+     * @param hasDriver true for assigned orders, false for unassigned, null for both
+     * @return the matching orders' own columns
+     */
+    public List<OrderSummaryResponse> getOrderSummariesByStatus(Orders.OrderStatus status, Boolean hasDriver) {
+        if (hasDriver == null) {
+            return ordersRepository.findSummariesByOrderStatus(status);
         }
+        return hasDriver
+                ? ordersRepository.findSummariesByOrderStatusWithDriver(status)
+                : ordersRepository.findSummariesByOrderStatusWithoutDriver(status);
     }
 
     private OrderResponse toResponse(Orders o) {
-        // Fetch order items and menu item details
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(o.getOrderId());
-        List<MenuItemResponse> items = orderItems.stream()
-                .map(oi -> {
-                    try {
-                        return restaurantService.getMenuItemById(oi.getMenuItemId());
-                    } catch (Exception e) {
-                        return null;
-                    }
-                })
-                .filter(item -> item != null)
-                .collect(Collectors.toList());
-
-        // Fetch restaurant, address, and driver details
-        RestaurantResponse restaurant = null;
-        try {
-            restaurant = restaurantService.getRestaurantById(o.getRestaurantId());
-        } catch (Exception e) {
-            // Restaurant not found
-        }
-
-        AddressResponse deliveryAddress = null;
-        try {
-            deliveryAddress = addressService.getAddressById(o.getAddressId());
-        } catch (Exception e) {
-            // Address not found
-        }
-
-        DriverResponse assignedDriver = null;
-        if (o.getAssignedDriverId() != null) {
-            try {
-                assignedDriver = driverService.getDriverById(o.getAssignedDriverId());
-            } catch (Exception e) {
-                // Driver not found
-            }
-        }
-
-        return OrderResponse.builder()
-                .orderId(o.getOrderId())
-                .restaurant(restaurant)
-                .customerName(o.getCustomerName())
-                .customerPhone(o.getCustomerPhone())
-                .deliveryAddress(deliveryAddress)
-                .totalAmount(o.getTotalAmount())
-                .orderTime(o.getOrderTime())
-                .assignedDriver(assignedDriver)
-                .estimatedDeliveryTime(o.getEstimatedDeliveryTime())
-                .orderStatus(o.getOrderStatus())
-                .tips(o.getTips())
-                .subtotal(o.getSubtotal())
-                .deliveryTime(o.getDeliveryTime())
-                .items(items)
-                .build();
+        return orderHydrator.hydrate(o);
     }
 }
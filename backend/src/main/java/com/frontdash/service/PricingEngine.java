@@ -0,0 +1,213 @@
+package com.frontdash.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.ServiceCharge;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.ServiceChargeRepository;
+import com.frontdash.util.TransactionUtils;
+
+/**
+ * Computes order subtotal, service charge and total on the server.
+ *
+ * Menu prices and the service charge are cached as snapshots in integer units (cents and basis
+ * points), so pricing a cart is a few map lookups and long arithmetic with no BigDecimal work
+ * until the final amounts are handed back. Snapshots are loaded on first use and dropped after
+ * the transaction that changes a menu item or the service charge commits.
+ */
+@Service
+public class PricingEngine {
+
+    private static final int BASIS_POINTS_PER_UNIT = 10000;
+    private static final BigDecimal DEFAULT_SERVICE_CHARGE_PERCENTAGE = new BigDecimal("8.25");
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ServiceChargeRepository serviceChargeRepository;
+
+    private final Map<Integer, MenuPrice> menuPrices = new ConcurrentHashMap<>();
+
+    // Loads publish their result under this lock only if no invalidation ran since the load started,
+    // so a read that raced with an update can never put the old price back
+    private final Object lock = new Object();
+    private long menuGeneration = 0;
+    private long serviceChargeGeneration = 0;
+    private volatile int serviceChargeBasisPoints = -1;
+
+    /**
+     * Price one order
+     * @param restaurantId restaurant the order is placed with
+     * @param quantities menu item id to quantity, already merged
+     * @param tips tip from the customer, or null for none
+     * @return amounts in cents
+     * @throws IllegalArgumentException if the cart is empty, an item is not on the restaurant's menu or unavailable, or tips are negative
+     */
+    public PriceQuote quote(Integer restaurantId, Map<Integer, Integer> quantities, BigDecimal tips) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        Map<Integer, MenuPrice> loaded = load(quantities.keySet());
+
+        long subtotalCents = 0;
+        for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+            MenuPrice price = menuPrices.get(line.getKey());
+            if (price == null) {
+                price = loaded.get(line.getKey());
+            }
+            if (price == null || restaurantId == null || price.restaurantId() != restaurantId) {
+                throw new IllegalArgumentException("Menu item " + line.getKey() + " not found for this restaurant");
+            }
+            if (!price.available()) {
+                throw new IllegalArgumentException("Menu item " + line.getKey() + " is not available");
+            }
+            subtotalCents = Math.addExact(subtotalCents, Math.multiplyExact(price.priceCents(), (long) line.getValue()));
+        }
+
+        long serviceChargeCents = (subtotalCents * serviceChargeBasisPoints() + BASIS_POINTS_PER_UNIT / 2) / BASIS_POINTS_PER_UNIT;
+        long tipsCents = tips == null ? 0 : toCents(tips);
+        if (tipsCents < 0) {
+            throw new IllegalArgumentException("Tips cannot be negative");
+        }
+        return new PriceQuote(subtotalCents, serviceChargeCents, tipsCents, subtotalCents + serviceChargeCents + tipsCents);
+    }
+
+    /**
+     * Load price snapshots for any of these menu items that are not cached yet, one IN-query per chunk
+     * @param menuItemIds menu items about to be priced
+     */
+    public void preload(Collection<Integer> menuItemIds) {
+        load(menuItemIds);
+    }
+
+    // Returns the snapshots it had to read; they are cached only if no invalidation ran meanwhile
+    private Map<Integer, MenuPrice> load(Collection<Integer> menuItemIds) {
+        List<Integer> missing = null;
+        for (Integer id : menuItemIds) {
+            if (id != null && !menuPrices.containsKey(id)) {
+                if (missing == null) {
+                    missing = new ArrayList<>();
+                }
+                missing.add(id);
+            }
+        }
+        if (missing == null) {
+            return Map.of();
+        }
+
+        long generation;
+        synchronized (lock) {
+            generation = menuGeneration;
+        }
+        Map<Integer, MenuPrice> loaded = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, missing.size());
+            for (Object[] row : menuItemRepository.findPriceRowsByMenuItemIdIn(missing.subList(from, to))) {
+                BigDecimal price = (BigDecimal) row[2];
+                if (price != null) {
+                    loaded.put((Integer) row[0], new MenuPrice((Integer) row[1], toCents(price),
+                            row[3] == MenuItem.AvailabilityStatus.AVAILABLE));
+                }
+            }
+        }
+        synchronized (lock) {
+            if (generation == menuGeneration) {
+                menuPrices.putAll(loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the cached price of a menu item once the current transaction commits
+     * @param menuItemId the changed or deleted menu item
+     */
+    public void invalidateMenuItem(Integer menuItemId) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                menuGeneration++;
+                menuPrices.remove(menuItemId);
+            }
+        });
+    }
+
+    /**
+     * Drop the cached service charge once the current transaction commits
+     */
+    public void invalidateServiceCharge() {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                serviceChargeGeneration++;
+                serviceChargeBasisPoints = -1;
+            }
+        });
+    }
+
+    private int serviceChargeBasisPoints() {
+        int cached = serviceChargeBasisPoints;
+        if (cached >= 0) {
+            return cached;
+        }
+        long generation;
+        synchronized (lock) {
+            generation = serviceChargeGeneration;
+        }
+        BigDecimal percentage = serviceChargeRepository.findAll().stream()
+                .findFirst()
+                .map(ServiceCharge::getPercentage)
+                .orElse(DEFAULT_SERVICE_CHARGE_PERCENTAGE);
+        int loaded = percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        synchronized (lock) {
+            if (generation == serviceChargeGeneration) {
+                serviceChargeBasisPoints = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static BigDecimal toMoney(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record MenuPrice(int restaurantId, long priceCents, boolean available) {
+    }
+
+    /**
+     * Amounts for one order, in cents
+     */
+    public record PriceQuote(long subtotalCents, long serviceChargeCents, long tipsCents, long totalCents) {
+
+        public BigDecimal subtotal() {
+            return toMoney(subtotalCents);
+        }
+
+        public BigDecimal serviceCharge() {
+            return toMoney(serviceChargeCents);
+        }
+
+        public BigDecimal tips() {
+            return toMoney(tipsCents);
+        }
+
+        public BigDecimal total() {
+            return toMoney(totalCents);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.frontdash.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.RestaurantRepository;
+import com.frontdash.util.DistanceCursor;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Grid index of active restaurants by the centroid of their address's zip code.
+ *
+ * Cells are catalog.geo-cell-km high and the same number of degrees wide, so a radius query
+ * only visits the cells overlapping the circle's bounding box and measures great-circle distance
+ * for the restaurants in them. Restaurants whose zip code is not in ZipCentroids are left out.
+ * Built at startup; when a restaurant's CatalogVersions version moves, on any node, a scheduled
+ * refresh moves it to its new cell. Boxes are not wrapped at the antimeridian.
+ */
+@Service
+public class RestaurantGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantGeoIndex.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ZipCentroids zipCentroids;
+
+    @Autowired
+    private CatalogProperties catalogProperties;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Guards cells and points
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Integer, Point> points = new HashMap<>();
+
+    private final CatalogIndexRefresh refresh = new CatalogIndexRefresh("restaurant location index", this::rebuild, this::update);
+
+    @PostConstruct
+    void init() {
+        catalogVersions.onRestaurantChanged(this::restaurantChanged);
+        refresh.init();
+    }
+
+    /**
+     * Re-read the restaurant's committed address and status on the next refresh
+     */
+    public void restaurantChanged(Integer restaurantId) {
+        refresh.restaurantChanged(restaurantId);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.geo-refresh-interval-ms:1000}", initialDelayString = "${catalog.geo-refresh-interval-ms:1000}")
+    public void refresh() {
+        refresh.refresh();
+    }
+
+    /**
+     * Restaurants within the radius of a point, nearest first, starting after the cursor
+     * @param radiusKm search radius, capped at catalog.geo-max-radius-km
+     * @param limit maximum number of hits
+     */
+    public List<Hit> findWithin(double latitude, double longitude, double radiusKm, DistanceCursor after, int limit) {
+        double radius = Math.min(radiusKm, catalogProperties.getGeoMaxRadiusKm());
+        double cellDegrees = cellDegrees();
+        double latitudeSpan = radius / KM_PER_DEGREE;
+        // Degrees of longitude shrink toward the poles, so use the widest span the box reaches
+        double widestLatitude = Math.min(89.0, Math.abs(latitude) + latitudeSpan);
+        double longitudeSpan = Math.min(180.0, radius / (KM_PER_DEGREE * Math.cos(Math.toRadians(widestLatitude))));
+        long firstRow = cell(latitude - latitudeSpan, cellDegrees);
+        long lastRow = cell(latitude + latitudeSpan, cellDegrees);
+        long firstColumn = cell(longitude - longitudeSpan, cellDegrees);
+        long lastColumn = cell(longitude + longitudeSpan, cellDegrees);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long row = firstRow; row <= lastRow; row++) {
+                for (long column = firstColumn; column <= lastColumn; column++) {
+                    List<Point> cell = cells.get(key(row, column));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Point point : cell) {
+                        double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                        long distanceMeters = Math.round(distance * 1000);
+                        if (distance <= radius && after.isBefore(distanceMeters, point.restaurantId())) {
+                            hits.add(new Hit(point.restaurantId(), distanceMeters));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingLong(Hit::distanceMeters).thenComparingInt(Hit::restaurantId));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    private void rebuild() {
+        List<Restaurant> restaurants = restaurantRepository.findByStatus(Restaurant.RestaurantStatus.ACTIVE);
+        Map<Integer, Address> addresses = addressRepository.findAllById(restaurants.stream()
+                        .map(Restaurant::getAddressId).filter(id -> id != null).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Address::getAddressId, Function.identity()));
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            for (Restaurant restaurant : restaurants) {
+                Address address = addresses.get(restaurant.getAddressId());
+                Point point = address == null ? null : locate(restaurant.getRestaurantId(), address);
+                if (point != null) {
+                    add(point);
+                }
+            }
+            logger.info("Located {} of {} active restaurants by zip code", points.size(), restaurants.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(Integer restaurantId) {
+        Point point = restaurantRepository.findById(restaurantId)
+                .filter(r -> r.getStatus() == Restaurant.RestaurantStatus.ACTIVE && r.getAddressId() != null)
+                .flatMap(r -> addressRepository.findById(r.getAddressId()))
+                .map(address -> locate(restaurantId, address))
+                .orElse(null);
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+            if (point != null) {
+                add(point);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Point locate(Integer restaurantId, Address address) {
+        ZipCentroids.Centroid centroid = zipCentroids.find(address.getZipCode());
+        return centroid == null ? null : new Point(restaurantId, centroid.latitude(), centroid.longitude());
+    }
+
+    private void add(Point point) {
+        double cellDegrees = cellDegrees();
+        cells.computeIfAbsent(key(cell(point.latitude(), cellDegrees), cell(point.longitude(), cellDegrees)),
+                k -> new ArrayList<>()).add(point);
+        points.put(point.restaurantId(), point);
+    }
+
+    private void remove(Integer restaurantId) {
+        Point point = points.remove(restaurantId);
+        if (point == null) {
+            return;
+        }
+        double cellDegrees = cellDegrees();
+        long key = key(cell(point.latitude(), cellDegrees), cell(point.longitude(), cellDegrees));
+        List<Point> cell = cells.get(key);
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private double cellDegrees() {
+        return catalogProperties.getGeoCellKm() / KM_PER_DEGREE;
+    }
+
+    private static long cell(double degrees, double cellDegrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(long row, long column) {
+        return (row << 32) | (column & 0xffffffffL);
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points in km
+     */
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public record Hit(int restaurantId, long distanceMeters) {
+    }
+
+    private record Point(int restaurantId, double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.frontdash.service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.util.EncodedPayload;
+
+/**
+ * The restaurant lists served by GET /api/restaurant and /api/restaurant/with-address, kept as
+ * encoded response bytes.
+ *
+ * Each list is tagged with the CatalogVersions restaurant version read before it was loaded and
+ * rebuilt on the first request after that version moves on. A change committing during a load
+ * therefore leaves the list tagged with the older version, and the next request rebuilds it.
+ */
+@Service
+public class RestaurantListSnapshots {
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Slot restaurants = new Slot();
+    private final Slot restaurantsWithAddress = new Slot();
+
+    /**
+     * GET /api/restaurant as encoded bytes
+     * @param loader builds the list; only called when the list changed since the last build
+     */
+    public EncodedPayload restaurants(Supplier<? extends List<?>> loader) {
+        return restaurants.get(loader);
+    }
+
+    /**
+     * GET /api/restaurant/with-address as encoded bytes
+     * @param loader builds the list; only called when the list changed since the last build
+     */
+    public EncodedPayload restaurantsWithAddress(Supplier<? extends List<?>> loader) {
+        return restaurantsWithAddress.get(loader);
+    }
+
+    private final class Slot {
+        private volatile Snapshot snapshot;
+
+        EncodedPayload get(Supplier<? extends List<?>> loader) {
+            long version = catalogVersions.restaurantsVersion();
+            Snapshot current = snapshot;
+            if (current != null && current.version() >= version) {
+                return current.payload();
+            }
+            // One rebuild at a time; requests queued behind it find the fresh snapshot, and a
+            // request that read the version before a newer build never replaces that build
+            synchronized (this) {
+                current = snapshot;
+                if (current != null && current.version() >= version) {
+                    return current.payload();
+                }
+                current = new Snapshot(version, EncodedPayload.encode(objectMapper, loader.get()));
+                snapshot = current;
+                return current.payload();
+            }
+        }
+    }
+
+    private record Snapshot(long version, EncodedPayload payload) {
+    }
+}
@@ -17,9 +17,12 @@ import java.time.format.DateTimeParseException;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -28,6 +31,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.frontdash.config.CatalogProperties;
 import com.frontdash.dao.request.MenuCategoryCreateRequest;
 import com.frontdash.dao.request.MenuItemCreateRequest;
 import com.frontdash.dao.request.MenuItemUpdateRequest;
@@ -41,6 +45,8 @@ import com.frontdash.dao.request.RestaurantRegistrationRequest;
 import com.frontdash.dao.request.RestaurantWithdrawalRequest;
 import com.frontdash.dao.response.AddressResponse;
 import com.frontdash.dao.response.MenuItemResponse;
+import com.frontdash.dao.response.NearbyRestaurantPageResponse;
+import com.frontdash.dao.response.NearbyRestaurantResponse;
 import com.frontdash.dao.response.OperatingHourResponse;
 import com.frontdash.dao.response.RestaurantProfileResponse;
 import com.frontdash.dao.response.RestaurantRegistrationResponse;
@@ -57,6 +63,8 @@ import com.frontdash.repository.MenuItemRepository;
 import com.frontdash.repository.OperatingHourRepository;
 import com.frontdash.repository.RestaurantLoginRepository;
 import com.frontdash.repository.RestaurantRepository;
+import com.frontdash.util.DistanceCursor;
+import com.frontdash.util.EncodedPayload;
 
 @Service
 public class RestaurantService {
@@ -90,6 +98,30 @@ public class RestaurantService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private RestaurantListSnapshots restaurantListSnapshots;
+
+    @Autowired
+    private OpenHoursIndex openHoursIndex;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private CatalogChangeNotifier catalogChangeNotifier;
+
+    @Autowired
+    private ZipCentroids zipCentroids;
+
+    @Autowired
+    private CatalogProperties catalogProperties;
+
     public List<RestaurantResponse> getAllRestaurants() {
         List<Restaurant> restaurants = restaurantRepository.findAll();
         return restaurants.stream()
@@ -98,10 +130,102 @@ public class RestaurantService {
     }
 
     public List<RestaurantWithAddressResponse> getAllRestaurantsWithAddress() {
-        List<Restaurant> restaurants = restaurantRepository.findAll();
-        return restaurants.stream()
-                .map(this::convertToRestaurantWithAddress)
-                .collect(java.util.stream.Collectors.toList());
+        return withAddresses(restaurantRepository.findAll());
+    }
+
+    /**
+     * One page of active restaurants within a radius of a zip code or a saved address, nearest first.
+     * Distances are measured between zip code centroids.
+     * @param zipCode the customer's zip code, or null to use addressId
+     * @param addressId a saved address whose zip code is used, or null
+     * @param radiusKm search radius, capped at catalog.geo-max-radius-km
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit requested page size, capped at catalog.nearby-max-page-size
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if no location is given, the zip code is unknown or the cursor is malformed
+     */
+    public NearbyRestaurantPageResponse getRestaurantsNear(String zipCode, Integer addressId, double radiusKm,
+                                                           String cursor, Integer limit) {
+        if (!(radiusKm > 0)) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        String zip = zipCode;
+        if (zip == null || zip.isBlank()) {
+            if (addressId == null) {
+                throw new IllegalArgumentException("Zip code or address is required");
+            }
+            zip = addressRepository.findById(addressId)
+                    .map(Address::getZipCode)
+                    .orElseThrow(() -> new IllegalArgumentException("Address not found"));
+        }
+        ZipCentroids.Centroid centroid = zipCentroids.find(zip);
+        if (centroid == null) {
+            throw new IllegalArgumentException("Unknown zip code");
+        }
+        DistanceCursor after = DistanceCursor.decode(cursor);
+        int pageSize = resolveNearbyPageSize(limit);
+        // One extra hit tells us whether another page exists
+        List<RestaurantGeoIndex.Hit> hits = restaurantGeoIndex.findWithin(
+                centroid.latitude(), centroid.longitude(), radiusKm, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            RestaurantGeoIndex.Hit last = hits.get(pageSize - 1);
+            nextCursor = new DistanceCursor(last.distanceMeters(), last.restaurantId()).encode();
+        }
+
+        Map<Integer, Restaurant> restaurantsById = restaurantRepository.findAllById(
+                        hits.stream().map(RestaurantGeoIndex.Hit::restaurantId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Restaurant::getRestaurantId, Function.identity()));
+        // The index trails writes by a refresh interval, so check the status it was built from
+        List<Restaurant> restaurants = new ArrayList<>();
+        List<Long> distances = new ArrayList<>();
+        for (RestaurantGeoIndex.Hit hit : hits) {
+            Restaurant restaurant = restaurantsById.get(hit.restaurantId());
+            if (restaurant != null && restaurant.getStatus() == Restaurant.RestaurantStatus.ACTIVE) {
+                restaurants.add(restaurant);
+                distances.add(hit.distanceMeters());
+            }
+        }
+        List<RestaurantWithAddressResponse> responses = withAddresses(restaurants);
+        List<NearbyRestaurantResponse> items = new ArrayList<>(responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            items.add(NearbyRestaurantResponse.builder()
+                    .restaurant(responses.get(i))
+                    .distanceKm(distances.get(i) / 1000.0)
+                    .build());
+        }
+        return NearbyRestaurantPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Active restaurants whose operating hours cover the given time
+     * @param time local time of the restaurants
+     */
+    public List<RestaurantResponse> getRestaurantsOpenAt(LocalDateTime time) {
+        return restaurantRepository.findAllById(openHoursIndex.openAt(time)).stream()
+                .filter(restaurant -> restaurant.getStatus() == Restaurant.RestaurantStatus.ACTIVE)
+                .sorted(Comparator.comparing(Restaurant::getRestaurantId))
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * getAllRestaurants() as encoded response bytes, rebuilt only after the list changed
+     */
+    public EncodedPayload getAllRestaurantsPayload() {
+        return restaurantListSnapshots.restaurants(this::getAllRestaurants);
+    }
+
+    /**
+     * getAllRestaurantsWithAddress() as encoded response bytes, rebuilt only after the list changed
+     */
+    public EncodedPayload getAllRestaurantsWithAddressPayload() {
+        return restaurantListSnapshots.restaurantsWithAddress(this::getAllRestaurantsWithAddress);
     }
 
     @Transactional
@@ -121,6 +245,8 @@ public class RestaurantService {
 
             saveMenuItems(request, restaurantId);
 
+            catalogChangeNotifier.restaurantStatusChanged(restaurantId);
+
             sendRegistrationConfirmationEmail(request);
 
             return RestaurantRegistrationResponse
@@ -300,6 +426,7 @@ public class RestaurantService {
             MenuCategory savedCategory = saveMenuCategory(restaurantId, categoryName);
             saveMenuItemsForCategory(savedCategory.getCategoryId(), itemsInCategory);
         }
+        catalogChangeNotifier.menuChanged(restaurantId);
     }
 
     private MenuCategory saveMenuCategory(Integer restaurantId, String categoryName) {
@@ -411,20 +538,25 @@ public class RestaurantService {
         }
 
         MenuItem updated = menuItemRepository.save(menuItem);
+        pricingEngine.invalidateMenuItem(updated.getMenuItemId());
+        catalogChangeNotifier.menuChanged(restaurantId);
         return convertToResponse(updated);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * The restaurant's menu from the snapshot cache. Not transactional itself, so a cache hit
+     * does not even borrow a connection; a miss is one join query, ordered by category.
+     * @return the shared snapshot, which must not be modified
+     */
     public List<MenuItemResponse> getMenuItems(Integer restaurantId) {
-        List<MenuCategory> categories = menuCategoryRepository.findByRestaurantId(restaurantId);
-        List<MenuItemResponse> responses = new ArrayList<>();
-        for (MenuCategory category : categories) {
-            List<MenuItem> items = menuItemRepository.findByCategoryId(category.getCategoryId());
-            for (MenuItem item : items) {
-                responses.add(convertToResponse(item));
-            }
-        }
-        return responses;
+        return menuSnapshotCache.get(restaurantId, menuItemRepository::findResponsesByRestaurantId);
+    }
+
+    /**
+     * The restaurant's menu as the encoded bytes held in its snapshot
+     */
+    public EncodedPayload getMenuPayload(Integer restaurantId) {
+        return menuSnapshotCache.getPayload(restaurantId, menuItemRepository::findResponsesByRestaurantId);
     }
 
     @Transactional
@@ -448,6 +580,7 @@ public class RestaurantService {
                 .build();
 
         MenuItem saved = menuItemRepository.save(menuItem);
+        catalogChangeNotifier.menuChanged(restaurantId);
         return convertToResponse(saved);
     }
 
@@ -485,6 +618,8 @@ public class RestaurantService {
         }
 
         MenuItem saved = menuItemRepository.save(menuItem);
+        pricingEngine.invalidateMenuItem(saved.getMenuItemId());
+        catalogChangeNotifier.menuChanged(restaurantId);
         return convertToResponse(saved);
     }
 
@@ -493,6 +628,8 @@ public class RestaurantService {
         MenuItem menuItem = menuItemRepository.findByMenuItemIdAndRestaurantId(menuItemId, restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found for restaurant"));
         menuItemRepository.delete(menuItem);
+        pricingEngine.invalidateMenuItem(menuItemId);
+        catalogChangeNotifier.menuChanged(restaurantId);
     }
 
     @Transactional
@@ -501,6 +638,8 @@ public class RestaurantService {
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found for restaurant"));
         menuItem.setAvailability(isAvailable ? MenuItem.AvailabilityStatus.AVAILABLE : MenuItem.AvailabilityStatus.UNAVAILABLE);
         menuItemRepository.save(menuItem);
+        pricingEngine.invalidateMenuItem(menuItemId);
+        catalogChangeNotifier.menuChanged(restaurantId);
     }
 
     @Transactional(readOnly = true)
@@ -522,6 +661,7 @@ public class RestaurantService {
                 .restaurantId(restaurantId)
                 .categoryName(request.getCategoryName())
                 .build();
+        catalogChangeNotifier.menuChanged(restaurantId);
         return menuCategoryRepository.save(category);
     }
 
@@ -574,6 +714,7 @@ public class RestaurantService {
             System.out.println(saved.toString());
             responses.add(convertToResponse(saved));
         }
+        catalogChangeNotifier.restaurantDetailsChanged(restaurantId);
         return responses;
     }
 
@@ -625,6 +766,7 @@ public class RestaurantService {
         }
 
         restaurantRepository.save(restaurant);
+        catalogChangeNotifier.restaurantDetailsChanged(restaurantId);
         return getRestaurantProfile(restaurantId);
     }
 
@@ -644,6 +786,7 @@ public class RestaurantService {
         }
 
         restaurantRepository.save(restaurant);
+        catalogChangeNotifier.restaurantDetailsChanged(restaurantId);
         return getRestaurantProfile(restaurantId);
     }
 
@@ -669,6 +812,7 @@ public class RestaurantService {
         Address saved = addressRepository.save(address);
         restaurant.setAddressId(saved.getAddressId());
         restaurantRepository.save(restaurant);
+        catalogChangeNotifier.restaurantDetailsChanged(restaurantId);
 
         return getRestaurantProfile(restaurantId);
     }
@@ -694,6 +838,7 @@ public class RestaurantService {
 
         restaurant.setStatus(Restaurant.RestaurantStatus.WITHDRAW_REQ);
         Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        catalogChangeNotifier.restaurantStatusChanged(restaurant.getRestaurantId());
 
         // Send email notification to restaurant
         if (restaurant.getEmailAddress() != null && !restaurant.getEmailAddress().isEmpty()) {
@@ -742,19 +887,36 @@ public class RestaurantService {
                 .build();
     }
 
-    private RestaurantWithAddressResponse convertToRestaurantWithAddress(Restaurant restaurant) {
+    private int resolveNearbyPageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return catalogProperties.getNearbyDefaultPageSize();
+        }
+        return Math.min(limit, catalogProperties.getNearbyMaxPageSize());
+    }
+
+    // Addresses are loaded in one query rather than one per restaurant
+    private List<RestaurantWithAddressResponse> withAddresses(List<Restaurant> restaurants) {
+        Map<Integer, Address> addresses = addressRepository.findAllById(restaurants.stream()
+                        .map(Restaurant::getAddressId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Address::getAddressId, Function.identity()));
+        return restaurants.stream()
+                .map(restaurant -> convertToRestaurantWithAddress(restaurant, addresses.get(restaurant.getAddressId())))
+                .collect(Collectors.toList());
+    }
+
+    private RestaurantWithAddressResponse convertToRestaurantWithAddress(Restaurant restaurant, Address address) {
         AddressResponse addressResponse = null;
-        if (restaurant.getAddressId() != null) {
-            addressResponse = addressRepository.findById(restaurant.getAddressId())
-                    .map(address -> AddressResponse.builder()
-                            .addressId(address.getAddressId())
-                            .streetAddress(address.getStreetAddress())
-                            .bldg(address.getBldg())
-                            .city(address.getCity())
-                            .state(address.getState())
-                            .zipCode(address.getZipCode())
-                            .build())
-                    .orElse(null);
+        if (address != null) {
+            addressResponse = AddressResponse.builder()
+                    .addressId(address.getAddressId())
+                    .streetAddress(address.getStreetAddress())
+                    .bldg(address.getBldg())
+                    .city(address.getCity())
+                    .state(address.getState())
+                    .zipCode(address.getZipCode())
+                    .build();
         }
 
         return RestaurantWithAddressResponse.builder()
@@ -809,9 +971,9 @@ public class RestaurantService {
     }
 
     public MenuItemResponse getMenuItemById(Integer menuItemId) {
-        MenuItem menuItem = menuItemRepository.findById(menuItemId)
+        return menuItemRepository.findResponsesByMenuItemIdIn(List.of(menuItemId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
-        return convertToResponse(menuItem);
     }
 
     private LocalTime parseTime(String value) {
@@ -0,0 +1,336 @@
+package com.frontdash.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.RestaurantOrderStatsResponse;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.RestaurantDailyStats;
+import com.frontdash.entity.RestaurantDailyStatsId;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventListener;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.event.RecentEventIds;
+import com.frontdash.repository.OrderOutboxRepository;
+import com.frontdash.repository.OrdersRepository;
+import com.frontdash.repository.RestaurantDailyStatsRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-restaurant, per-day order statistics kept in memory.
+ *
+ * Counters are rebuilt from Orders at startup and then moved by every committed order event,
+ * so reading a day's statistics is a single map lookup. Dirty days are periodically written to
+ * the RestaurantDailyStats rollup table; days older than the retention window are dropped from
+ * memory after they are flushed and served from that table instead.
+ */
+@Service
+public class RestaurantStatsService implements OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantStatsService.class);
+
+    private static final Orders.OrderStatus[] STATUSES = Orders.OrderStatus.values();
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private RestaurantDailyStatsRepository restaurantDailyStatsRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate rebuildTransaction;
+
+    private final Map<RestaurantDailyStatsId, Counters> days = new ConcurrentHashMap<>();
+
+    private volatile boolean rebuilt = false;
+
+    // Outbox events up to this id were already committed when Orders was read, so the rebuild counted them
+    private volatile long rebuiltThroughEventId = 0;
+
+    // Events already applied to the counters; a redelivered one must not be counted again
+    private final RecentEventIds appliedEvents = new RecentEventIds();
+
+    @PostConstruct
+    void init() {
+        // One snapshot for the outbox watermark and the aggregate, so an order committed between the two reads
+        // is neither counted twice nor missed
+        rebuildTransaction = new TransactionTemplate(transactionManager);
+        rebuildTransaction.setReadOnly(true);
+        rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        // Runs before the web server accepts requests and the outbox relay starts, so no order event can be missed or counted twice
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Could not rebuild restaurant statistics, retrying on the next flush", e);
+        }
+    }
+
+    /**
+     * Statistics for one restaurant and day
+     * @param restaurantId the restaurant
+     * @param date day of order time, or null for today
+     * @return the statistics, all zero if the restaurant had no orders that day
+     */
+    public RestaurantOrderStatsResponse getStats(Integer restaurantId, LocalDate date) {
+        LocalDate day = date == null ? LocalDate.now() : date;
+        RestaurantDailyStatsId key = new RestaurantDailyStatsId(restaurantId, day);
+        Counters counters = days.get(key);
+        if (counters != null) {
+            return counters.toResponse(restaurantId, day);
+        }
+        if (!day.isBefore(retentionCutoff())) {
+            return new Counters().toResponse(restaurantId, day);
+        }
+        return restaurantDailyStatsRepository.findById(key)
+                .map(Counters::from)
+                .orElseGet(Counters::new)
+                .toResponse(restaurantId, day);
+    }
+
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        if (!rebuilt || event.getRestaurantId() == null || event.getOrderTime() == null) {
+            return; // a pending rebuild reads the change from Orders
+        }
+        if (event.getEventId() != null && event.getEventId() <= rebuiltThroughEventId) {
+            return; // left in the outbox by the previous run and already part of the rebuild
+        }
+        if (!appliedEvents.firstSeen(event.getEventId())) {
+            return;
+        }
+        RestaurantDailyStatsId key = new RestaurantDailyStatsId(event.getRestaurantId(), event.getOrderTime().toLocalDate());
+        days.computeIfAbsent(key, this::loadDay).apply(event);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stats-flush-interval-ms:30000}", initialDelayString = "${orders.stats-flush-interval-ms:30000}")
+    public void flush() {
+        if (!rebuilt) {
+            rebuild();
+            return;
+        }
+        List<RestaurantDailyStats> rows = new ArrayList<>();
+        List<Counters> flushed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<RestaurantDailyStatsId, Counters> entry : days.entrySet()) {
+            RestaurantDailyStats row = entry.getValue().takeDirty(entry.getKey(), now);
+            if (row != null) {
+                rows.add(row);
+                flushed.add(entry.getValue());
+            }
+        }
+        if (!rows.isEmpty()) {
+            try {
+                restaurantDailyStatsRepository.saveAll(rows);
+            } catch (RuntimeException e) {
+                flushed.forEach(Counters::markDirty);
+                logger.warn("Flushing {} restaurant statistics rows failed, retrying on the next flush", rows.size(), e);
+                return;
+            }
+        }
+        LocalDate cutoff = retentionCutoff();
+        days.entrySet().removeIf(entry -> entry.getKey().getStatDate().isBefore(cutoff) && !entry.getValue().isDirty());
+    }
+
+    private synchronized void rebuild() {
+        if (rebuilt) {
+            return;
+        }
+        LocalDate cutoff = retentionCutoff();
+        Snapshot snapshot = rebuildTransaction.execute(status -> new Snapshot(
+                orderOutboxRepository.findMaxEventId(),
+                ordersRepository.aggregateDailyStatsSince(cutoff.atStartOfDay())));
+        Map<RestaurantDailyStatsId, Counters> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : snapshot.rows()) {
+            RestaurantDailyStatsId key = new RestaurantDailyStatsId(((Number) row[0]).intValue(), toLocalDate(row[1]));
+            loaded.computeIfAbsent(key, k -> new Counters()).add(
+                    Orders.OrderStatus.valueOf((String) row[2]),
+                    ((Number) row[3]).intValue(),
+                    toCents(row[4]),
+                    toCents(row[5]),
+                    ((Number) row[6]).longValue(),
+                    ((Number) row[7]).intValue());
+        }
+        days.clear();
+        days.putAll(loaded);
+        rebuiltThroughEventId = snapshot.pendingThrough() == null ? 0 : snapshot.pendingThrough();
+        rebuilt = true;
+        logger.info("Rebuilt restaurant statistics for {} restaurant-days since {}", loaded.size(), cutoff);
+    }
+
+    // Days inside the retention window are complete in memory; older ones continue from the rollup row
+    private Counters loadDay(RestaurantDailyStatsId key) {
+        if (!key.getStatDate().isBefore(retentionCutoff())) {
+            return new Counters();
+        }
+        return restaurantDailyStatsRepository.findById(key).map(Counters::from).orElseGet(Counters::new);
+    }
+
+    private LocalDate retentionCutoff() {
+        return LocalDate.now().minusDays(orderProperties.getStatsRetentionDays());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        return ((Date) value).toLocalDate();
+    }
+
+    private static long toCents(Object amount) {
+        if (amount == null) {
+            return 0;
+        }
+        BigDecimal value = amount instanceof BigDecimal decimal ? decimal : new BigDecimal(amount.toString());
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static long seconds(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).getSeconds();
+    }
+
+    private record Snapshot(Long pendingThrough, List<Object[]> rows) {
+    }
+
+    private static final class Counters {
+        private final int[] ordersByStatus = new int[STATUSES.length];
+        private long revenueCents;
+        private long tipsCents;
+        private long deliverySeconds;
+        private int timedDeliveries;
+        private boolean dirty;
+
+        static Counters from(RestaurantDailyStats row) {
+            Counters counters = new Counters();
+            counters.ordersByStatus[Orders.OrderStatus.PENDING.ordinal()] = row.getPendingOrders();
+            counters.ordersByStatus[Orders.OrderStatus.OUT_FOR_DELIVERY.ordinal()] = row.getOutForDeliveryOrders();
+            counters.ordersByStatus[Orders.OrderStatus.DELIVERED.ordinal()] = row.getDeliveredOrders();
+            counters.ordersByStatus[Orders.OrderStatus.NOT_DELIVERED.ordinal()] = row.getNotDeliveredOrders();
+            counters.revenueCents = toCents(row.getRevenue());
+            counters.tipsCents = toCents(row.getTips());
+            counters.deliverySeconds = row.getDeliverySeconds();
+            counters.timedDeliveries = row.getTimedDeliveries();
+            return counters;
+        }
+
+        synchronized void add(Orders.OrderStatus status, int orders, long revenue, long tips, long seconds, int timed) {
+            ordersByStatus[status.ordinal()] += orders;
+            if (status != Orders.OrderStatus.NOT_DELIVERED) {
+                revenueCents += revenue;
+                tipsCents += tips;
+            }
+            deliverySeconds += seconds;
+            timedDeliveries += timed;
+            dirty = true;
+        }
+
+        synchronized void apply(OrderEvent event) {
+            Orders.OrderStatus previous = event.getPreviousStatus();
+            Orders.OrderStatus current = event.getOrderStatus();
+            long total = toCents(event.getTotalAmount());
+            long tips = toCents(event.getTips());
+
+            if (event.getType() == OrderEventType.CREATED) {
+                ordersByStatus[current.ordinal()]++;
+                if (current != Orders.OrderStatus.NOT_DELIVERED) {
+                    revenueCents += total;
+                    tipsCents += tips;
+                }
+            } else if (previous != null && previous != current) {
+                ordersByStatus[previous.ordinal()]--;
+                ordersByStatus[current.ordinal()]++;
+                if (current == Orders.OrderStatus.NOT_DELIVERED) {
+                    revenueCents -= total;
+                    tipsCents -= tips;
+                }
+            }
+
+            if (current == Orders.OrderStatus.DELIVERED) {
+                if (previous == Orders.OrderStatus.DELIVERED && event.getPreviousDeliveryTime() != null) {
+                    // Delivery time correction: replace the old duration
+                    deliverySeconds -= seconds(event.getOrderTime(), event.getPreviousDeliveryTime());
+                    timedDeliveries--;
+                }
+                if (event.getDeliveryTime() != null) {
+                    deliverySeconds += seconds(event.getOrderTime(), event.getDeliveryTime());
+                    timedDeliveries++;
+                }
+            }
+            dirty = true;
+        }
+
+        synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        // Snapshot for the rollup table, or null if nothing changed since the last flush
+        synchronized RestaurantDailyStats takeDirty(RestaurantDailyStatsId key, LocalDateTime now) {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return RestaurantDailyStats.builder()
+                    .restaurantId(key.getRestaurantId())
+                    .statDate(key.getStatDate())
+                    .pendingOrders(ordersByStatus[Orders.OrderStatus.PENDING.ordinal()])
+                    .outForDeliveryOrders(ordersByStatus[Orders.OrderStatus.OUT_FOR_DELIVERY.ordinal()])
+                    .deliveredOrders(ordersByStatus[Orders.OrderStatus.DELIVERED.ordinal()])
+                    .notDeliveredOrders(ordersByStatus[Orders.OrderStatus.NOT_DELIVERED.ordinal()])
+                    .revenue(PricingEngine.toMoney(revenueCents))
+                    .tips(PricingEngine.toMoney(tipsCents))
+                    .deliverySeconds(deliverySeconds)
+                    .timedDeliveries(timedDeliveries)
+                    .updatedAt(now)
+                    .build();
+        }
+
+        synchronized RestaurantOrderStatsResponse toResponse(Integer restaurantId, LocalDate date) {
+            int totalOrders = 0;
+            for (int count : ordersByStatus) {
+                totalOrders += count;
+            }
+            return RestaurantOrderStatsResponse.builder()
+                    .restaurantId(restaurantId)
+                    .date(date)
+                    .totalOrders(totalOrders)
+                    .pendingOrders(ordersByStatus[Orders.OrderStatus.PENDING.ordinal()])
+                    .outForDeliveryOrders(ordersByStatus[Orders.OrderStatus.OUT_FOR_DELIVERY.ordinal()])
+                    .deliveredOrders(ordersByStatus[Orders.OrderStatus.DELIVERED.ordinal()])
+                    .notDeliveredOrders(ordersByStatus[Orders.OrderStatus.NOT_DELIVERED.ordinal()])
+                    .revenue(PricingEngine.toMoney(revenueCents))
+                    .tips(PricingEngine.toMoney(tipsCents))
+                    .averageDeliveryMinutes(timedDeliveries == 0 ? null : deliverySeconds / 60.0 / timedDeliveries)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.frontdash.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import com.frontdash.config.CatalogProperties;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Centroid of every known zip code, read once at startup from catalog.zip-centroids-location.
+ *
+ * The file is comma or tab separated with a header row naming the zip, latitude and longitude
+ * columns (zip/lat/lon, or GEOID/INTPTLAT/INTPTLONG as in the Census ZCTA gazetteer file, which can
+ * be used as is). Lines starting with # are skipped.
+ */
+@Service
+public class ZipCentroids {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipCentroids.class);
+
+    private static final List<String> ZIP_COLUMNS = List.of("zip", "zip_code", "zcta", "geoid");
+    private static final List<String> LATITUDE_COLUMNS = List.of("lat", "latitude", "intptlat");
+    private static final List<String> LONGITUDE_COLUMNS = List.of("lon", "lng", "longitude", "intptlong");
+
+    @Autowired
+    private CatalogProperties catalogProperties;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    private Map<String, Centroid> centroids = Map.of();
+
+    @PostConstruct
+    void load() {
+        Resource resource = resourceLoader.getResource(catalogProperties.getZipCentroidsLocation());
+        if (!resource.exists()) {
+            logger.warn("Zip centroid file {} not found; location lookups will find nothing", catalogProperties.getZipCentroidsLocation());
+            return;
+        }
+        Map<String, Centroid> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String delimiter = null;
+            int zipColumn = -1;
+            int latitudeColumn = -1;
+            int longitudeColumn = -1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (delimiter == null) {
+                    delimiter = line.contains("\t") ? "\t" : ",";
+                    String[] header = line.split(delimiter);
+                    zipColumn = column(header, ZIP_COLUMNS);
+                    latitudeColumn = column(header, LATITUDE_COLUMNS);
+                    longitudeColumn = column(header, LONGITUDE_COLUMNS);
+                    if (zipColumn < 0 || latitudeColumn < 0 || longitudeColumn < 0) {
+                        throw new IllegalStateException("Zip centroid file needs zip, latitude and longitude columns");
+                    }
+                    continue;
+                }
+                String[] fields = line.split(delimiter);
+                try {
+                    loaded.put(normalize(fields[zipColumn]), new Centroid(
+                            Double.parseDouble(fields[latitudeColumn].trim()), Double.parseDouble(fields[longitudeColumn].trim())));
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    logger.debug("Skipping malformed zip centroid line: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read zip centroid file " + catalogProperties.getZipCentroidsLocation(), e);
+        }
+        centroids = loaded;
+        logger.info("Loaded {} zip code centroids", loaded.size());
+    }
+
+    /**
+     * Centroid of a zip code; ZIP+4 and surrounding spaces are ignored
+     * @return the centroid, or null for an unknown zip code
+     */
+    public Centroid find(String zipCode) {
+        return zipCode == null ? null : centroids.get(normalize(zipCode));
+    }
+
+    private static String normalize(String zipCode) {
+        String trimmed = zipCode.trim();
+        int dash = trimmed.indexOf('-');
+        return (dash < 0 ? trimmed : trimmed.substring(0, dash)).toUpperCase(Locale.ROOT);
+    }
+
+    private static int column(String[] header, List<String> names) {
+        for (int i = 0; i < header.length; i++) {
+            if (names.contains(header[i].trim().toLowerCase(Locale.ROOT))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public record Centroid(double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.frontdash.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a (distance ASC, restaurant_id ASC) nearby-restaurant listing.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public record DistanceCursor(long distanceMeters, int restaurantId) {
+
+    // Sorts before every real restaurant, so a page starting here begins with the nearest one
+    public static final DistanceCursor START = new DistanceCursor(-1, 0);
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = Long.toString(distanceMeters) + SEPARATOR + restaurantId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a restaurant at this distance comes after the cursor
+     */
+    public boolean isBefore(long distanceMeters, int restaurantId) {
+        return this.distanceMeters < distanceMeters
+                || (this.distanceMeters == distanceMeters && this.restaurantId < restaurantId);
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}
+     * @param token the cursor token, or null/blank for the first page
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static DistanceCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        // Base64 and number parsing both throw IllegalArgumentException subclasses
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new DistanceCursor(Long.parseLong(raw.substring(0, separator)), Integer.parseInt(raw.substring(separator + 1)));
+    }
+}
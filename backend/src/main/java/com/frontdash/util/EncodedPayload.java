@@ -0,0 +1,124 @@
+package com.frontdash.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A response body serialized to JSON once and gzipped once, then written as-is to every client.
+ * Neither array is modified after construction, so one instance can be shared by all requests.
+ */
+public final class EncodedPayload {
+
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private EncodedPayload(byte[] json, byte[] gzip) {
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Serialize and compress a body
+     * @param objectMapper the application's mapper, so the bytes match what Spring MVC would write
+     * @param body the response body
+     * @return the encoded payload
+     */
+    public static EncodedPayload encode(ObjectMapper objectMapper, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            }
+            return new EncodedPayload(json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response payload", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 200 response with the gzip bytes if the client accepts gzip, the plain JSON otherwise
+     * @param acceptEncoding the request's Accept-Encoding header, or null
+     * @param etag strong ETag of the payload; the gzip bytes are tagged with gzipETag(etag)
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding, String etag) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzipped ? gzipETag(etag) : etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = gzipped ? gzip : json;
+        return response.contentLength(body.length).body(body);
+    }
+
+    /**
+     * 304 response carrying the ETag the matching 200 would have carried
+     * @param acceptEncoding the request's Accept-Encoding header, or null
+     * @param etag strong ETag of the plain JSON
+     */
+    public static ResponseEntity<byte[]> notModified(String acceptEncoding, String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(acceptsGzip(acceptEncoding) ? gzipETag(etag) : etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    /**
+     * Strong ETag of the gzip bytes: a different representation needs a different strong validator
+     * @param etag quoted ETag of the plain JSON
+     */
+    public static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    // gzip (or *) listed without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && isZero(param.substring(2))) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String qvalue) {
+        try {
+            return Double.parseDouble(qvalue) == 0;
+        } catch (NumberFormatException e) {
+            return false; // a malformed weight is ignored, not treated as a refusal
+        }
+    }
+}
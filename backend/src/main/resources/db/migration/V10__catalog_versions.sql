@@ -0,0 +1,8 @@
+-- V10__catalog_versions.sql
+
+-- Version of each catalog view served with an ETag: 'restaurants' for the restaurant lists,
+-- 'menu:<restaurantId>' for a restaurant's menu. Incremented by every write that changes the view.
+CREATE TABLE IF NOT EXISTS CatalogVersion (
+    scope VARCHAR(30) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
@@ -0,0 +1,7 @@
+-- V2__order_id_blocks.sql
+
+-- Order ID block reservations (hi/lo allocator, one row per sequence)
+CREATE TABLE IF NOT EXISTS OrderIdBlock (
+    sequence_name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
@@ -0,0 +1,6 @@
+-- V3__orders_keyset_indexes.sql
+
+-- Keyset pagination: (order_time DESC, order_id DESC) listings, optionally per restaurant or status
+CREATE INDEX idx_orders_time ON Orders(order_time, order_id);
+CREATE INDEX idx_orders_restaurant_time ON Orders(restaurant_id, order_time, order_id);
+CREATE INDEX idx_orders_status_time ON Orders(order_status, order_time, order_id);
@@ -0,0 +1,18 @@
+-- V4__restaurant_daily_stats.sql
+
+-- Per-restaurant daily order statistics, flushed from memory by the backend
+CREATE TABLE IF NOT EXISTS RestaurantDailyStats (
+    restaurant_id INT NOT NULL,
+    stat_date DATE NOT NULL,
+    pending_orders INT NOT NULL DEFAULT 0,
+    out_for_delivery_orders INT NOT NULL DEFAULT 0,
+    delivered_orders INT NOT NULL DEFAULT 0,
+    not_delivered_orders INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    tips DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    delivery_seconds BIGINT NOT NULL DEFAULT 0,
+    timed_deliveries INT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    -- No foreign key: derived data that must not block restaurant removal
+    PRIMARY KEY (restaurant_id, stat_date)
+);
@@ -0,0 +1,33 @@
+-- V5__order_hourly_rollups.sql
+
+-- Set by every order change; the hourly rollup job reads the orders changed since its last watermark.
+-- Existing rows stay NULL: the first rollup run has no watermark and aggregates every bucket.
+ALTER TABLE Orders ADD COLUMN updated_at DATETIME;
+
+CREATE INDEX idx_orders_updated ON Orders(updated_at);
+
+-- Hourly order rollups per restaurant, recomputed by the backend's rollup job
+CREATE TABLE IF NOT EXISTS OrderHourlyRollup (
+    restaurant_id INT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    delivered_count INT NOT NULL DEFAULT 0,
+    not_delivered_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    tips DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    timed_deliveries INT NOT NULL DEFAULT 0,
+    avg_delivery_seconds BIGINT,
+    p50_delivery_seconds BIGINT,
+    p90_delivery_seconds BIGINT,
+    p95_delivery_seconds BIGINT,
+    updated_at DATETIME NOT NULL,
+    PRIMARY KEY (restaurant_id, bucket_start)
+);
+
+CREATE INDEX idx_order_hourly_rollup_bucket ON OrderHourlyRollup(bucket_start);
+
+-- Progress of incremental aggregation jobs
+CREATE TABLE IF NOT EXISTS RollupWatermark (
+    job_name VARCHAR(50) PRIMARY KEY,
+    watermark DATETIME NOT NULL
+);
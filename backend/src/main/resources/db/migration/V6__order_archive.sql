@@ -0,0 +1,30 @@
+-- V6__order_archive.sql
+
+-- Archived orders: DELIVERED / NOT_DELIVERED orders moved out of Orders by the backend's archival job.
+-- No foreign keys, so old history never blocks removing a restaurant, driver or menu item.
+CREATE TABLE IF NOT EXISTS OrdersArchive (
+    order_id VARCHAR(10) PRIMARY KEY,
+    restaurant_id INT,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_phone VARCHAR(20),
+    address_id INT,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    order_time DATETIME NOT NULL,
+    assigned_driver_id INT,
+    estimated_delivery_time DATETIME,
+    order_status ENUM('PENDING', 'OUT_FOR_DELIVERY', 'DELIVERED', 'NOT_DELIVERED') NOT NULL,
+    tips DECIMAL(10, 2) DEFAULT 0.00,
+    subtotal DECIMAL(10, 2) NOT NULL,
+    delivery_time DATETIME,
+    updated_at DATETIME,
+    archived_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_orders_archive_restaurant_time ON OrdersArchive(restaurant_id, order_time, order_id);
+
+CREATE TABLE IF NOT EXISTS OrderItemArchive (
+    order_id VARCHAR(10),
+    menu_item_id INT,
+    quantity INT NOT NULL,
+    PRIMARY KEY (order_id, menu_item_id)
+);
@@ -0,0 +1,12 @@
+-- V7__order_idempotency_keys.sql
+
+-- Idempotency-Key values seen on POST /api/orders and the order each one created
+CREATE TABLE IF NOT EXISTS OrderIdempotencyKey (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    request_hash CHAR(64) NOT NULL,
+    -- Filled in by the transaction that inserted the key, before it commits
+    order_id VARCHAR(10),
+    created_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_order_idempotency_created ON OrderIdempotencyKey(created_at);
@@ -0,0 +1,11 @@
+-- V8__order_outbox.sql
+
+-- Transactional outbox: one row per order event, written in the transaction that changed the order
+-- and deleted by the backend's relay once it has been delivered
+CREATE TABLE IF NOT EXISTS OrderOutbox (
+    event_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id VARCHAR(10) NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at DATETIME(3) NOT NULL
+);
@@ -0,0 +1,12 @@
+-- V9__orders_status_covering_indexes.sql
+-- Status list views and the dispatcher filter on order_status (and whether a driver is assigned)
+-- and sort by (order_time, order_id). Both indexes also carry the remaining summary columns, so
+-- those queries are answered from the index alone; InnoDB appends the primary key order_id to
+-- every secondary index.
+
+-- Widened in place: same leading columns, so the status keyset pages keep using it
+DROP INDEX idx_orders_status_time ON Orders;
+CREATE INDEX idx_orders_status_time ON Orders(order_status, order_time, order_id, assigned_driver_id, restaurant_id, total_amount);
+
+-- Unassigned (assigned_driver_id IS NULL) orders of a status in order_time order, without a filesort
+CREATE INDEX idx_orders_status_driver_time ON Orders(order_status, assigned_driver_id, order_time, order_id, restaurant_id, total_amount);
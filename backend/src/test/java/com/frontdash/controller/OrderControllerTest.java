@@ -0,0 +1,107 @@
+package com.frontdash.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.exception.IntakeQueueFullException;
+import com.frontdash.service.BulkOrderService;
+import com.frontdash.service.OrderEventStream;
+import com.frontdash.service.OrderExportService;
+import com.frontdash.service.OrderIdempotencyService;
+import com.frontdash.service.OrderIntakeService;
+import com.frontdash.service.OrderOutboxRelay;
+import com.frontdash.service.OrderService;
+
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    private static final String ORDER = "{\"restaurantId\":1,\"customerName\":\"Pat Doe\",\"items\":[{\"menuItemId\":1,\"quantity\":1}]}";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Mock
+    private OrderIntakeService orderIntakeService;
+
+    @Mock
+    private OrderOutboxRelay orderOutboxRelay;
+
+    @Mock
+    private BulkOrderService bulkOrderService;
+
+    @Mock
+    private OrderExportService orderExportService;
+
+    @Mock
+    private OrderEventStream orderEventStream;
+
+    @InjectMocks
+    private OrderController orderController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+    }
+
+    @Test
+    void returnsTheOrderForAnIdempotencyKey() throws Exception {
+        when(orderIdempotencyService.createOrder(eq("key-1"), any()))
+                .thenReturn(OrderResponse.builder().orderId("FD0001").build());
+
+        mockMvc.perform(post("/api/orders").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value("FD0001"));
+    }
+
+    @Test
+    void rejectsAnIdempotencyKeyReusedForADifferentOrder() throws Exception {
+        when(orderIdempotencyService.createOrder(eq("key-1"), any()))
+                .thenThrow(new IllegalArgumentException("Idempotency-Key was already used for a different order"));
+
+        mockMvc.perform(post("/api/orders").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void acceptsAnOrderThroughTheIntake() throws Exception {
+        when(orderIntakeService.isEnabled()).thenReturn(true);
+        when(orderIntakeService.accept(any())).thenReturn(OrderResponse.builder().orderId("FD0002").build());
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.orderId").value("FD0002"));
+    }
+
+    @Test
+    void answersServiceUnavailableWithRetryAfterWhenTheIntakeQueueIsFull() throws Exception {
+        when(orderIntakeService.isEnabled()).thenReturn(true);
+        when(orderIntakeService.accept(any())).thenThrow(new IntakeQueueFullException("Order intake queue is full", 2));
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.frontdash.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.frontdash.entity.Orders;
+
+/**
+ * Inserts synthetic orders straight into Orders or OrdersArchive on MySQL with INSERT ... SELECT,
+ * up to a million rows per statement, for tests that need millions of rows.
+ * Order n gets id "FD" + n zero-padded to 8 digits and is placed n minutes after the start time.
+ */
+public final class BulkOrderRows {
+
+    private static final int ROWS_PER_STATEMENT = 1_000_000;
+
+    private BulkOrderRows() {
+    }
+
+    /**
+     * @param table "Orders" or "OrdersArchive"
+     * @param first number of the first order
+     * @param count orders to insert
+     * @param start order time of order 0
+     * @param restaurants orders are spread over restaurant ids 1..restaurants; 0 leaves restaurant_id null
+     */
+    public static void insert(JdbcTemplate jdbcTemplate, String table, long first, long count, LocalDateTime start,
+                              Orders.OrderStatus status, int restaurants) {
+        createDigits(jdbcTemplate);
+        boolean archive = "OrdersArchive".equals(table);
+        String restaurantId = restaurants > 0 ? "1 + MOD(n, " + restaurants + ")" : "NULL";
+        String sql = "INSERT INTO " + table + " (order_id, restaurant_id, customer_name, order_time, order_status,"
+                + " subtotal, tips, total_amount" + (archive ? ", archived_at)" : ")")
+                + " SELECT CONCAT('FD', LPAD(n, 8, '0')), " + restaurantId + ", 'Customer',"
+                + " TIMESTAMPADD(MINUTE, n, ?), ?, 10.00, 1.00, 12.50"
+                + (archive ? ", TIMESTAMPADD(DAY, 90, TIMESTAMPADD(MINUTE, n, ?))" : "")
+                + " FROM (SELECT ? + a.i * 1000 + b.i AS n FROM Digits a CROSS JOIN Digits b"
+                + " WHERE a.i * 1000 + b.i < ?) numbers";
+        for (long offset = 0; offset < count; offset += ROWS_PER_STATEMENT) {
+            long rows = Math.min(ROWS_PER_STATEMENT, count - offset);
+            if (archive) {
+                jdbcTemplate.update(sql, start, status.name(), start, first + offset, rows);
+            } else {
+                jdbcTemplate.update(sql, start, status.name(), first + offset, rows);
+            }
+        }
+    }
+
+    // 0..999; a regular table, since MySQL cannot join a temporary table to itself
+    private static void createDigits(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS Digits (i INT PRIMARY KEY)");
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Digits", Integer.class);
+        if (rows != null && rows == 1000) {
+            return;
+        }
+        jdbcTemplate.execute("DELETE FROM Digits");
+        jdbcTemplate.execute("INSERT INTO Digits (i) SELECT a.i * 100 + b.i * 10 + c.i FROM"
+                + " (SELECT 0 i UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4"
+                + " UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a,"
+                + " (SELECT 0 i UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4"
+                + " UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) b,"
+                + " (SELECT 0 i UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4"
+                + " UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) c");
+    }
+}
@@ -0,0 +1,132 @@
+package com.frontdash.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.frontdash.entity.Orders;
+
+/**
+ * Benchmark of the dashboard queries on MySQL while order history grows in OrdersArchive, with the
+ * same history left in Orders for comparison. Runs 200,000 orders of history by default; pass
+ * -Dbenchmark.history-orders=10000000 for the full 10M run.
+ * Median latencies are logged per history size.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// Rows are bulk loaded and analyzed outside any test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiveLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveLatencyTest.class);
+
+    private static final long HISTORY_ORDERS = Long.getLong("benchmark.history-orders", 200_000);
+    private static final int RESTAURANTS = 20;
+    private static final int OPEN_ORDERS = 2_000;
+    private static final long OPEN_ORDER_IDS = 50_000_000;
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    @Container
+    static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dashboardLatencyStaysFlatAsArchivedHistoryGrows() {
+        for (int r = 1; r <= RESTAURANTS; r++) {
+            jdbcTemplate.update("INSERT INTO Restaurant (restaurant_id, name, status) VALUES (?, ?, 'ACTIVE')",
+                    r, "Restaurant " + r);
+        }
+        BulkOrderRows.insert(jdbcTemplate, "Orders", OPEN_ORDER_IDS, OPEN_ORDERS, LocalDateTime.now().minusDays(1),
+                Orders.OrderStatus.PENDING, RESTAURANTS);
+
+        // Discarded: lets the JIT and the connection pool warm up before the baseline
+        measure();
+        Map<String, double[]> archived = new LinkedHashMap<>();
+        long loaded = 0;
+        for (long history : new long[] {0, HISTORY_ORDERS / 100, HISTORY_ORDERS / 10, HISTORY_ORDERS}) {
+            BulkOrderRows.insert(jdbcTemplate, "OrdersArchive", loaded, history - loaded,
+                    LocalDateTime.of(2000, 1, 1, 0, 0), Orders.OrderStatus.DELIVERED, RESTAURANTS);
+            loaded = history;
+            archived.put(history + " archived", measure());
+        }
+
+        // The same history left in the hot table, as it was before archival
+        jdbcTemplate.update("""
+                INSERT INTO Orders (order_id, restaurant_id, customer_name, order_time, order_status,
+                    subtotal, tips, total_amount)
+                SELECT order_id, restaurant_id, customer_name, order_time, order_status, subtotal, tips, total_amount
+                FROM OrdersArchive
+                """);
+        double[] unarchived = measure();
+
+        logger.info("Median dashboard query latency in ms [open orders by status, restaurant orders, order by id]");
+        archived.forEach((label, medians) -> logger.info("{}: {}", label, Arrays.toString(medians)));
+        logger.info("{} in Orders: {}", HISTORY_ORDERS, Arrays.toString(unarchived));
+
+        double[] baseline = archived.values().iterator().next();
+        double[] largest = archived.get(HISTORY_ORDERS + " archived");
+        for (int query = 0; query < baseline.length; query++) {
+            // Generous bound so a noisy machine does not fail the build; flat means no growth with history
+            assertThat(largest[query]).as("query %d", query).isLessThanOrEqualTo(baseline[query] * 2 + 2);
+        }
+    }
+
+    private double[] measure() {
+        jdbcTemplate.execute("ANALYZE TABLE Orders, OrdersArchive");
+        String openOrderId = String.format("FD%08d", OPEN_ORDER_IDS + OPEN_ORDERS / 2);
+        return new double[] {
+                median(() -> ordersRepository.findSummariesByOrderStatus(Orders.OrderStatus.PENDING)),
+                median(() -> ordersRepository.findByRestaurantId(RESTAURANTS / 2)),
+                median(() -> ordersRepository.findById(openOrderId))
+        };
+    }
+
+    private static double median(Supplier<?> query) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            query.get();
+        }
+        double[] millis = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_RUNS / 2];
+    }
+}
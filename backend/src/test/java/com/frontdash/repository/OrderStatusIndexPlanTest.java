@@ -0,0 +1,154 @@
+package com.frontdash.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.frontdash.entity.Orders;
+
+/**
+ * Runs the Flyway migrations on MySQL, then EXPLAINs the SQL Hibernate generates for the
+ * order status queries to check they are served by the covering status indexes.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.frontdash.repository.OrderStatusIndexPlanTest$RecordingInspector"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// ANALYZE TABLE commits implicitly, so the rows are committed up front
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusIndexPlanTest {
+
+    private static final List<String> STATUS_INDEXES = List.of("idx_orders_status_time", "idx_orders_status_driver_time");
+
+    @Container
+    static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static boolean seeded = false;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        Orders.OrderStatus[] statuses = Orders.OrderStatus.values();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Orders> orders = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            orders.add(Orders.builder()
+                    .orderId(String.format("FD%05d", i))
+                    .customerName("Customer")
+                    .orderTime(start.plusMinutes(i))
+                    .orderStatus(statuses[i % statuses.length])
+                    .subtotal(new BigDecimal("10.00"))
+                    .totalAmount(new BigDecimal("11.00"))
+                    .build());
+        }
+        ordersRepository.saveAll(orders);
+        jdbcTemplate.execute("ANALYZE TABLE Orders");
+        seeded = true;
+    }
+
+    @Test
+    void statusSummariesAreReadFromTheStatusIndexInOrder() {
+        Map<String, Object> plan = explain(() -> ordersRepository.findSummariesByOrderStatus(Orders.OrderStatus.PENDING),
+                "PENDING");
+
+        assertThat(plan.get("key")).isEqualTo("idx_orders_status_time");
+        assertThat(extra(plan)).contains("Using index").doesNotContain("Using filesort");
+    }
+
+    @Test
+    void unassignedSummariesAreReadFromAStatusIndexInOrder() {
+        Map<String, Object> plan = explain(
+                () -> ordersRepository.findSummariesByOrderStatusWithoutDriver(Orders.OrderStatus.PENDING), "PENDING");
+
+        assertThat(STATUS_INDEXES).contains((String) plan.get("key"));
+        assertThat(extra(plan)).contains("Using index").doesNotContain("Using filesort");
+    }
+
+    @Test
+    void assignedSummariesAreCoveredByAStatusIndex() {
+        Map<String, Object> plan = explain(
+                () -> ordersRepository.findSummariesByOrderStatusWithDriver(Orders.OrderStatus.OUT_FOR_DELIVERY),
+                "OUT_FOR_DELIVERY");
+
+        assertThat(STATUS_INDEXES).contains((String) plan.get("key"));
+        assertThat(extra(plan)).contains("Using index");
+    }
+
+    @Test
+    void dispatcherReadsTheOldestUnassignedOrdersWithoutSorting() {
+        Map<String, Object> plan = explain(
+                () -> ordersRepository.findOldestWithoutDriver(Orders.OrderStatus.PENDING, PageRequest.of(0, 50)),
+                "PENDING", 0, 50);
+
+        assertThat(STATUS_INDEXES).contains((String) plan.get("key"));
+        assertThat(extra(plan)).doesNotContain("Using filesort");
+    }
+
+    // Runs the query to capture its SQL, then EXPLAINs that SQL with the same parameters
+    private Map<String, Object> explain(Runnable query, Object... parameters) {
+        RecordingInspector.statements.clear();
+        query.run();
+        List<String> selects = RecordingInspector.statements.stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+        assertThat(selects).hasSize(1);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + selects.get(0), parameters);
+        assertThat(rows).hasSize(1);
+        return rows.get(0);
+    }
+
+    private static List<String> extra(Map<String, Object> plan) {
+        Object extra = plan.get("Extra");
+        return extra == null ? List.of() : Arrays.asList(((String) extra).split(";\\s*"));
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
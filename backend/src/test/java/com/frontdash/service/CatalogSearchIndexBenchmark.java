@@ -0,0 +1,72 @@
+package com.frontdash.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.response.CatalogSearchResult;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+/**
+ * Top-20 catalog search over 100,000 menu items (2,000 restaurants of 50 items).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CatalogSearchIndexBenchmark {
+
+    static final int RESTAURANTS = 2_000;
+    static final int ITEMS_PER_RESTAURANT = 50;
+
+    // A common term, a short prefix, a typo, a two-term query and a rare long-tail term with a typo
+    @Param({"chicken", "ch", "chiken", "spicy noodles", "thai basil curry", "vindalo"})
+    private String query;
+
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Setup
+    public void setUp() {
+        catalogSearchIndex = build(new SyntheticCatalog(RESTAURANTS, ITEMS_PER_RESTAURANT, 42));
+    }
+
+    @Benchmark
+    public List<CatalogSearchResult> search() {
+        return catalogSearchIndex.search(query, 20);
+    }
+
+    static CatalogSearchIndex build(SyntheticCatalog catalog) {
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+        when(restaurantRepository.findByStatus(Restaurant.RestaurantStatus.ACTIVE)).thenReturn(catalog.restaurants);
+        when(menuItemRepository.findSearchRowsByRestaurantStatus(Restaurant.RestaurantStatus.ACTIVE)).thenReturn(catalog.rows);
+
+        CatalogSearchIndex index = new CatalogSearchIndex();
+        ReflectionTestUtils.setField(index, "restaurantRepository", restaurantRepository);
+        ReflectionTestUtils.setField(index, "menuItemRepository", menuItemRepository);
+        ReflectionTestUtils.setField(index, "catalogProperties", new CatalogProperties());
+        ReflectionTestUtils.setField(index, "catalogVersions", mock(CatalogVersions.class));
+        index.init();
+        return index;
+    }
+}
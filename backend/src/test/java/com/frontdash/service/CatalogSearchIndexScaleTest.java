@@ -0,0 +1,66 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.frontdash.dao.response.CatalogSearchResult;
+
+/**
+ * Timed top-20 searches over 100,000 synthetic menu items; CatalogSearchIndexBenchmark measures the same
+ * queries under JMH. Times are the searching thread's CPU time, so scheduled jobs of the other Spring
+ * contexts cached in the test JVM do not count against the search.
+ */
+class CatalogSearchIndexScaleTest {
+
+    private static final List<String> QUERIES =
+            List.of("chicken", "ch", "chiken", "spicy noodles", "thai basil curry", "vindalo");
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 51;
+    private static final double TARGET_MILLIS = 5;
+
+    private static CatalogSearchIndex catalogSearchIndex;
+
+    @BeforeAll
+    static void setUp() {
+        catalogSearchIndex = CatalogSearchIndexBenchmark.build(new SyntheticCatalog(
+                CatalogSearchIndexBenchmark.RESTAURANTS, CatalogSearchIndexBenchmark.ITEMS_PER_RESTAURANT, 42));
+    }
+
+    @Test
+    void ranksTheTopTwentyOfAHundredThousandItems() {
+        for (String query : QUERIES) {
+            List<CatalogSearchResult> results = catalogSearchIndex.search(query, 20);
+
+            assertThat(results).as(query).isNotEmpty().hasSizeLessThanOrEqualTo(20);
+            assertThat(results).as(query)
+                    .isSortedAccordingTo(Comparator.comparingDouble(CatalogSearchResult::getScore).reversed());
+        }
+    }
+
+    @Test
+    void answersEachQueryWithinFiveMilliseconds() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (String query : QUERIES) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                catalogSearchIndex.search(query, 20);
+            }
+            double[] millis = new double[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long start = threads.getCurrentThreadCpuTime();
+                catalogSearchIndex.search(query, 20);
+                millis[i] = (threads.getCurrentThreadCpuTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(millis);
+            // The median, so a GC pause on a busy build machine does not fail the build
+            assertThat(millis[MEASURED_RUNS / 2]).as(query).isLessThan(TARGET_MILLIS);
+        }
+    }
+}
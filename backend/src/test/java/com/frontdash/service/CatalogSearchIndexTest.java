@@ -0,0 +1,190 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.response.CatalogSearchResult;
+import com.frontdash.entity.MenuCategory;
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.CatalogVersionRepository;
+import com.frontdash.repository.MenuCategoryRepository;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CatalogSearchIndex.class, CatalogVersions.class, CatalogProperties.class})
+// The index reads committed rows when it refreshes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogSearchIndexTest {
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Restaurant thaiBasil;
+    private Restaurant curryHouse;
+    private Restaurant closed;
+    private MenuItem redCurry;
+
+    @BeforeEach
+    void setUp() {
+        thaiBasil = restaurant("Thai Basil", Restaurant.RestaurantStatus.ACTIVE);
+        Integer curries = category(thaiBasil, "Curries");
+        item(curries, "Green Curry", "Coconut milk, basil and bamboo shoots");
+        redCurry = item(curries, "Red Curry", "Spicy coconut sauce");
+        item(category(thaiBasil, "Noodles"), "Pad Thai", "Rice noodles with peanuts");
+
+        curryHouse = restaurant("Curry House", Restaurant.RestaurantStatus.ACTIVE);
+        item(category(curryHouse, "Mains"), "Chicken Tikka", "Served with curry sauce");
+
+        closed = restaurant("Closed Curry Corner", Restaurant.RestaurantStatus.WITHDRAW_REQ);
+        item(category(closed, "Mains"), "Curry Puff", null);
+
+        reindex(thaiBasil, curryHouse, closed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        menuItemRepository.deleteAll();
+        menuCategoryRepository.deleteAll();
+        restaurantRepository.deleteAll();
+        reindex(thaiBasil, curryHouse, closed);
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        List<CatalogSearchResult> results = catalogSearchIndex.search("curry", 10);
+
+        assertThat(results).extracting(CatalogSearchResult::getScore).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        assertThat(results.get(0).getType()).isEqualTo("RESTAURANT");
+        assertThat(results.get(0).getRestaurantName()).isEqualTo("Curry House");
+        assertThat(results.subList(1, 3)).extracting(CatalogSearchResult::getItemName)
+                .containsExactlyInAnyOrder("Green Curry", "Red Curry");
+        assertThat(results.get(3).getItemName()).isEqualTo("Chicken Tikka");
+        // Only active restaurants are searchable
+        assertThat(results).hasSize(4).noneMatch(result -> result.getRestaurantId().equals(closed.getRestaurantId()));
+    }
+
+    @Test
+    void matchesPrefixesAndTyposButRequiresEveryTerm() {
+        assertThat(catalogSearchIndex.search("gren cury", 10)).extracting(CatalogSearchResult::getItemName)
+                .containsExactly("Green Curry");
+        // Thai Basil itself matches "curr" through its Curries category
+        assertThat(catalogSearchIndex.search("thai curr", 10)).extracting(CatalogSearchResult::getItemName)
+                .containsExactlyInAnyOrder(null, "Green Curry", "Red Curry");
+        assertThat(catalogSearchIndex.search("Pâd THAI", 1)).extracting(CatalogSearchResult::getItemName)
+                .containsExactly("Pad Thai");
+        assertThat(catalogSearchIndex.search("curry pizza", 10)).isEmpty();
+    }
+
+    @Test
+    void appliesChangesOnTheNextRefresh() {
+        redCurry.setItemName("Massaman Curry");
+        menuItemRepository.save(redCurry);
+        catalogSearchIndex.restaurantChanged(thaiBasil.getRestaurantId());
+        assertThat(catalogSearchIndex.search("massaman", 10)).isEmpty();
+
+        catalogSearchIndex.refresh();
+
+        assertThat(catalogSearchIndex.search("massaman", 10)).extracting(CatalogSearchResult::getMenuItemId)
+                .containsExactly(redCurry.getMenuItemId());
+        assertThat(catalogSearchIndex.search("red curry", 10)).isEmpty();
+        assertThat(catalogSearchIndex.search("green curry", 10)).hasSize(1);
+    }
+
+    @Test
+    void addsAndRemovesRestaurantsWhenTheirStatusChanges() {
+        closed.setStatus(Restaurant.RestaurantStatus.ACTIVE);
+        restaurantRepository.save(closed);
+        thaiBasil.setStatus(Restaurant.RestaurantStatus.WITHDRAW_REQ);
+        restaurantRepository.save(thaiBasil);
+        reindex(closed, thaiBasil);
+
+        assertThat(catalogSearchIndex.search("puff", 10)).extracting(CatalogSearchResult::getItemName)
+                .containsExactly("Curry Puff");
+        assertThat(catalogSearchIndex.search("thai", 10)).isEmpty();
+        assertThat(catalogSearchIndex.search("curry", 10))
+                .noneMatch(result -> result.getRestaurantId().equals(thaiBasil.getRestaurantId()));
+    }
+
+    @Test
+    void followsChangesCommittedThroughAnotherNode() {
+        // Another node renames an item and withdraws a restaurant, moving the versions in the same transactions
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            redCurry.setItemName("Massaman Curry");
+            menuItemRepository.save(redCurry);
+            catalogVersionRepository.increment("menu:" + thaiBasil.getRestaurantId());
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            curryHouse.setStatus(Restaurant.RestaurantStatus.WITHDRAW_REQ);
+            restaurantRepository.save(curryHouse);
+            catalogVersionRepository.increment("restaurant:" + curryHouse.getRestaurantId());
+        });
+        catalogSearchIndex.refresh();
+        assertThat(catalogSearchIndex.search("massaman", 10)).isEmpty();
+
+        catalogVersions.refresh();
+        catalogSearchIndex.refresh();
+
+        assertThat(catalogSearchIndex.search("massaman", 10)).extracting(CatalogSearchResult::getMenuItemId)
+                .containsExactly(redCurry.getMenuItemId());
+        assertThat(catalogSearchIndex.search("tikka", 10)).isEmpty();
+    }
+
+    private void reindex(Restaurant... restaurants) {
+        for (Restaurant restaurant : restaurants) {
+            catalogSearchIndex.restaurantChanged(restaurant.getRestaurantId());
+        }
+        catalogSearchIndex.refresh();
+    }
+
+    private Restaurant restaurant(String name, Restaurant.RestaurantStatus status) {
+        return restaurantRepository.save(Restaurant.builder().name(name).status(status).build());
+    }
+
+    private Integer category(Restaurant restaurant, String name) {
+        return menuCategoryRepository.save(MenuCategory.builder()
+                .restaurantId(restaurant.getRestaurantId()).categoryName(name).build()).getCategoryId();
+    }
+
+    private MenuItem item(Integer categoryId, String name, String description) {
+        return menuItemRepository.save(MenuItem.builder()
+                .categoryId(categoryId).itemName(name).description(description).price(new BigDecimal("10.00")).build());
+    }
+}
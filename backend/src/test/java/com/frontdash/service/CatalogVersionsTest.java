@@ -0,0 +1,256 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.request.MenuCategoryCreateRequest;
+import com.frontdash.dao.request.MenuItemCreateRequest;
+import com.frontdash.dao.request.MenuItemUpdateRequest;
+import com.frontdash.dao.request.MenuUpdateRequest;
+import com.frontdash.dao.request.RestaurantAddressUpdateRequest;
+import com.frontdash.dao.request.RestaurantContactUpdateRequest;
+import com.frontdash.dao.request.RestaurantProfileUpdateRequest;
+import com.frontdash.dao.request.RestaurantRegistrationRequest;
+import com.frontdash.dao.request.RestaurantWithdrawalRequest;
+import com.frontdash.dao.response.MenuItemResponse;
+import com.frontdash.entity.MenuCategory;
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.CatalogVersionRepository;
+import com.frontdash.repository.MenuCategoryRepository;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.RestaurantLoginRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({RestaurantService.class, AdminService.class, CatalogChangeNotifier.class, CatalogVersions.class,
+        MenuSnapshotCache.class, CatalogProperties.class})
+// ETags only move once the change commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogVersionsTest {
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RestaurantLoginRepository restaurantLoginRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private RestaurantListSnapshots restaurantListSnapshots;
+
+    @MockBean
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @MockBean
+    private OpenHoursIndex openHoursIndex;
+
+    @MockBean
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @MockBean
+    private ZipCentroids zipCentroids;
+
+    private Integer restaurantId;
+    private MenuItem burger;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(any())).thenReturn("encoded");
+        restaurantId = restaurant("Version Test", Restaurant.RestaurantStatus.ACTIVE);
+        Integer categoryId = menuCategoryRepository.save(MenuCategory.builder()
+                .restaurantId(restaurantId).categoryName("Mains").build()).getCategoryId();
+        burger = menuItemRepository.save(MenuItem.builder()
+                .categoryId(categoryId).itemName("Burger").price(new BigDecimal("9.99")).build());
+    }
+
+    // CatalogVersion rows are kept, since versions only ever move forward
+    @AfterEach
+    void tearDown() {
+        restaurantLoginRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        menuCategoryRepository.deleteAll();
+        restaurantRepository.deleteAll();
+        addressRepository.deleteAll();
+    }
+
+    @Test
+    void everyRestaurantChangeMovesTheListETag() {
+        assertChangesRestaurantsETag(() -> restaurantService.registerRestaurant(RestaurantRegistrationRequest.builder()
+                .name("Registered").contactPersonName("Pat Doe").street("1 Main St").city("Dallas")
+                .state("TX").zipCode("75201").build()));
+        assertChangesRestaurantsETag(() -> restaurantService.updateRestaurantProfile(restaurantId,
+                RestaurantProfileUpdateRequest.builder().name("Renamed").build()));
+        assertChangesRestaurantsETag(() -> restaurantService.updateContact(restaurantId,
+                RestaurantContactUpdateRequest.builder().phoneNumber("5550100").build()));
+        assertChangesRestaurantsETag(() -> restaurantService.updateAddress(restaurantId,
+                RestaurantAddressUpdateRequest.builder().street("2 Elm St").city("Dallas").state("TX")
+                        .zipCode("75202").build()));
+        assertChangesRestaurantsETag(() -> restaurantService.requestWithdrawal(
+                RestaurantWithdrawalRequest.builder().restaurantId(restaurantId).reason("Closing").build()));
+    }
+
+    @Test
+    void profileAndAddressChangesReachTheCatalogIndexes() {
+        List<Integer> changed = new CopyOnWriteArrayList<>();
+        catalogVersions.onRestaurantChanged(changed::add);
+
+        restaurantService.updateRestaurantProfile(restaurantId, RestaurantProfileUpdateRequest.builder().name("Renamed").build());
+        restaurantService.updateAddress(restaurantId, RestaurantAddressUpdateRequest.builder()
+                .street("2 Elm St").city("Dallas").state("TX").zipCode("75202").build());
+
+        assertThat(changed).containsExactly(restaurantId, restaurantId);
+    }
+
+    @Test
+    void everyAdminDecisionMovesTheListETag() {
+        Integer approved = restaurant("Approved", Restaurant.RestaurantStatus.NEW_REG);
+        Integer rejected = restaurant("Rejected", Restaurant.RestaurantStatus.NEW_REG);
+        Integer kept = restaurant("Kept", Restaurant.RestaurantStatus.WITHDRAW_REQ);
+        Integer withdrawn = restaurant("Withdrawn", Restaurant.RestaurantStatus.WITHDRAW_REQ);
+
+        assertChangesRestaurantsETag(() -> adminService.approveRegistration(approved));
+        assertChangesRestaurantsETag(() -> adminService.rejectRegistration(rejected));
+        assertChangesRestaurantsETag(() -> adminService.rejectWithdrawal(kept));
+        assertChangesRestaurantsETag(() -> adminService.approveWithdrawal(withdrawn));
+    }
+
+    @Test
+    void everyMenuChangeMovesTheMenuETag() {
+        assertChangesMenuETag(() -> restaurantService.createMenuItem(restaurantId,
+                MenuItemCreateRequest.builder().name("Fries").category("Sides").price(new BigDecimal("3.50")).build()));
+        assertChangesMenuETag(() -> restaurantService.updateMenuItem(restaurantId, burger.getMenuItemId(),
+                MenuItemUpdateRequest.builder().price(new BigDecimal("10.99")).build()));
+        assertChangesMenuETag(() -> restaurantService.updateMenuItem(restaurantId,
+                MenuUpdateRequest.builder().menuItemId(burger.getMenuItemId()).itemName("Cheeseburger").build()));
+        assertChangesMenuETag(() -> restaurantService.updateMenuItemAvailability(restaurantId, burger.getMenuItemId(), false));
+        assertChangesMenuETag(() -> restaurantService.createCategory(restaurantId,
+                MenuCategoryCreateRequest.builder().categoryName("Drinks").build()));
+        assertChangesMenuETag(() -> restaurantService.deleteMenuItem(restaurantId, burger.getMenuItemId()));
+    }
+
+    @Test
+    void removingARestaurantMovesItsMenuETag() {
+        Integer withdrawn = restaurant("Withdrawn", Restaurant.RestaurantStatus.WITHDRAW_REQ);
+        String before = catalogVersions.menuETag(withdrawn);
+
+        adminService.approveWithdrawal(withdrawn);
+
+        assertThat(catalogVersions.menuETag(withdrawn)).isNotEqualTo(before);
+    }
+
+    @Test
+    void leavesTheETagAloneWhenTheChangeRollsBack() {
+        String before = catalogVersions.menuETag(restaurantId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            restaurantService.updateMenuItemAvailability(restaurantId, burger.getMenuItemId(), false);
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalogVersions.menuETag(restaurantId)).isEqualTo(before);
+    }
+
+    @Test
+    void picksUpChangesCommittedThroughAnotherNode() {
+        List<MenuItemResponse> menu = restaurantService.getMenuItems(restaurantId);
+        String restaurantsETag = catalogVersions.restaurantsETag();
+        String menuETag = catalogVersions.menuETag(restaurantId);
+
+        // Another node renames the item and increments the versions in the same transaction
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            burger.setItemName("Cheeseburger");
+            menuItemRepository.save(burger);
+            catalogVersionRepository.increment("restaurants");
+            catalogVersionRepository.increment("menu:" + restaurantId);
+        });
+        assertThat(catalogVersions.menuETag(restaurantId)).isEqualTo(menuETag);
+        assertThat(restaurantService.getMenuItems(restaurantId)).isSameAs(menu);
+
+        catalogVersions.refresh();
+
+        assertThat(catalogVersions.restaurantsETag()).isNotEqualTo(restaurantsETag);
+        assertThat(catalogVersions.menuETag(restaurantId)).isNotEqualTo(menuETag);
+        assertThat(restaurantService.getMenuItems(restaurantId))
+                .extracting(MenuItemResponse::getItemName).containsExactly("Cheeseburger");
+    }
+
+    private void assertChangesRestaurantsETag(Runnable change) {
+        String before = catalogVersions.restaurantsETag();
+        change.run();
+        assertThat(catalogVersions.restaurantsETag()).isNotEqualTo(before);
+    }
+
+    private void assertChangesMenuETag(Runnable change) {
+        String before = catalogVersions.menuETag(restaurantId);
+        change.run();
+        assertThat(catalogVersions.menuETag(restaurantId)).isNotEqualTo(before);
+    }
+
+    private Integer restaurant(String name, Restaurant.RestaurantStatus status) {
+        return restaurantRepository.save(Restaurant.builder()
+                .name(name).contactPersonName("Sam Lee").status(status).build()).getRestaurantId();
+    }
+}
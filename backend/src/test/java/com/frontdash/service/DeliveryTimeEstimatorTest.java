@@ -0,0 +1,163 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.repository.OrderOutboxRepository;
+import com.frontdash.repository.OrdersRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryTimeEstimatorTest {
+
+    private static final int RESTAURANT_ID = 1;
+    // Mondays at noon and Tuesdays at six in the evening
+    private static final LocalDateTime MONDAY_NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final LocalDateTime TUESDAY_EVENING = LocalDateTime.of(2024, 1, 2, 18, 0);
+
+    @Mock
+    private OrdersRepository ordersRepository;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private OrderProperties orderProperties = new OrderProperties();
+
+    @InjectMocks
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    private long nextEventId = 1;
+
+    @BeforeEach
+    void setUp() {
+        orderProperties.setEtaMinSamples(5);
+        orderProperties.setEtaPercentile(50);
+    }
+
+    @Test
+    void rebuildReadsTheWatermarkInsideTheHistoryTransaction() {
+        when(orderOutboxRepository.findMaxEventId()).thenReturn(10L);
+        when(ordersRepository.streamDeliveryDurationsSince(any(), any())).thenReturn(Stream.of(
+                history(0), history(1), history(2), history(3), history(4)));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        InOrder inOrder = inOrder(transactionManager, orderOutboxRepository, ordersRepository);
+
+        deliveryTimeEstimator.init();
+
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(orderOutboxRepository).findMaxEventId();
+        inOrder.verify(ordersRepository).streamDeliveryDurationsSince(any(), any());
+        inOrder.verify(transactionManager).commit(any());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        assertThat(definition.getValue().getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, MONDAY_NOON)).isEqualTo(32);
+
+        // Event 10 was already counted by the rebuild, so five slow deliveries against five fast ones keep the median
+        nextEventId = 10;
+        for (int i = 0; i < 6; i++) {
+            deliveryTimeEstimator.onOrderEvent(delivered(MONDAY_NOON, 90));
+        }
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, MONDAY_NOON)).isEqualTo(32);
+    }
+
+    @Test
+    void aCorrectedDeliveryTimeReplacesTheFirstSample() {
+        deliveryTimeEstimator.init();
+        for (int i = 0; i < 5; i++) {
+            deliveryTimeEstimator.onOrderEvent(delivered(MONDAY_NOON, 20));
+        }
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, MONDAY_NOON)).isEqualTo(22);
+
+        // Three of the five were actually delivered after an hour; counting them twice would leave the median at 20
+        for (int i = 0; i < 3; i++) {
+            deliveryTimeEstimator.onOrderEvent(corrected(MONDAY_NOON, 20, 60));
+        }
+
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, MONDAY_NOON)).isEqualTo(62);
+    }
+
+    @Test
+    void fallsBackToTheRestaurantWideHistoryForQuietHours() {
+        deliveryTimeEstimator.init();
+        for (int i = 0; i < 5; i++) {
+            deliveryTimeEstimator.onOrderEvent(delivered(MONDAY_NOON, 30));
+            deliveryTimeEstimator.onOrderEvent(delivered(TUESDAY_EVENING, 60));
+        }
+        // Too few on their own for Wednesday morning
+        LocalDateTime wednesdayMorning = LocalDateTime.of(2024, 1, 3, 9, 0);
+        for (int i = 0; i < 4; i++) {
+            deliveryTimeEstimator.onOrderEvent(delivered(wednesdayMorning, 100));
+        }
+
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, MONDAY_NOON)).isEqualTo(32);
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, TUESDAY_EVENING)).isEqualTo(62);
+        // Median of all 14 deliveries
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, wednesdayMorning)).isEqualTo(62);
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, wednesdayMorning.plusDays(1))).isEqualTo(62);
+    }
+
+    @Test
+    void usesTheRequestedOrDefaultTimeWithoutHistory() {
+        deliveryTimeEstimator.init();
+        for (int i = 0; i < 4; i++) {
+            deliveryTimeEstimator.onOrderEvent(delivered(MONDAY_NOON, 30));
+        }
+        LocalDateTime requested = MONDAY_NOON.plusMinutes(25);
+
+        assertThat(deliveryTimeEstimator.estimateMinutes(RESTAURANT_ID, MONDAY_NOON)).isEqualTo(-1);
+        assertThat(deliveryTimeEstimator.estimate(RESTAURANT_ID, MONDAY_NOON, requested)).isEqualTo(requested);
+        assertThat(deliveryTimeEstimator.estimate(2, MONDAY_NOON, null)).isEqualTo(MONDAY_NOON.plusMinutes(45));
+    }
+
+    private static Object[] history(int week) {
+        LocalDateTime orderTime = MONDAY_NOON.minusWeeks(week);
+        return new Object[] {RESTAURANT_ID, orderTime, orderTime.plusMinutes(30)};
+    }
+
+    private OrderEvent delivered(LocalDateTime orderTime, int minutes) {
+        return event(orderTime, Orders.OrderStatus.OUT_FOR_DELIVERY, null, minutes);
+    }
+
+    private OrderEvent corrected(LocalDateTime orderTime, int previousMinutes, int minutes) {
+        return event(orderTime, Orders.OrderStatus.DELIVERED, orderTime.plusMinutes(previousMinutes), minutes);
+    }
+
+    private OrderEvent event(LocalDateTime orderTime, Orders.OrderStatus previous, LocalDateTime previousDeliveryTime,
+                             int minutes) {
+        return OrderEvent.builder()
+                .eventId(nextEventId++)
+                .type(OrderEventType.DELIVERED)
+                .orderId("FD0001")
+                .restaurantId(RESTAURANT_ID)
+                .previousStatus(previous)
+                .orderStatus(Orders.OrderStatus.DELIVERED)
+                .orderTime(orderTime)
+                .deliveryTime(orderTime.plusMinutes(minutes))
+                .previousDeliveryTime(previousDeliveryTime)
+                .build();
+    }
+}
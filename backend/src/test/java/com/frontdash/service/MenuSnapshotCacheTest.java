@@ -0,0 +1,198 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.request.MenuCategoryCreateRequest;
+import com.frontdash.dao.request.MenuItemUpdateRequest;
+import com.frontdash.dao.response.MenuItemResponse;
+import com.frontdash.entity.MenuCategory;
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.MenuCategoryRepository;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({RestaurantService.class, CatalogChangeNotifier.class, MenuSnapshotCache.class, CatalogProperties.class})
+// Snapshots are dropped after commit, so menu changes have to really commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuSnapshotCacheTest {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private CatalogVersions catalogVersions;
+
+    @MockBean
+    private RestaurantListSnapshots restaurantListSnapshots;
+
+    @MockBean
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @MockBean
+    private OpenHoursIndex openHoursIndex;
+
+    @MockBean
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @MockBean
+    private ZipCentroids zipCentroids;
+
+    private Statistics statistics;
+    private Integer restaurantId;
+    private MenuItem burger;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        restaurantId = restaurantRepository.save(Restaurant.builder()
+                .name("Snapshot Test").status(Restaurant.RestaurantStatus.ACTIVE).build()).getRestaurantId();
+        Integer mains = menuCategoryRepository.save(MenuCategory.builder()
+                .restaurantId(restaurantId).categoryName("Mains").build()).getCategoryId();
+        Integer sides = menuCategoryRepository.save(MenuCategory.builder()
+                .restaurantId(restaurantId).categoryName("Sides").build()).getCategoryId();
+        burger = menuItemRepository.save(MenuItem.builder()
+                .categoryId(mains).itemName("Burger").price(new BigDecimal("9.99")).build());
+        for (int i = 0; i < 10; i++) {
+            menuItemRepository.save(MenuItem.builder()
+                    .categoryId(i % 2 == 0 ? mains : sides).itemName("Item " + i).price(new BigDecimal("2.00")).build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        menuItemRepository.deleteAll();
+        menuCategoryRepository.deleteAll();
+        restaurantRepository.deleteAll();
+    }
+
+    @Test
+    void loadsTheMenuWithOneJoinQuery() {
+        statistics.clear();
+        List<MenuItemResponse> menu = restaurantService.getMenuItems(restaurantId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(menu).hasSize(11);
+        assertThat(menu).extracting(MenuItemResponse::getCategoryName).containsOnly("Mains", "Sides");
+        assertThat(menu).extracting(MenuItemResponse::getCategoryId).isSorted();
+    }
+
+    @Test
+    void servesRepeatReadsFromTheSnapshot() {
+        List<MenuItemResponse> first = restaurantService.getMenuItems(restaurantId);
+        statistics.clear();
+
+        assertThat(restaurantService.getMenuItems(restaurantId)).isSameAs(first);
+        assertThat(restaurantService.getMenuPayload(restaurantId)).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void dropsTheSnapshotOnlyOnceTheChangeCommits() {
+        restaurantService.getMenuItems(restaurantId);
+        MenuItemUpdateRequest update = MenuItemUpdateRequest.builder().price(new BigDecimal("12.50")).build();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            restaurantService.updateMenuItem(restaurantId, burger.getMenuItemId(), update);
+            // Not committed yet, so readers still get the old menu
+            assertThat(price(restaurantService.getMenuItems(restaurantId))).isEqualByComparingTo("9.99");
+        });
+
+        assertThat(price(restaurantService.getMenuItems(restaurantId))).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void keepsTheSnapshotWhenTheChangeRollsBack() {
+        List<MenuItemResponse> cached = restaurantService.getMenuItems(restaurantId);
+        MenuItemUpdateRequest update = MenuItemUpdateRequest.builder().price(new BigDecimal("12.50")).build();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            restaurantService.updateMenuItem(restaurantId, burger.getMenuItemId(), update);
+            status.setRollbackOnly();
+        });
+
+        assertThat(restaurantService.getMenuItems(restaurantId)).isSameAs(cached);
+    }
+
+    @Test
+    void everyMenuChangeDropsTheSnapshot() {
+        List<MenuItemResponse> menu = restaurantService.getMenuItems(restaurantId);
+
+        restaurantService.updateMenuItemAvailability(restaurantId, burger.getMenuItemId(), false);
+        menu = assertReloaded(menu);
+        assertThat(menu).filteredOn(item -> item.getMenuItemId().equals(burger.getMenuItemId()))
+                .extracting(MenuItemResponse::getAvailability).containsExactly("UNAVAILABLE");
+
+        restaurantService.createCategory(restaurantId, MenuCategoryCreateRequest.builder().categoryName("Drinks").build());
+        menu = assertReloaded(menu);
+
+        restaurantService.deleteMenuItem(restaurantId, burger.getMenuItemId());
+        menu = assertReloaded(menu);
+        assertThat(menu).hasSize(10);
+    }
+
+    private List<MenuItemResponse> assertReloaded(List<MenuItemResponse> previous) {
+        List<MenuItemResponse> current = restaurantService.getMenuItems(restaurantId);
+        assertThat(current).isNotSameAs(previous);
+        return current;
+    }
+
+    private BigDecimal price(List<MenuItemResponse> menu) {
+        return menu.stream()
+                .filter(item -> item.getMenuItemId().equals(burger.getMenuItemId()))
+                .findFirst().orElseThrow().getPrice();
+    }
+}
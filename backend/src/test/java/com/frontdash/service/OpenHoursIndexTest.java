@@ -0,0 +1,173 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.frontdash.entity.OperatingHour;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.OperatingHourRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+@ExtendWith(MockitoExtension.class)
+class OpenHoursIndexTest {
+
+    // 2024-01-01 is a Monday
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private OperatingHourRepository operatingHourRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @InjectMocks
+    private OpenHoursIndex openHoursIndex;
+
+    private final Map<Integer, Restaurant> restaurants = new TreeMap<>();
+    private final List<OperatingHour> hours = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(restaurantRepository.findByStatus(Restaurant.RestaurantStatus.ACTIVE)).thenAnswer(invocation ->
+                restaurants.values().stream().filter(r -> r.getStatus() == Restaurant.RestaurantStatus.ACTIVE).toList());
+        when(operatingHourRepository.findAll()).thenAnswer(invocation -> List.copyOf(hours));
+        // Only read by refreshes
+        lenient().when(restaurantRepository.findById(anyInt()))
+                .thenAnswer(invocation -> Optional.ofNullable(restaurants.get(invocation.<Integer>getArgument(0))));
+        lenient().when(operatingHourRepository.findByRestaurantId(anyInt())).thenAnswer(invocation ->
+                hours.stream().filter(h -> h.getRestaurantId().equals(invocation.getArgument(0))).toList());
+    }
+
+    @Test
+    void overnightHoursRunIntoTheNextDay() {
+        restaurant(1, "Friday", "18:00", "02:00");
+        openHoursIndex.init();
+
+        assertThat(openHoursIndex.openAt(at(4, "17:59"))).isEmpty();
+        assertThat(openHoursIndex.openAt(at(4, "18:00"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(4, "23:59"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(5, "01:59"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(5, "02:00"))).isEmpty();
+    }
+
+    @Test
+    void sundayNightWrapsIntoMonday() {
+        restaurant(1, "Sun", "20:00", "03:00");
+        openHoursIndex.init();
+
+        assertThat(openHoursIndex.openAt(at(6, "23:30"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(0, "00:00"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(0, "02:59"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(0, "03:00"))).isEmpty();
+        assertThat(openHoursIndex.openAt(at(6, "19:59"))).isEmpty();
+    }
+
+    @Test
+    void aCloseAt2359MeansMidnight() {
+        restaurant(1, "MONDAY", "09:00", "23:59");
+        restaurant(2, "sunday", "10:00", "23:59");
+        openHoursIndex.init();
+
+        assertThat(openHoursIndex.openAt(at(0, "23:59"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(1, "00:00"))).isEmpty();
+        // Sunday closes at midnight rather than wrapping round the whole week
+        assertThat(openHoursIndex.openAt(at(6, "23:59"))).containsExactly(2);
+        assertThat(openHoursIndex.openAt(at(0, "00:00"))).isEmpty();
+    }
+
+    @Test
+    void equalOpenAndCloseTimesMeanOpenAroundTheClock() {
+        restaurant(1, "Wednesday", "00:00", "00:00");
+        restaurant(2, "Wednesday", "08:00", "08:00");
+        restaurant(3, "Wednesday", null, null);
+        openHoursIndex.init();
+
+        assertThat(openHoursIndex.openAt(at(2, "00:00"))).containsExactly(1);
+        assertThat(openHoursIndex.openAt(at(2, "12:00"))).containsExactly(1, 2);
+        assertThat(openHoursIndex.openAt(at(2, "23:59"))).containsExactly(1, 2);
+        assertThat(openHoursIndex.openAt(at(3, "07:59"))).containsExactly(2);
+        assertThat(openHoursIndex.openAt(at(3, "08:00"))).isEmpty();
+    }
+
+    @Test
+    void reusesTheSlotOfARemovedRestaurant() {
+        IntStream.rangeClosed(1, 64).forEach(id -> restaurant(id, "Tue", "09:00", "17:00"));
+        openHoursIndex.init();
+
+        // Withdrawn and deleted
+        restaurants.remove(10);
+        openHoursIndex.restaurantChanged(10);
+        openHoursIndex.refresh();
+        restaurant(100, "Tue", "12:00", "13:00");
+        openHoursIndex.restaurantChanged(100);
+        openHoursIndex.refresh();
+
+        assertThat(openHoursIndex.openAt(at(1, "10:00"))).hasSize(63).doesNotContain(10, 100);
+        assertThat(openHoursIndex.openAt(at(1, "12:30"))).hasSize(64).contains(100).doesNotContain(10).isSorted();
+        // Restaurant 100 took the freed slot, so the bitmap still fits one word per minute
+        assertThat(words()).isEqualTo(1);
+    }
+
+    @Test
+    void growsTheBitmapPastSixtyFourRestaurants() {
+        restaurant(1, "Thu", "09:00", "17:00");
+        openHoursIndex.init();
+
+        for (int id = 2; id <= 150; id++) {
+            // Even ids open in the morning, odd ids in the afternoon
+            restaurant(id, "Thu", id % 2 == 0 ? "08:00" : "13:00", id % 2 == 0 ? "12:00" : "18:00");
+            openHoursIndex.restaurantChanged(id);
+        }
+        openHoursIndex.refresh();
+
+        assertThat(words()).isEqualTo(4);
+        assertThat(openHoursIndex.openAt(at(3, "10:00")))
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 150).filter(id -> id == 1 || id % 2 == 0).boxed().toList());
+        assertThat(openHoursIndex.openAt(at(3, "17:30")))
+                .containsExactlyElementsOf(IntStream.rangeClosed(3, 150).filter(id -> id % 2 == 1).boxed().toList());
+        assertThat(openHoursIndex.openAt(at(3, "18:00"))).isEmpty();
+    }
+
+    private int words() {
+        long[][] openBits = (long[][]) ReflectionTestUtils.getField(openHoursIndex, "openBits");
+        return openBits[0].length;
+    }
+
+    // Day 0 is Monday
+    private static LocalDateTime at(int day, String time) {
+        return MONDAY.plusDays(day).with(LocalTime.parse(time));
+    }
+
+    private void restaurant(int restaurantId, String weekDay, String open, String close) {
+        restaurants.put(restaurantId, Restaurant.builder()
+                .restaurantId(restaurantId).status(Restaurant.RestaurantStatus.ACTIVE).build());
+        hours.add(OperatingHour.builder()
+                .restaurantId(restaurantId)
+                .weekDay(weekDay)
+                .openTime(open == null ? null : LocalTime.parse(open))
+                .closeTime(close == null ? null : LocalTime.parse(close))
+                .build());
+    }
+}
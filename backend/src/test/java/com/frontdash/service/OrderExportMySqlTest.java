@@ -0,0 +1,171 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.frontdash.entity.Orders;
+import com.frontdash.repository.BulkOrderRows;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exports from OrdersArchive and Orders on MySQL, where both are read through Connector/J
+ * streaming result sets on the export's one connection, and checks that a large export
+ * keeps the persistence context and the heap bounded.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(OrderExportService.class)
+// The export runs in its own read-only transaction over committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportMySqlTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int ARCHIVED_ORDERS = 2_500;
+    private static final int LIVE_ORDERS = 1_500;
+    // Pass -Dbenchmark.export-orders=10000000 to stream ten million rows
+    private static final long LARGE_EXPORT_ORDERS = Long.getLong("benchmark.export-orders", 200_000);
+    private static final long HEAP_GROWTH_LIMIT = 64L * 1024 * 1024;
+
+    @Container
+    static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        BulkOrderRows.insert(jdbcTemplate, "OrdersArchive", 0, ARCHIVED_ORDERS, START, Orders.OrderStatus.DELIVERED, 0);
+        BulkOrderRows.insert(jdbcTemplate, "Orders", ARCHIVED_ORDERS, LIVE_ORDERS, START, Orders.OrderStatus.PENDING, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM Orders");
+        jdbcTemplate.update("DELETE FROM OrdersArchive");
+    }
+
+    @Test
+    void exportsArchivedThenLiveOrdersAsCsv() {
+        List<String> lines = export(OrderExportService.ExportFormat.CSV);
+
+        assertThat(lines).hasSize(1 + ARCHIVED_ORDERS + LIVE_ORDERS);
+        assertThat(lines.get(1)).startsWith("FD00000000,").contains(",DELIVERED,");
+        assertThat(lines.get(ARCHIVED_ORDERS)).startsWith("FD00002499,").contains(",DELIVERED,");
+        assertThat(lines.get(ARCHIVED_ORDERS + 1)).startsWith("FD00002500,").contains(",PENDING,");
+        assertThat(lines.get(lines.size() - 1)).startsWith("FD00003999,");
+    }
+
+    @Test
+    void exportsBothTablesAsNdjsonWithinTheRange() {
+        // Minutes 2000-2999 straddle the archive and live tables
+        List<String> lines = export(OrderExportService.ExportFormat.NDJSON,
+                START.plusMinutes(2000), START.plusMinutes(3000));
+
+        assertThat(lines).hasSize(1000);
+        assertThat(lines.get(0)).contains("\"orderId\":\"FD00002000\"");
+        assertThat(lines.get(999)).contains("\"orderId\":\"FD00002999\"");
+        assertThat(lines).filteredOn(line -> line.contains("\"orderStatus\":\"DELIVERED\"")).hasSize(500);
+    }
+
+    @Test
+    void streamsALargeExportInBoundedMemory() {
+        BulkOrderRows.insert(jdbcTemplate, "Orders", ARCHIVED_ORDERS + LIVE_ORDERS, LARGE_EXPORT_ORDERS, START,
+                Orders.OrderStatus.DELIVERED, 0);
+        MemorySampler out = new MemorySampler();
+
+        orderExportService.export(START, START.plusYears(30), OrderExportService.ExportFormat.CSV, out);
+
+        assertThat(out.lines).isEqualTo(1 + ARCHIVED_ORDERS + LIVE_ORDERS + LARGE_EXPORT_ORDERS);
+        assertThat(out.maxManagedEntities).isPositive().isLessThanOrEqualTo(OrderExportService.CHUNK_SIZE);
+        assertThat(out.maxHeapGrowth).isLessThan(HEAP_GROWTH_LIMIT);
+    }
+
+    private List<String> export(OrderExportService.ExportFormat format) {
+        return export(format, START, START.plusYears(1));
+    }
+
+    private List<String> export(OrderExportService.ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(from, to, format, out);
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    /**
+     * Discards the export while counting its lines. On every buffer it records how many entities the
+     * export's session holds, and every 100,000 lines how far the heap has grown after a full GC.
+     */
+    private class MemorySampler extends OutputStream {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baseline = usedHeapAfterGc();
+        long lines;
+        int maxManagedEntities;
+        long maxHeapGrowth;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % 100_000 == 0) {
+                maxHeapGrowth = Math.max(maxHeapGrowth, usedHeapAfterGc() - baseline);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+            // The shared EntityManager resolves to the one bound to the export's transaction
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManagedEntities = Math.max(maxManagedEntities, managed);
+        }
+
+        private long usedHeapAfterGc() {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.OrdersArchive;
+import com.frontdash.repository.OrdersArchiveRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Mock
+    private OrdersRepository ordersRepository;
+
+    @Mock
+    private OrdersArchiveRepository ordersArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @InjectMocks
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService.init();
+        OrdersArchive archived = OrdersArchive.builder()
+                .orderId("FD0001").restaurantId(1).customerName("Archived Customer").addressId(1)
+                .orderTime(DAY.plusHours(1)).orderStatus(Orders.OrderStatus.DELIVERED)
+                .subtotal(new BigDecimal("10.00")).tips(new BigDecimal("1.00")).totalAmount(new BigDecimal("12.50"))
+                .deliveryTime(DAY.plusHours(2)).archivedAt(DAY.plusDays(100))
+                .build();
+        Orders live = Orders.builder()
+                .orderId("FD0002").restaurantId(1).customerName("Doe, \"Jo\"").customerPhone("6175550100").addressId(2)
+                .orderTime(DAY.plusHours(3)).orderStatus(Orders.OrderStatus.PENDING)
+                .subtotal(new BigDecimal("20.00")).tips(new BigDecimal("0.00")).totalAmount(new BigDecimal("22.50"))
+                .build();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(ordersArchiveRepository.streamByOrderTimeRange(DAY, DAY.plusDays(1)))
+                .thenAnswer(invocation -> Stream.of(archived));
+        lenient().when(ordersRepository.streamByOrderTimeRange(DAY, DAY.plusDays(1)))
+                .thenAnswer(invocation -> Stream.of(live));
+    }
+
+    @Test
+    void ndjsonWritesOneOrderPerLineArchiveFirst() throws Exception {
+        String body = export(OrderExportService.ExportFormat.NDJSON);
+
+        assertThat(body).endsWith("\n");
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        assertThat(rows).extracting(row -> row.get("orderId").asText()).containsExactly("FD0001", "FD0002");
+        assertThat(rows.get(0).get("orderStatus").asText()).isEqualTo("DELIVERED");
+        assertThat(rows.get(1).get("customerName").asText()).isEqualTo("Doe, \"Jo\"");
+        assertThat(rows.get(1).get("totalAmount").decimalValue()).isEqualByComparingTo("22.50");
+    }
+
+    @Test
+    void csvWritesHeaderAndQuotesFields() {
+        String body = export(OrderExportService.ExportFormat.CSV);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("order_id,restaurant_id,customer_name,customer_phone,address_id,"
+                + "order_time,estimated_delivery_time,delivery_time,order_status,assigned_driver_id,subtotal,tips,total_amount");
+        assertThat(lines[1]).isEqualTo("FD0001,1,Archived Customer,,1,2024-03-01T01:00,,2024-03-01T02:00,DELIVERED,,10.00,1.00,12.50");
+        assertThat(lines[2]).isEqualTo("FD0002,1,\"Doe, \"\"Jo\"\"\",6175550100,2,2024-03-01T03:00,,,PENDING,,20.00,0.00,22.50");
+    }
+
+    @Test
+    void emptyRangeWritesNoRows() {
+        when(ordersArchiveRepository.streamByOrderTimeRange(any(), any())).thenReturn(Stream.empty());
+        when(ordersRepository.streamByOrderTimeRange(any(), any())).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(DAY.minusDays(7), DAY.minusDays(6), OrderExportService.ExportFormat.NDJSON, out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void clearsThePersistenceContextBetweenChunks() {
+        List<Orders> many = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            many.add(Orders.builder().orderId(OrderIdAllocator.format(i)).customerName("C")
+                    .orderTime(DAY.plusSeconds(i)).build());
+        }
+        when(ordersArchiveRepository.streamByOrderTimeRange(any(), any())).thenReturn(Stream.empty());
+        when(ordersRepository.streamByOrderTimeRange(any(), any())).thenReturn(many.stream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(DAY, DAY.plusDays(1), OrderExportService.ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).hasSize(2501);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void closesTheArchiveStreamBeforeQueryingOrders() {
+        AtomicBoolean archiveClosed = new AtomicBoolean(false);
+        when(ordersArchiveRepository.streamByOrderTimeRange(any(), any()))
+                .thenReturn(Stream.<OrdersArchive>empty().onClose(() -> archiveClosed.set(true)));
+        when(ordersRepository.streamByOrderTimeRange(any(), any())).thenAnswer(invocation -> {
+            assertThat(archiveClosed).isTrue();
+            return Stream.empty();
+        });
+
+        orderExportService.export(DAY, DAY.plusDays(1), OrderExportService.ExportFormat.CSV, new ByteArrayOutputStream());
+
+        verify(ordersRepository).streamByOrderTimeRange(any(), any());
+    }
+
+    @Test
+    void rejectsAnInvertedRange() {
+        assertThatThrownBy(() -> orderExportService.export(DAY, DAY, OrderExportService.ExportFormat.CSV,
+                new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String export(OrderExportService.ExportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(DAY, DAY.plusDays(1), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
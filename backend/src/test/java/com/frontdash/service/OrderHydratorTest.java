@@ -0,0 +1,122 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.Driver;
+import com.frontdash.entity.MenuCategory;
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.OrderItem;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.Restaurant;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(OrderHydrator.class)
+class OrderHydratorTest {
+
+    @Autowired
+    private OrderHydrator orderHydrator;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Orders> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int r = 0; r < 3; r++) {
+            Address address = entityManager.persist(Address.builder()
+                    .streetAddress(r + " Main St").city("Boston").state("MA").zipCode("02108").build());
+            Restaurant restaurant = entityManager.persist(Restaurant.builder()
+                    .name("Restaurant " + r).addressId(address.getAddressId())
+                    .status(Restaurant.RestaurantStatus.ACTIVE).build());
+            MenuCategory category = entityManager.persist(MenuCategory.builder()
+                    .restaurantId(restaurant.getRestaurantId()).categoryName("Mains").build());
+            MenuItem burger = entityManager.persist(MenuItem.builder()
+                    .categoryId(category.getCategoryId()).itemName("Burger").price(new BigDecimal("9.50")).build());
+            MenuItem fries = entityManager.persist(MenuItem.builder()
+                    .categoryId(category.getCategoryId()).itemName("Fries").price(new BigDecimal("3.00")).build());
+            Driver driver = entityManager.persist(Driver.builder()
+                    .firstname("Driver").lastname(String.valueOf(r))
+                    .availabilityStatus(Driver.AvailabilityStatus.BUSY).build());
+
+            for (int o = 0; o < 10; o++) {
+                String orderId = OrderIdAllocator.format(r * 100 + o + 1);
+                orders.add(entityManager.persist(Orders.builder()
+                        .orderId(orderId)
+                        .restaurantId(restaurant.getRestaurantId())
+                        .customerName("Customer " + o)
+                        .addressId(address.getAddressId())
+                        .assignedDriverId(o % 2 == 0 ? driver.getDriverId() : null)
+                        .subtotal(new BigDecimal("12.50"))
+                        .tips(BigDecimal.ONE)
+                        .totalAmount(new BigDecimal("15.00"))
+                        .orderTime(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(o))
+                        .build()));
+                entityManager.persist(new OrderItem(orderId, burger.getMenuItemId(), 1));
+                entityManager.persist(new OrderItem(orderId, fries.getMenuItemId(), 2));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void hydratesABatchWithOneQueryPerRelatedTable() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<OrderResponse> responses = orderHydrator.hydrate(orders);
+
+        // Order items, menu items with categories, restaurants, addresses and drivers
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(responses).hasSize(30);
+        assertThat(responses).extracting(OrderResponse::getOrderId)
+                .containsExactlyElementsOf(orders.stream().map(Orders::getOrderId).toList());
+        OrderResponse first = responses.get(0);
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(first.getRestaurant().getName()).isEqualTo("Restaurant 0");
+        assertThat(first.getDeliveryAddress().getZipCode()).isEqualTo("02108");
+        assertThat(first.getAssignedDriver()).isNotNull();
+        assertThat(responses.get(1).getAssignedDriver()).isNull();
+        assertThat(first.getServiceCharge()).isEqualByComparingTo("1.50");
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithTheBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        orderHydrator.hydrate(orders.subList(0, 1));
+        long single = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        orderHydrator.hydrate(orders);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(single);
+    }
+}
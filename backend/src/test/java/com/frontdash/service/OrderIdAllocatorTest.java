@@ -0,0 +1,110 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.repository.OrderIdBlockRepository;
+
+@DataJpaTest(properties = "orders.id-block-size=100")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderIdAllocator.class, OrderProperties.class})
+// Reservations commit in their own transactions, so the test must not hold one open
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdAllocatorTest {
+
+    // 100,000 ids from four simulated nodes, four threads each
+    private static final int NODES = 4;
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 6_250;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private OrderIdAllocator orderIdAllocator;
+
+    @Autowired
+    private OrderIdBlockRepository orderIdBlockRepository;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @AfterEach
+    void tearDown() {
+        orderIdBlockRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentAllocationsNeverRepeatAnId() throws Exception {
+        // Extra allocators stand in for other backend nodes sharing the database
+        List<OrderIdAllocator> nodes = new ArrayList<>(List.of(orderIdAllocator));
+        while (nodes.size() < NODES) {
+            nodes.add(beanFactory.createBean(OrderIdAllocator.class));
+        }
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            OrderIdAllocator allocator = nodes.get(t % NODES);
+            boolean batches = t % 4 == 3;
+            tasks.add(() -> {
+                start.await();
+                List<String> ids = new ArrayList<>();
+                while (ids.size() < IDS_PER_THREAD) {
+                    if (batches) {
+                        ids.addAll(allocator.nextOrderIds(BATCH_SIZE));
+                    } else {
+                        ids.add(allocator.nextOrderId());
+                    }
+                }
+                return ids;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<String> all = new ArrayList<>();
+        try {
+            for (Future<List<String>> result : executor.invokeAll(tasks)) {
+                all.addAll(result.get());
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        }
+
+        Set<String> unique = new HashSet<>(all);
+        assertThat(all).hasSize(THREADS * IDS_PER_THREAD);
+        assertThat(unique).hasSameSizeAs(all);
+        assertThat(all).allMatch(id -> id.matches("FD\\d{4,}"));
+        assertThat(orderIdBlockRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void batchIdsAreConsecutive() {
+        List<String> ids = orderIdAllocator.nextOrderIds(3);
+
+        long first = Long.parseLong(ids.get(0).substring(2));
+        assertThat(ids).containsExactly(OrderIdAllocator.format(first),
+                OrderIdAllocator.format(first + 1), OrderIdAllocator.format(first + 2));
+    }
+}
@@ -0,0 +1,175 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderItemRequest;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.entity.OrderIdempotencyKey;
+import com.frontdash.repository.OrderIdempotencyKeyRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderIdempotencyService.class, OrderProperties.class})
+// Keys are stored in the order's own transaction and must be visible to the racing requests
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyServiceTest {
+
+    private static final int REQUESTS = 8;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @SpyBean
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @MockBean
+    private OrderService orderService;
+
+    private final AtomicInteger createdOrders = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+
+    @BeforeEach
+    void setUp() {
+        when(orderService.createOrder(any())).thenAnswer(invocation -> order(createdOrders.incrementAndGet()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        orderIdempotencyKeyRepository.deleteAll();
+        orderProperties.setIdempotencyTtlSeconds(86400);
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCreateOneOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            // Holds the first request open so the others arrive while it is in flight
+            release.await(10, TimeUnit.SECONDS);
+            return order(createdOrders.incrementAndGet());
+        }).when(orderService).createOrder(any());
+
+        List<Future<OrderResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(executor.submit(() -> orderIdempotencyService.createOrder("concurrent", request(1))));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<OrderResponse> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS).getOrderId()).isEqualTo("FD0001");
+        }
+        verify(orderService, times(1)).createOrder(any());
+        assertThat(orderIdempotencyKeyRepository.findById("concurrent"))
+                .hasValueSatisfying(key -> assertThat(key.getOrderId()).isEqualTo("FD0001"));
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentOrder() {
+        orderIdempotencyService.createOrder("reused", request(1));
+
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder("reused", request(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Also when the key is only known from the table, e.g. stored by another node
+        orderIdempotencyKeyRepository.save(OrderIdempotencyKey.builder()
+                .idempotencyKey("stored").requestHash("0".repeat(64)).orderId("FD0099")
+                .createdAt(LocalDateTime.now()).build());
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder("stored", request(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    void replaysTheOrderStoredByTheNodeThatWonTheKey() {
+        OrderResponse created = orderIdempotencyService.createOrder("raced", request(1));
+        when(orderService.getOrderById("FD0001")).thenReturn(created);
+        // A second node found the key missing just before the first committed it, so its own insert fails
+        OrderIdempotencyService otherNode = beanFactory.createBean(OrderIdempotencyService.class);
+        OrderIdempotencyKey stored = orderIdempotencyKeyRepository.findById("raced").orElseThrow();
+        doReturn(Optional.empty(), Optional.of(stored)).when(orderIdempotencyKeyRepository).findById("raced");
+
+        OrderResponse replayed = otherNode.createOrder("raced", request(1));
+
+        assertThat(replayed.getOrderId()).isEqualTo("FD0001");
+        verify(orderService, times(1)).createOrder(any());
+        verify(orderIdempotencyKeyRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void keysExpireAfterTheirTtl() throws Exception {
+        orderProperties.setIdempotencyTtlSeconds(0);
+        orderIdempotencyService.createOrder("expiring", request(1));
+        when(orderService.getOrderById("FD0001")).thenReturn(order(1));
+
+        // Gone from memory at once, but still answered from the table until the purge
+        assertThat(orderIdempotencyService.createOrder("expiring", request(1)).getOrderId()).isEqualTo("FD0001");
+        verify(orderService, never()).getOrderById("FD0002");
+
+        Thread.sleep(10);
+        orderIdempotencyService.purgeExpired();
+
+        assertThat(orderIdempotencyKeyRepository.findById("expiring")).isEmpty();
+        assertThat(orderIdempotencyService.createOrder("expiring", request(2)).getOrderId()).isEqualTo("FD0002");
+        verify(orderService, times(2)).createOrder(any());
+    }
+
+    private static OrderRequest request(int menuItemId) {
+        return OrderRequest.builder()
+                .restaurantId(1)
+                .customerName("Pat Doe")
+                .items(List.of(OrderItemRequest.builder().menuItemId(menuItemId).quantity(1).build()))
+                .tips(new BigDecimal("2.00"))
+                .build();
+    }
+
+    private static OrderResponse order(int number) {
+        return OrderResponse.builder().orderId(OrderIdAllocator.format(number)).build();
+    }
+}
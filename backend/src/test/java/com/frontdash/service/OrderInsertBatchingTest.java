@@ -0,0 +1,212 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderItemRequest;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.entity.OrderItem;
+import com.frontdash.entity.Orders;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// SQL logging would dominate the orders/sec figures
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.frontdash.service.OrderInsertBatchingTest$RecordingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderHydrator.class, OrderProperties.class})
+class OrderInsertBatchingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderInsertBatchingTest.class);
+
+    private static final int WARMUP_ORDERS = 50;
+    private static final int MEASURED_ORDERS = 100;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderHydrator orderHydrator;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OrderIdAllocator orderIdAllocator;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockBean
+    private OrderIntakeService orderIntakeService;
+
+    @MockBean
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // V1__baseline.sql indexes OrderItem by order; the H2 schema generated from the entities does not,
+        // which would turn reading an order's items back into a scan of every item written so far
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_order_item_order ON OrderItem(order_id)");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        AtomicInteger ids = new AtomicInteger();
+        when(orderIdAllocator.nextOrderId()).thenAnswer(invocation -> OrderIdAllocator.format(ids.incrementAndGet()));
+        when(pricingEngine.quote(eq(1), anyMap(), any()))
+                .thenReturn(new PricingEngine.PriceQuote(1000, 150, 0, 1150));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void writesAnOrderWithTwoInsertStatementsWhateverTheCartSize(int items) {
+        long before = statementsPerOrder(() -> createOrderUnbatched(items));
+        long after = statementsPerOrder(() -> orderService.createOrder(request(items)));
+
+        // Both read the order's items, menu items and restaurant back to build the response. Before
+        // that, the old path ran a SELECT and an INSERT for the order and for every item; now it is
+        // one order INSERT and one batched item INSERT.
+        assertThat(before).isEqualTo(2 + 2L * items + 3);
+        assertThat(after).isEqualTo(2 + 3);
+        assertThat(orderItemRepository.count()).isEqualTo(2L * items);
+
+        double beforeRate = ordersPerSecond(() -> createOrderUnbatched(items));
+        double afterRate = ordersPerSecond(() -> orderService.createOrder(request(items)));
+        logger.info("Cart of {}: {} -> {} statements per order, {} -> {} orders/sec (H2)",
+                items, before, after, Math.round(beforeRate), Math.round(afterRate));
+    }
+
+    @Test
+    void insertsRowsWithoutSelectingThemFirst() {
+        RecordingInspector.statements.clear();
+        statistics.clear();
+        orderService.createOrder(request(40));
+        entityManager.flush();
+
+        // One order and 40 items, written as one order INSERT and one batched item INSERT
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(41);
+        assertThat(RecordingInspector.statements)
+                .filteredOn(sql -> sql.startsWith("insert"))
+                .containsExactly("insert into Orders", "insert into OrderItem");
+        // Nothing is read from Orders or OrderItem to decide between INSERT and UPDATE
+        assertThat(RecordingInspector.statements).noneMatch(sql -> sql.startsWith("select") && sql.contains("from Orders"));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private long statementsPerOrder(Runnable create) {
+        RecordingInspector.statements.clear();
+        statistics.clear();
+        create.run();
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private double ordersPerSecond(Runnable create) {
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            statementsPerOrder(create);
+        }
+        // H2 looks OrderItem rows up by their composite key with a scan, so keep the tables small
+        jdbcTemplate.update("DELETE FROM OrderItem");
+        jdbcTemplate.update("DELETE FROM Orders");
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            statementsPerOrder(create);
+        }
+        return MEASURED_ORDERS * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    // How an order was written before batching: every row merged (a SELECT, then an INSERT),
+    // and each INSERT sent on its own
+    private void createOrderUnbatched(int items) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(1);
+        try {
+            String orderId = orderIdAllocator.nextOrderId();
+            Orders order = Orders.builder().orderId(orderId).restaurantId(1).customerName("Customer")
+                    .orderTime(LocalDateTime.now()).subtotal(new BigDecimal("10.00")).tips(BigDecimal.ZERO)
+                    .totalAmount(new BigDecimal("11.50")).build();
+            order.setNewEntity(false);
+            Orders saved = ordersRepository.save(order);
+            for (int i = 1; i <= items; i++) {
+                OrderItem item = new OrderItem(orderId, i, 1);
+                item.setNewEntity(false);
+                orderItemRepository.save(item);
+            }
+            entityManager.flush();
+            orderHydrator.hydrate(saved);
+        } finally {
+            session.setJdbcBatchSize(null);
+        }
+    }
+
+    // Sees every statement once when it is prepared; a JDBC batch is prepared once for all its rows
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.trim().replaceAll("\\s+", " ");
+            statements.add(normalized.startsWith("insert")
+                    ? normalized.substring(0, normalized.indexOf(' ', "insert into ".length()))
+                    : normalized);
+            return sql;
+        }
+    }
+
+    private static OrderRequest request(int items) {
+        List<OrderItemRequest> cart = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            cart.add(new OrderItemRequest(i, 1));
+        }
+        return OrderRequest.builder().restaurantId(1).customerName("Customer").items(cart).build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderItemRequest;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.Orders;
+import com.frontdash.exception.IntakeQueueFullException;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderIntakeService.class, OrderHydrator.class, OrderProperties.class})
+// The intake writer inserts from its own thread and commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIntakeServiceTest {
+
+    private static final int RESTAURANT_ID = 1;
+    private static final long WAIT_MS = 10_000;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @SpyBean
+    private AddressRepository addressRepository;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private OrderIdAllocator orderIdAllocator;
+
+    @MockBean
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    @TempDir
+    private Path journalDir;
+
+    private final List<OrderIntakeService> nodes = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private Integer addressId;
+
+    @BeforeEach
+    void setUp() {
+        when(orderIdAllocator.nextOrderId()).thenAnswer(invocation -> OrderIdAllocator.format(ids.incrementAndGet()));
+        when(pricingEngine.quote(any(), anyMap(), any())).thenReturn(new PricingEngine.PriceQuote(1000, 100, 0, 1100));
+        addressId = addressRepository.save(Address.builder()
+                .streetAddress("1 Main Street").city("Dallas").state("TX").zipCode("75201").build()).getAddressId();
+        orderProperties.setIntakeEnabled(true);
+        orderProperties.setIntakeJournalPath(journalDir.resolve("order-intake.journal").toString());
+        orderProperties.setIntakeQueueCapacity(100);
+        orderProperties.setIntakeBatchSize(200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(beanFactory::destroyBean);
+        OrderProperties defaults = new OrderProperties();
+        orderProperties.setIntakeEnabled(defaults.isIntakeEnabled());
+        orderProperties.setIntakeJournalPath(defaults.getIntakeJournalPath());
+        orderProperties.setIntakeQueueCapacity(defaults.getIntakeQueueCapacity());
+        orderProperties.setIntakeBatchSize(defaults.getIntakeBatchSize());
+        orderProperties.setIntakeRetryAfterSeconds(defaults.getIntakeRetryAfterSeconds());
+        orderItemRepository.deleteAll();
+        ordersRepository.deleteAll();
+        addressRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentOrdersShareOneJournalSync() throws Exception {
+        OrderIntakeService intake = startNode();
+        Object syncLock = ReflectionTestUtils.getField(intake, "syncLock");
+        List<Thread> threads = new ArrayList<>();
+
+        // While a sync is in progress the other orders append their lines and wait behind it
+        synchronized (syncLock) {
+            for (int i = 0; i < 8; i++) {
+                Thread thread = new Thread(() -> intake.accept(request(addressId)));
+                thread.start();
+                threads.add(thread);
+            }
+            Path segment = Path.of(orderProperties.getIntakeJournalPath() + ".1");
+            awaitTrue(() -> readLines(segment).size() == 8);
+            assertThat(intake.getMetrics().getAcceptedOrders()).isZero();
+        }
+        for (Thread thread : threads) {
+            thread.join(WAIT_MS);
+        }
+
+        assertThat(intake.getMetrics().getAcceptedOrders()).isEqualTo(8);
+        assertThat(intake.getMetrics().getJournalSyncs()).isEqualTo(1);
+        awaitTrue(() -> ordersRepository.count() == 8);
+    }
+
+    @Test
+    void refusesOrdersWithRetryAfterWhenTheQueueIsFull() throws Exception {
+        orderProperties.setIntakeQueueCapacity(1);
+        orderProperties.setIntakeBatchSize(1);
+        orderProperties.setIntakeRetryAfterSeconds(7);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch databaseBack = new CountDownLatch(1);
+        Address address = addressRepository.findById(addressId).orElseThrow();
+        // The database stalls while the writer checks the first batch's addresses
+        doAnswer(invocation -> {
+            writing.countDown();
+            databaseBack.await(WAIT_MS, TimeUnit.MILLISECONDS);
+            return List.of(address);
+        }).when(addressRepository).findAllById(any());
+        OrderIntakeService intake = startNode();
+
+        intake.accept(request(addressId));
+        assertThat(writing.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        intake.accept(request(addressId));
+
+        assertThatThrownBy(() -> intake.accept(request(addressId)))
+                .isInstanceOfSatisfying(IntakeQueueFullException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(7));
+        assertThat(intake.getMetrics().getRejectedQueueFull()).isEqualTo(1);
+        assertThat(intake.getMetrics().getQueueDepth()).isEqualTo(1);
+
+        databaseBack.countDown();
+        awaitTrue(() -> ordersRepository.count() == 2);
+        intake.accept(request(addressId));
+        awaitTrue(() -> ordersRepository.count() == 3);
+    }
+
+    @Test
+    void replaysAcknowledgedOrdersLeftInTheJournalByACrash() throws Exception {
+        // The crashed node had written FD0001 but not FD0002, and died while appending a third line
+        Orders written = order("FD0001");
+        ordersRepository.save(written);
+        Path segment = Path.of(orderProperties.getIntakeJournalPath() + ".3");
+        Files.writeString(segment, journalLine(order("FD0001")) + journalLine(order("FD0002")) + "{\"order\":{\"ord",
+                StandardCharsets.UTF_8);
+
+        OrderIntakeService intake = startNode();
+
+        assertThat(intake.getMetrics().getReplayedOrders()).isEqualTo(1);
+        assertThat(intake.findPendingOrder("FD0001")).isEmpty();
+        awaitTrue(() -> ordersRepository.existsById("FD0002"));
+        assertThat(ordersRepository.count()).isEqualTo(2);
+        assertThat(orderItemRepository.findByOrderId("FD0002")).hasSize(1);
+        // The replayed segment is deleted once written, and new orders go to a later one
+        awaitTrue(() -> !Files.exists(segment));
+        assertThat(Path.of(orderProperties.getIntakeJournalPath() + ".4")).exists();
+    }
+
+    @Test
+    void dropsAnAcknowledgedOrderForAnUnknownAddress() throws Exception {
+        OrderIntakeService intake = startNode();
+
+        String dropped = intake.accept(request(addressId + 1000)).getOrderId();
+        String kept = intake.accept(request(addressId)).getOrderId();
+
+        awaitTrue(() -> intake.getMetrics().getPersistedOrders() + intake.getMetrics().getFailedOrders() == 2);
+        assertThat(intake.getMetrics().getFailedOrders()).isEqualTo(1);
+        assertThat(ordersRepository.existsById(dropped)).isFalse();
+        assertThat(ordersRepository.existsById(kept)).isTrue();
+    }
+
+    private OrderIntakeService startNode() {
+        OrderIntakeService intake = beanFactory.createBean(OrderIntakeService.class);
+        nodes.add(intake);
+        return intake;
+    }
+
+    private OrderRequest request(Integer addressId) {
+        return OrderRequest.builder()
+                .restaurantId(RESTAURANT_ID).customerName("Pat Doe").addressId(addressId)
+                .items(List.of(OrderItemRequest.builder().menuItemId(1).quantity(2).build()))
+                .build();
+    }
+
+    private Orders order(String orderId) {
+        return OrderService.buildOrder(orderId, request(addressId), new PricingEngine.PriceQuote(1000, 100, 0, 1100),
+                LocalDateTime.now(), null);
+    }
+
+    private String journalLine(Orders order) throws IOException {
+        return objectMapper.writeValueAsString(new OrderIntakeService.JournalEntry(order,
+                OrderService.buildItems(order.getOrderId(), Map.of(1, 2)))) + "\n";
+    }
+
+    private static List<String> readLines(Path file) {
+        try {
+            return Files.exists(file) ? Files.readAllLines(file) : List.of();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waited %d ms", WAIT_MS).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
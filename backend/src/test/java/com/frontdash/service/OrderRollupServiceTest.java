@@ -0,0 +1,169 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.OrderHourlyRollupResponse;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.RollupWatermark;
+import com.frontdash.repository.OrderHourlyRollupRepository;
+import com.frontdash.repository.OrdersRepository;
+import com.frontdash.repository.RollupWatermarkRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderRollupService.class, OrderService.class, OrderHydrator.class, OrderProperties.class})
+// Each run commits its buckets and watermark, as the scheduled job does
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderRollupServiceTest {
+
+    private static final int RESTAURANT_ID = 1;
+    // An hour three days back, long before the watermark of any run in these tests
+    private static final LocalDateTime OLD_HOUR = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderHourlyRollupRepository orderHourlyRollupRepository;
+
+    @Autowired
+    private RollupWatermarkRepository rollupWatermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private OrderIdAllocator orderIdAllocator;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockBean
+    private OrderIntakeService orderIntakeService;
+
+    @MockBean
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    @BeforeEach
+    void setUp() {
+        // H2 has no DATE_FORMAT; the bucket queries only use it to truncate order_time to the hour
+        jdbcTemplate.execute("""
+                CREATE ALIAS IF NOT EXISTS DATE_FORMAT AS '
+                String hourBucket(java.sql.Timestamp time, String format) {
+                    return new java.text.SimpleDateFormat("yyyy-MM-dd HH:00:00").format(time);
+                }'
+                """);
+        orderProperties.setRollupSettleSeconds(0);
+        delivered("FD0001", OLD_HOUR.plusMinutes(5), 20);
+        delivered("FD0002", OLD_HOUR.plusMinutes(10), 30);
+        delivered("FD0003", OLD_HOUR.plusMinutes(40), 40);
+        // Placed and last changed days ago
+        jdbcTemplate.update("UPDATE Orders SET updated_at = order_time");
+        orderRollupService.aggregate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ordersRepository.deleteAll();
+        orderHourlyRollupRepository.deleteAll();
+        rollupWatermarkRepository.deleteAll();
+        orderProperties.setRollupSettleSeconds(60);
+    }
+
+    @Test
+    void aggregatesEveryHourOnTheFirstRun() {
+        OrderHourlyRollupResponse hour = oldHour();
+
+        assertThat(hour.getOrderCount()).isEqualTo(3);
+        assertThat(hour.getDeliveredCount()).isEqualTo(3);
+        assertThat(hour.getRevenue()).isEqualByComparingTo("75.00");
+        assertThat(hour.getP50DeliverySeconds()).isEqualTo(30 * 60);
+        assertThat(hour.getP90DeliverySeconds()).isEqualTo(40 * 60);
+    }
+
+    @Test
+    void aLateDeliveryTimeCorrectionRecomputesTheOldHour() {
+        orderService.updateDeliveryTime("FD0001", OLD_HOUR.plusMinutes(5 + 90));
+
+        orderRollupService.aggregate();
+
+        OrderHourlyRollupResponse hour = oldHour();
+        assertThat(hour.getOrderCount()).isEqualTo(3);
+        assertThat(hour.getTimedDeliveries()).isEqualTo(3);
+        assertThat(hour.getP50DeliverySeconds()).isEqualTo(40 * 60);
+        assertThat(hour.getP90DeliverySeconds()).isEqualTo(90 * 60);
+        assertThat(hour.getAvgDeliverySeconds()).isEqualTo((30 + 40 + 90) * 60 / 3);
+    }
+
+    @Test
+    void rerunningFromTheSameWatermarkDoesNotDoubleCount() {
+        LocalDateTime watermark = rollupWatermarkRepository.findById(OrderRollupService.HOURLY_JOB).orElseThrow().getWatermark();
+        orderService.updateDeliveryTime("FD0002", OLD_HOUR.plusMinutes(10 + 50));
+        orderRollupService.aggregate();
+
+        // A run that failed to save its watermark is repeated over the same changes
+        rollupWatermarkRepository.save(RollupWatermark.builder()
+                .jobName(OrderRollupService.HOURLY_JOB).watermark(watermark).build());
+        orderRollupService.aggregate();
+        orderRollupService.aggregate();
+
+        OrderHourlyRollupResponse hour = oldHour();
+        assertThat(hour.getOrderCount()).isEqualTo(3);
+        assertThat(hour.getDeliveredCount()).isEqualTo(3);
+        assertThat(hour.getTimedDeliveries()).isEqualTo(3);
+        assertThat(hour.getRevenue()).isEqualByComparingTo("75.00");
+        assertThat(hour.getP90DeliverySeconds()).isEqualTo(50 * 60);
+        assertThat(orderHourlyRollupRepository.count()).isEqualTo(1);
+    }
+
+    private OrderHourlyRollupResponse oldHour() {
+        List<OrderHourlyRollupResponse> hours = orderRollupService.getHourlyRollups(RESTAURANT_ID, OLD_HOUR, OLD_HOUR.plusHours(1));
+        assertThat(hours).hasSize(1);
+        return hours.get(0);
+    }
+
+    private void delivered(String orderId, LocalDateTime orderTime, int minutes) {
+        ordersRepository.save(Orders.builder()
+                .orderId(orderId)
+                .restaurantId(RESTAURANT_ID)
+                .customerName("Customer")
+                .orderTime(orderTime)
+                .orderStatus(Orders.OrderStatus.DELIVERED)
+                .deliveryTime(orderTime.plusMinutes(minutes))
+                .totalAmount(new BigDecimal("25.00"))
+                .tips(new BigDecimal("3.00"))
+                .build());
+    }
+}
@@ -0,0 +1,174 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.entity.Driver;
+import com.frontdash.entity.Orders;
+import com.frontdash.exception.OrderConflictException;
+import com.frontdash.repository.DriverRepository;
+import com.frontdash.repository.OrdersRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderHydrator.class, OrderProperties.class})
+// Each racing call must commit on its own, as it does behind the controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderTransitionConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @MockBean
+    private OrderIdAllocator orderIdAllocator;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockBean
+    private OrderIntakeService orderIntakeService;
+
+    @MockBean
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROUNDS; i++) {
+            ordersRepository.save(Orders.builder()
+                    .orderId(OrderIdAllocator.format(i + 1))
+                    .customerName("Customer " + i)
+                    .orderTime(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(i))
+                    .orderStatus(Orders.OrderStatus.PENDING)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        ordersRepository.deleteAll();
+        driverRepository.deleteAll();
+    }
+
+    @Test
+    void twoDispatchersAssigningOneOrderLeaveTheLosingDriverAvailable() throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            String orderId = OrderIdAllocator.format(i + 1);
+            Integer first = availableDriver();
+            Integer second = availableDriver();
+
+            List<Outcome> outcomes = race(
+                    () -> orderService.assignDriver(orderId, first),
+                    () -> orderService.assignDriver(orderId, second));
+
+            assertThat(outcomes).containsExactlyInAnyOrder(Outcome.APPLIED, Outcome.CONFLICT);
+            Orders order = ordersRepository.findById(orderId).orElseThrow();
+            Integer winner = outcomes.get(0) == Outcome.APPLIED ? first : second;
+            Integer loser = winner.equals(first) ? second : first;
+            assertThat(order.getOrderStatus()).isEqualTo(Orders.OrderStatus.OUT_FOR_DELIVERY);
+            assertThat(order.getAssignedDriverId()).isEqualTo(winner);
+            assertThat(availability(winner)).isEqualTo(Driver.AvailabilityStatus.BUSY);
+            // The loser's driver claim rolled back with its transaction
+            assertThat(availability(loser)).isEqualTo(Driver.AvailabilityStatus.AVAILABLE);
+        }
+    }
+
+    @Test
+    void competingFinalStatusesApplyExactlyOnce() throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            String orderId = OrderIdAllocator.format(i + 1);
+            Integer driverId = availableDriver();
+            orderService.assignDriver(orderId, driverId);
+
+            List<Outcome> outcomes = race(
+                    () -> orderService.updateOrderStatus(orderId, Orders.OrderStatus.NOT_DELIVERED),
+                    () -> orderService.updateDeliveryTime(orderId, LocalDateTime.of(2024, 1, 1, 13, 0)));
+
+            assertThat(outcomes).containsExactlyInAnyOrder(Outcome.APPLIED, Outcome.CONFLICT);
+            Orders order = ordersRepository.findById(orderId).orElseThrow();
+            Orders.OrderStatus expected = outcomes.get(0) == Outcome.APPLIED
+                    ? Orders.OrderStatus.NOT_DELIVERED : Orders.OrderStatus.DELIVERED;
+            assertThat(order.getOrderStatus()).isEqualTo(expected);
+            assertThat(order.getDeliveryTime() != null).isEqualTo(expected == Orders.OrderStatus.DELIVERED);
+            assertThat(availability(driverId)).isEqualTo(Driver.AvailabilityStatus.AVAILABLE);
+        }
+    }
+
+    private List<Outcome> race(Callable<?> first, Callable<?> second) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (Callable<?> call : List.of(first, second)) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    call.call();
+                    return Outcome.APPLIED;
+                } catch (OrderConflictException e) {
+                    return Outcome.CONFLICT;
+                }
+            }));
+        }
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            try {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                throw new AssertionError("Racing call failed with something other than a conflict", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private Integer availableDriver() {
+        return driverRepository.save(Driver.builder()
+                .firstname("Driver").lastname("Test")
+                .availabilityStatus(Driver.AvailabilityStatus.AVAILABLE)
+                .build()).getDriverId();
+    }
+
+    private Driver.AvailabilityStatus availability(Integer driverId) {
+        return driverRepository.findById(driverId).orElseThrow().getAvailabilityStatus();
+    }
+
+    private enum Outcome {
+        APPLIED, CONFLICT
+    }
+}
@@ -0,0 +1,68 @@
+package com.frontdash.service;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.frontdash.entity.ServiceCharge;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.ServiceChargeRepository;
+
+/**
+ * Prices a 20-line cart against a warm price cache. Run with -prof gc to see bytes allocated per quote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private PricingEngine pricingEngine;
+    private Map<Integer, Integer> cart;
+    private BigDecimal tips;
+
+    @Setup
+    public void setUp() {
+        MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+        ServiceChargeRepository serviceChargeRepository = mock(ServiceChargeRepository.class);
+        when(menuItemRepository.findPriceRowsByMenuItemIdIn(anyCollection()))
+                .thenAnswer(invocation -> PricingEngineTest.priceRows(invocation.getArgument(0)));
+        when(serviceChargeRepository.findAll()).thenReturn(List.of(ServiceCharge.builder().build()));
+
+        pricingEngine = new PricingEngine();
+        ReflectionTestUtils.setField(pricingEngine, "menuItemRepository", menuItemRepository);
+        ReflectionTestUtils.setField(pricingEngine, "serviceChargeRepository", serviceChargeRepository);
+        cart = PricingEngineTest.cart(20);
+        tips = new BigDecimal("2.50");
+        pricingEngine.quote(PricingEngineTest.RESTAURANT_ID, cart, tips);
+    }
+
+    @Benchmark
+    public PricingEngine.PriceQuote quoteTwentyLines() {
+        return pricingEngine.quote(PricingEngineTest.RESTAURANT_ID, cart, null);
+    }
+
+    @Benchmark
+    public PricingEngine.PriceQuote quoteTwentyLinesWithTips() {
+        return pricingEngine.quote(PricingEngineTest.RESTAURANT_ID, cart, tips);
+    }
+}
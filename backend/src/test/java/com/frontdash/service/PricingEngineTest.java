@@ -0,0 +1,101 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.ServiceCharge;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.ServiceChargeRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PricingEngineTest {
+
+    static final int RESTAURANT_ID = 7;
+    private static final int QUOTES = 20_000;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private ServiceChargeRepository serviceChargeRepository;
+
+    @InjectMocks
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        when(menuItemRepository.findPriceRowsByMenuItemIdIn(anyCollection()))
+                .thenAnswer(invocation -> priceRows(invocation.getArgument(0)));
+        when(serviceChargeRepository.findAll()).thenReturn(List.of(ServiceCharge.builder().build()));
+    }
+
+    @Test
+    void pricesACartInCents() {
+        PricingEngine.PriceQuote quote = pricingEngine.quote(RESTAURANT_ID, cart(20), new BigDecimal("2.50"));
+
+        // Item i costs i + 0.99, one of each: 20 * 0.99 + (1 + ... + 20) = 229.80; 8.25% service charge
+        assertThat(quote.subtotal()).isEqualByComparingTo("229.80");
+        assertThat(quote.serviceCharge()).isEqualByComparingTo("18.96");
+        assertThat(quote.total()).isEqualByComparingTo("251.26");
+    }
+
+    @Test
+    void allocationPerQuoteDoesNotGrowWithTheCart() {
+        Map<Integer, Integer> oneLine = cart(1);
+        Map<Integer, Integer> twentyLines = cart(20);
+
+        long oneLineBytes = bytesPerQuote(oneLine);
+        long twentyLineBytes = bytesPerQuote(twentyLines);
+
+        // A warm quote allocates only its result and the entry-set iterator, whatever the number of lines
+        assertThat(twentyLineBytes).isLessThanOrEqualTo(oneLineBytes + 16).isLessThan(512);
+    }
+
+    private long bytesPerQuote(Map<Integer, Integer> cart) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // Warm up so the snapshots are cached and the loop is compiled
+        for (int i = 0; i < QUOTES; i++) {
+            pricingEngine.quote(RESTAURANT_ID, cart, null);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < QUOTES; i++) {
+            pricingEngine.quote(RESTAURANT_ID, cart, null);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / QUOTES;
+    }
+
+    static Map<Integer, Integer> cart(int lines) {
+        Map<Integer, Integer> cart = new HashMap<>();
+        for (int id = 1; id <= lines; id++) {
+            cart.put(id, 1);
+        }
+        return cart;
+    }
+
+    // Item i belongs to RESTAURANT_ID and costs i + 0.99
+    static List<Object[]> priceRows(Collection<Integer> menuItemIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Integer id : menuItemIds) {
+            rows.add(new Object[] {id, RESTAURANT_ID, new BigDecimal(id + ".99"), MenuItem.AvailabilityStatus.AVAILABLE});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,187 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.config.CatalogProperties;
+import com.frontdash.dao.response.NearbyRestaurantPageResponse;
+import com.frontdash.dao.response.NearbyRestaurantResponse;
+import com.frontdash.entity.Address;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.repository.AddressRepository;
+import com.frontdash.repository.RestaurantRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({RestaurantService.class, RestaurantGeoIndex.class, ZipCentroids.class, CatalogProperties.class})
+// The index reads committed rows when it refreshes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RestaurantGeoIndexTest {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private ZipCentroids zipCentroids;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private PricingEngine pricingEngine;
+
+    @MockBean
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @MockBean
+    private CatalogVersions catalogVersions;
+
+    @MockBean
+    private RestaurantListSnapshots restaurantListSnapshots;
+
+    @MockBean
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @MockBean
+    private OpenHoursIndex openHoursIndex;
+
+    @MockBean
+    private CatalogChangeNotifier catalogChangeNotifier;
+
+    private final List<Restaurant> restaurants = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        restaurant("Faneuil Grill", "02109", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("West End Deli", "02114", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("Back Bay Bistro", "02116", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("Back Bay Noodles", "02116", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("Charlestown Pizza", "02129", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("Fenway Franks", "02215", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("Allston Tacos", "02134", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("West Roxbury Diner", "02132", Restaurant.RestaurantStatus.ACTIVE);
+        restaurant("Pending Place", "02110", Restaurant.RestaurantStatus.NEW_REG);
+        restaurant("Nowhere Cafe", "99999", Restaurant.RestaurantStatus.ACTIVE);
+        refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantRepository.deleteAll();
+        addressRepository.deleteAll();
+        refresh();
+        restaurants.clear();
+    }
+
+    @Test
+    void shipsCentroidsForTheSeededRestaurants() {
+        // Zip codes of the restaurants in demo_data.sql
+        for (String zip : List.of("02132", "02129", "02125")) {
+            assertThat(zipCentroids.find(zip)).as(zip).isNotNull();
+        }
+        assertThat(zipCentroids.find("02129-1234")).isEqualTo(zipCentroids.find("02129"));
+    }
+
+    @Test
+    void listsActiveRestaurantsNearestFirstWithinTheRadius() {
+        List<NearbyRestaurantResponse> items = restaurantService.getRestaurantsNear("02108", null, 8, null, 100).getItems();
+
+        assertThat(items).extracting(item -> item.getRestaurant().getName()).containsExactly(
+                "West End Deli", "Back Bay Bistro", "Back Bay Noodles", "Faneuil Grill", "Charlestown Pizza",
+                "Fenway Franks", "Allston Tacos");
+        assertThat(items).extracting(NearbyRestaurantResponse::getDistanceKm).isSorted();
+        // Same zip code, same distance: ordered by id
+        assertThat(items.get(1).getDistanceKm()).isEqualTo(items.get(2).getDistanceKm());
+        assertThat(items.get(0).getDistanceKm()).isBetween(0.5, 0.7);
+
+        assertThat(restaurantService.getRestaurantsNear("02108", null, 20, null, 100).getItems())
+                .extracting(item -> item.getRestaurant().getName()).endsWith("West Roxbury Diner");
+    }
+
+    @Test
+    void pagesThroughEveryRestaurantOnceInDistanceOrder() {
+        List<NearbyRestaurantResponse> all = restaurantService.getRestaurantsNear("02108", null, 20, null, 100).getItems();
+
+        List<NearbyRestaurantResponse> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NearbyRestaurantPageResponse page = restaurantService.getRestaurantsNear("02108", null, 20, cursor, 3);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(3);
+            paged.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(paged).extracting(item -> item.getRestaurant().getRestaurantId())
+                .containsExactlyElementsOf(all.stream().map(item -> item.getRestaurant().getRestaurantId()).toList())
+                .doesNotHaveDuplicates();
+        assertThat(paged).isSortedAccordingTo(Comparator.comparingDouble(NearbyRestaurantResponse::getDistanceKm)
+                .thenComparing(item -> item.getRestaurant().getRestaurantId()));
+    }
+
+    @Test
+    void movesARestaurantWhenItsAddressChanges() {
+        Restaurant diner = restaurants.get(7);
+        Address address = addressRepository.findById(diner.getAddressId()).orElseThrow();
+        address.setZipCode("02113");
+        addressRepository.save(address);
+        restaurantGeoIndex.restaurantChanged(diner.getRestaurantId());
+        restaurantGeoIndex.refresh();
+
+        assertThat(restaurantService.getRestaurantsNear("02108", null, 2, null, 100).getItems())
+                .extracting(item -> item.getRestaurant().getName()).contains("West Roxbury Diner");
+    }
+
+    @Test
+    void rejectsUnknownZipCodesAndBadCursors() {
+        assertThatThrownBy(() -> restaurantService.getRestaurantsNear("99999", null, 5, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> restaurantService.getRestaurantsNear("02108", null, 5, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void refresh() {
+        for (Restaurant restaurant : restaurants) {
+            restaurantGeoIndex.restaurantChanged(restaurant.getRestaurantId());
+        }
+        restaurantGeoIndex.refresh();
+    }
+
+    private void restaurant(String name, String zipCode, Restaurant.RestaurantStatus status) {
+        Integer addressId = addressRepository.save(Address.builder()
+                .streetAddress("1 Main Street").city("Boston").state("MA").zipCode(zipCode).build()).getAddressId();
+        restaurants.add(restaurantRepository.save(Restaurant.builder()
+                .name(name).addressId(addressId).status(status).build()));
+    }
+}
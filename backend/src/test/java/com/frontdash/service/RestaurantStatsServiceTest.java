@@ -0,0 +1,113 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.response.RestaurantOrderStatsResponse;
+import com.frontdash.entity.Orders;
+import com.frontdash.event.OrderEvent;
+import com.frontdash.event.OrderEventType;
+import com.frontdash.repository.OrderOutboxRepository;
+import com.frontdash.repository.OrdersRepository;
+import com.frontdash.repository.RestaurantDailyStatsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantStatsServiceTest {
+
+    @Mock
+    private OrdersRepository ordersRepository;
+
+    @Mock
+    private RestaurantDailyStatsRepository restaurantDailyStatsRepository;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private OrderProperties orderProperties = new OrderProperties();
+
+    @InjectMocks
+    private RestaurantStatsService restaurantStatsService;
+
+    private final LocalDateTime orderTime = LocalDateTime.now().withHour(12).withMinute(0);
+
+    @BeforeEach
+    void setUp() {
+        restaurantStatsService.init();
+    }
+
+    @Test
+    void rebuildReadsTheWatermarkAndTheAggregateInOneSnapshot() {
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        InOrder inOrder = inOrder(transactionManager, orderOutboxRepository, ordersRepository);
+
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(orderOutboxRepository).findMaxEventId();
+        inOrder.verify(ordersRepository).aggregateDailyStatsSince(any());
+        inOrder.verify(transactionManager).commit(any());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        assertThat(definition.getValue().getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Test
+    void redeliveredEventsAreCountedOnce() {
+        OrderEvent created = event(1L, OrderEventType.CREATED, null, Orders.OrderStatus.PENDING);
+        OrderEvent delivered = event(2L, OrderEventType.DELIVERED, Orders.OrderStatus.PENDING, Orders.OrderStatus.DELIVERED);
+        delivered.setDeliveryTime(orderTime.plusMinutes(30));
+
+        restaurantStatsService.onOrderEvent(created);
+        restaurantStatsService.onOrderEvent(delivered);
+        // The relay replays the batch after its delete failed to commit
+        restaurantStatsService.onOrderEvent(created);
+        restaurantStatsService.onOrderEvent(delivered);
+
+        RestaurantOrderStatsResponse stats = restaurantStatsService.getStats(1, orderTime.toLocalDate());
+        assertThat(stats.getTotalOrders()).isEqualTo(1);
+        assertThat(stats.getPendingOrders()).isZero();
+        assertThat(stats.getDeliveredOrders()).isEqualTo(1);
+        assertThat(stats.getRevenue()).isEqualByComparingTo("25.00");
+        assertThat(stats.getAverageDeliveryMinutes()).isEqualTo(30.0);
+    }
+
+    @Test
+    void eventsWithoutAnOutboxIdAreNotDeduplicated() {
+        restaurantStatsService.onOrderEvent(event(null, OrderEventType.CREATED, null, Orders.OrderStatus.PENDING));
+        restaurantStatsService.onOrderEvent(event(null, OrderEventType.CREATED, null, Orders.OrderStatus.PENDING));
+
+        assertThat(restaurantStatsService.getStats(1, orderTime.toLocalDate()).getTotalOrders()).isEqualTo(2);
+    }
+
+    private OrderEvent event(Long eventId, OrderEventType type, Orders.OrderStatus previous, Orders.OrderStatus current) {
+        return OrderEvent.builder()
+                .eventId(eventId)
+                .type(type)
+                .orderId("FD0001")
+                .restaurantId(1)
+                .previousStatus(previous)
+                .orderStatus(current)
+                .totalAmount(new BigDecimal("25.00"))
+                .tips(new BigDecimal("3.00"))
+                .orderTime(orderTime)
+                .build();
+    }
+}
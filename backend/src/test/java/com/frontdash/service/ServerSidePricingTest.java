@@ -0,0 +1,166 @@
+package com.frontdash.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.frontdash.config.OrderProperties;
+import com.frontdash.dao.request.OrderItemRequest;
+import com.frontdash.dao.request.OrderRequest;
+import com.frontdash.dao.response.OrderResponse;
+import com.frontdash.entity.MenuCategory;
+import com.frontdash.entity.MenuItem;
+import com.frontdash.entity.Orders;
+import com.frontdash.entity.Restaurant;
+import com.frontdash.entity.ServiceCharge;
+import com.frontdash.repository.MenuCategoryRepository;
+import com.frontdash.repository.MenuItemRepository;
+import com.frontdash.repository.OrderItemRepository;
+import com.frontdash.repository.OrdersRepository;
+import com.frontdash.repository.RestaurantRepository;
+import com.frontdash.repository.ServiceChargeRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderHydrator.class, PricingEngine.class, OrderProperties.class})
+// Price snapshots are dropped after commit, so updates have to really commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServerSidePricingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ServiceChargeRepository serviceChargeRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @MockBean
+    private OrderIdAllocator orderIdAllocator;
+
+    @MockBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockBean
+    private OrderIntakeService orderIntakeService;
+
+    @MockBean
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    private Integer restaurantId;
+    private MenuItem burger;
+    private MenuItem fries;
+
+    @BeforeEach
+    void setUp() {
+        when(orderIdAllocator.nextOrderId()).thenReturn("FD0001", "FD0002", "FD0003");
+        serviceChargeRepository.save(ServiceCharge.builder().percentage(new BigDecimal("10.00")).build());
+        restaurantId = restaurantRepository.save(Restaurant.builder()
+                .name("Pricing Test").status(Restaurant.RestaurantStatus.ACTIVE).build()).getRestaurantId();
+        Integer categoryId = menuCategoryRepository.save(MenuCategory.builder()
+                .restaurantId(restaurantId).categoryName("Mains").build()).getCategoryId();
+        burger = menuItemRepository.save(MenuItem.builder()
+                .categoryId(categoryId).itemName("Burger").price(new BigDecimal("9.99")).build());
+        fries = menuItemRepository.save(MenuItem.builder()
+                .categoryId(categoryId).itemName("Fries").price(new BigDecimal("3.50")).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAll();
+        ordersRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        menuCategoryRepository.deleteAll();
+        restaurantRepository.deleteAll();
+        serviceChargeRepository.deleteAll();
+        pricingEngine.invalidateServiceCharge();
+    }
+
+    @Test
+    void ignoresTheSubtotalSentByTheClient() {
+        OrderRequest request = request(new BigDecimal("0.01"), new BigDecimal("2.00"),
+                new OrderItemRequest(burger.getMenuItemId(), 2), new OrderItemRequest(fries.getMenuItemId(), 1));
+
+        OrderResponse response = orderService.createOrder(request);
+
+        // 2 x 9.99 + 3.50 = 23.48, 10% service charge 2.35, tips 2.00
+        assertThat(response.getSubtotal()).isEqualByComparingTo("23.48");
+        assertThat(response.getServiceCharge()).isEqualByComparingTo("2.35");
+        assertThat(response.getTotalAmount()).isEqualByComparingTo("27.83");
+        Orders saved = ordersRepository.findById(response.getOrderId()).orElseThrow();
+        assertThat(saved.getSubtotal()).isEqualByComparingTo("23.48");
+        assertThat(saved.getTotalAmount()).isEqualByComparingTo("27.83");
+    }
+
+    @Test
+    void usesTheNewPriceOnceAMenuChangeCommits() {
+        orderService.createOrder(request(null, null, new OrderItemRequest(burger.getMenuItemId(), 1)));
+
+        burger.setPrice(new BigDecimal("12.00"));
+        menuItemRepository.save(burger);
+        pricingEngine.invalidateMenuItem(burger.getMenuItemId());
+
+        OrderResponse response = orderService.createOrder(request(new BigDecimal("9.99"), null,
+                new OrderItemRequest(burger.getMenuItemId(), 1)));
+        assertThat(response.getSubtotal()).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    void rejectsItemsFromAnotherRestaurantOrUnavailable() {
+        Integer otherRestaurant = restaurantRepository.save(Restaurant.builder()
+                .name("Other").status(Restaurant.RestaurantStatus.ACTIVE).build()).getRestaurantId();
+        OrderRequest wrongRestaurant = request(null, null, new OrderItemRequest(burger.getMenuItemId(), 1));
+        wrongRestaurant.setRestaurantId(otherRestaurant);
+        assertThatThrownBy(() -> orderService.createOrder(wrongRestaurant))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        fries.setAvailability(MenuItem.AvailabilityStatus.UNAVAILABLE);
+        menuItemRepository.save(fries);
+        pricingEngine.invalidateMenuItem(fries.getMenuItemId());
+        assertThatThrownBy(() -> orderService.createOrder(request(null, null, new OrderItemRequest(fries.getMenuItemId(), 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not available");
+    }
+
+    private OrderRequest request(BigDecimal clientSubtotal, BigDecimal tips, OrderItemRequest... items) {
+        return OrderRequest.builder()
+                .restaurantId(restaurantId)
+                .customerName("Customer")
+                .subtotal(clientSubtotal)
+                .tips(tips)
+                .items(List.of(items))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.frontdash.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.frontdash.entity.Restaurant;
+
+/**
+ * A generated catalog for search benchmarks: restaurants named after cuisines, menu items built
+ * from common dish words, and a long tail of made-up house words so the vocabulary is tens of
+ * thousands of terms, as on a real catalog. The same seed gives the same catalog.
+ */
+final class SyntheticCatalog {
+
+    private static final String[] CUISINES = {"thai", "indian", "italian", "mexican", "chinese", "japanese",
+            "greek", "korean", "vietnamese", "lebanese", "french", "spanish", "turkish", "ethiopian", "american"};
+    private static final String[] PLACES = {"house", "kitchen", "garden", "palace", "corner", "express", "grill",
+            "bistro", "cafe", "diner", "table", "street", "market", "cantina", "tavern"};
+    private static final String[] DISHES = {"curry", "noodles", "pizza", "burger", "salad", "soup", "tacos",
+            "burrito", "ramen", "sushi", "dumplings", "pasta", "risotto", "kebab", "gyro", "falafel", "wrap",
+            "sandwich", "bowl", "stew", "pho", "bibimbap", "paella", "lasagna", "biryani", "tikka", "masala",
+            "korma", "vindaloo", "satay", "teriyaki", "tempura", "gnocchi", "ravioli", "quesadilla", "enchiladas",
+            "shawarma", "moussaka", "souvlaki", "calzone", "frittata", "omelette", "pancakes", "waffles", "crepe"};
+    private static final String[] INGREDIENTS = {"chicken", "beef", "pork", "lamb", "shrimp", "tofu", "salmon",
+            "tuna", "duck", "mushroom", "spinach", "cheese", "mozzarella", "basil", "coconut", "peanut", "garlic",
+            "ginger", "chili", "lemon", "lime", "tomato", "onion", "pepper", "eggplant", "avocado", "bean", "rice",
+            "potato", "cabbage", "carrot", "cucumber", "mint", "cilantro", "sesame", "honey", "mango", "pineapple",
+            "chickpea", "lentil", "paneer", "chorizo", "bacon", "ham", "anchovy", "olive", "feta", "yogurt"};
+    private static final String[] STYLES = {"spicy", "crispy", "grilled", "roasted", "fried", "steamed", "smoked",
+            "braised", "sweet", "sour", "tangy", "creamy", "classic", "house", "special", "fresh", "hot", "mild"};
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "tu", "ven", "sol", "bri", "dor", "pa",
+            "zen", "qui", "fa", "mor", "li", "san", "te", "vo", "gra", "nel", "ho", "cru", "bel", "dan", "ro",
+            "si", "ma", "ter", "po", "lun"};
+
+    final List<Restaurant> restaurants = new ArrayList<>();
+    // [restaurantId, menuItemId, itemName, description, categoryName, price], as the index reads them
+    final List<Object[]> rows = new ArrayList<>();
+
+    SyntheticCatalog(int restaurantCount, int itemsPerRestaurant, long seed) {
+        Random random = new Random(seed);
+        int menuItemId = 1;
+        for (int r = 1; r <= restaurantCount; r++) {
+            String cuisine = pick(random, CUISINES);
+            restaurants.add(Restaurant.builder()
+                    .restaurantId(r)
+                    .name(capitalize(houseWord(random)) + " " + capitalize(cuisine) + " " + capitalize(pick(random, PLACES)))
+                    .status(Restaurant.RestaurantStatus.ACTIVE)
+                    .build());
+            for (int i = 0; i < itemsPerRestaurant; i++) {
+                String itemName = pick(random, STYLES) + " " + pick(random, INGREDIENTS) + " " + pick(random, DISHES);
+                String description = "With " + pick(random, INGREDIENTS) + ", " + pick(random, INGREDIENTS) + " and our "
+                        + houseWord(random) + " sauce, " + pick(random, STYLES) + " " + cuisine + " style";
+                rows.add(new Object[] {r, menuItemId++, itemName, description, capitalize(pick(random, DISHES)),
+                        BigDecimal.valueOf(500 + random.nextInt(2500), 2)});
+            }
+        }
+    }
+
+    // Two to four syllables: about 800,000 possible words, so nearly every one is new
+    private static String houseWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 2 + random.nextInt(3); i > 0; i--) {
+            word.append(pick(random, SYLLABLES));
+        }
+        return word.toString();
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
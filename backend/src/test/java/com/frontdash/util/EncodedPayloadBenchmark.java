@@ -0,0 +1,108 @@
+package com.frontdash.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.dao.response.MenuItemResponse;
+
+/**
+ * Cost of answering one menu request: serializing the list with Jackson on every request, as the
+ * controllers did before, against writing the bytes of a shared EncodedPayload. The gzip variants
+ * compare compressing per response with sending the precompressed bytes. Run with -prof gc to see
+ * bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodedPayloadBenchmark {
+
+    private static final String ETAG = "\"m1-7\"";
+
+    @Param({"20", "200"})
+    private int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<MenuItemResponse> menu;
+    private EncodedPayload payload;
+
+    @Setup
+    public void setUp() {
+        menu = EncodedPayloadTest.menu(items);
+        payload = EncodedPayload.encode(objectMapper, menu);
+    }
+
+    // The controller's response before, with the list left for the message converter to serialize
+    @Benchmark
+    public void jacksonPerRequest(Blackhole blackhole) throws IOException {
+        ResponseEntity<List<MenuItemResponse>> response = ResponseEntity.ok().eTag(ETAG).cacheControl(CacheControl.noCache()).body(menu);
+        objectMapper.writeValue(new Discard(blackhole), response.getBody());
+        blackhole.consume(response.getHeaders());
+    }
+
+    // As above with server-side response compression
+    @Benchmark
+    public void jacksonGzipPerRequest(Blackhole blackhole) throws IOException {
+        ResponseEntity<List<MenuItemResponse>> response = ResponseEntity.ok().eTag(ETAG).cacheControl(CacheControl.noCache()).body(menu);
+        try (GZIPOutputStream out = new GZIPOutputStream(new Discard(blackhole))) {
+            objectMapper.writeValue(out, response.getBody());
+        }
+        blackhole.consume(response.getHeaders());
+    }
+
+    @Benchmark
+    public void encodedPayload(Blackhole blackhole) throws IOException {
+        write(payload.toResponse(null, ETAG), blackhole);
+    }
+
+    @Benchmark
+    public void encodedPayloadGzip(Blackhole blackhole) throws IOException {
+        write(payload.toResponse("gzip, deflate, br", ETAG), blackhole);
+    }
+
+    private static void write(ResponseEntity<byte[]> response, Blackhole blackhole) throws IOException {
+        new Discard(blackhole).write(response.getBody());
+        blackhole.consume(response.getHeaders());
+    }
+
+    // Stands in for the servlet output stream
+    private static final class Discard extends OutputStream {
+        private final Blackhole blackhole;
+
+        Discard(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
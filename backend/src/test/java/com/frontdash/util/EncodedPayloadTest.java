@@ -0,0 +1,119 @@
+package com.frontdash.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.dao.response.MenuItemResponse;
+
+class EncodedPayloadTest {
+
+    private static final String ETAG = "\"m1-7\"";
+    private static final int RESPONSES = 10_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<MenuItemResponse> menu = List.of(
+            MenuItemResponse.builder().menuItemId(1).itemName("Burger").price(new BigDecimal("9.99")).build(),
+            MenuItemResponse.builder().menuItemId(2).itemName("Crème brûlée").price(new BigDecimal("6.50")).build());
+
+    @Test
+    void gzipAndIdentityCarryTheSameJson() throws IOException {
+        EncodedPayload payload = EncodedPayload.encode(objectMapper, menu);
+
+        ResponseEntity<byte[]> identity = payload.toResponse(null, ETAG);
+        ResponseEntity<byte[]> gzip = payload.toResponse("gzip, deflate, br", ETAG);
+
+        assertThat(identity.getBody()).isEqualTo(objectMapper.writeValueAsBytes(menu));
+        assertThat(gunzip(gzip.getBody())).isEqualTo(identity.getBody());
+    }
+
+    @Test
+    void labelsEachRepresentation() {
+        EncodedPayload payload = EncodedPayload.encode(objectMapper, menu);
+
+        ResponseEntity<byte[]> identity = payload.toResponse("identity", ETAG);
+        ResponseEntity<byte[]> gzip = payload.toResponse("GZIP;q=0.5", ETAG);
+
+        assertThat(identity.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(identity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(identity.getHeaders().getContentLength()).isEqualTo(identity.getBody().length);
+        assertThat(gzip.getHeaders().getETag()).isEqualTo("\"m1-7-gzip\"");
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getContentLength()).isEqualTo(gzip.getBody().length);
+        assertThat(gzip.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(identity.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void sendsIdentityWhenGzipIsRefused() {
+        EncodedPayload payload = EncodedPayload.encode(objectMapper, menu);
+
+        assertThat(payload.toResponse("gzip;q=0, identity", ETAG).getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(payload.toResponse("*;q=0.0", ETAG).getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(payload.toResponse("*", ETAG).getHeaders().getETag()).isEqualTo("\"m1-7-gzip\"");
+        assertThat(EncodedPayload.notModified("gzip", ETAG).getHeaders().getETag()).isEqualTo("\"m1-7-gzip\"");
+        assertThat(EncodedPayload.notModified(null, ETAG).getHeaders().getETag()).isEqualTo(ETAG);
+    }
+
+    @Test
+    void servingAPayloadDoesNotCopyItsBytes() {
+        EncodedPayload small = EncodedPayload.encode(objectMapper, menu(20));
+        EncodedPayload large = EncodedPayload.encode(objectMapper, menu(2000));
+
+        long smallBytes = bytesPerResponse(small);
+        long largeBytes = bytesPerResponse(large);
+
+        // Only the response and its headers are allocated, whatever the size of the body
+        assertThat(large.toResponse("gzip", ETAG).getBody().length).isGreaterThan(10_000);
+        assertThat(largeBytes).isLessThanOrEqualTo(smallBytes + 64).isLessThan(8 * 1024);
+    }
+
+    private static long bytesPerResponse(EncodedPayload payload) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < RESPONSES; i++) {
+            payload.toResponse(i % 2 == 0 ? "gzip" : null, ETAG);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < RESPONSES; i++) {
+            payload.toResponse(i % 2 == 0 ? "gzip" : null, ETAG);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / RESPONSES;
+    }
+
+    // A realistic menu row: every field set, a sentence of description and a picture URL
+    static List<MenuItemResponse> menu(int items) {
+        List<MenuItemResponse> menu = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            menu.add(MenuItemResponse.builder()
+                    .menuItemId(i)
+                    .categoryId(i % 8)
+                    .categoryName("Category " + i % 8)
+                    .itemName("Menu item " + i)
+                    .description("House favourite number " + i + ", made fresh to order with seasonal ingredients")
+                    .pictureUrl("https://cdn.frontdash.example/menu/" + i + ".jpg")
+                    .price(new BigDecimal(i % 30 + ".99"))
+                    .availability("AVAILABLE")
+                    .build());
+        }
+        return menu;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
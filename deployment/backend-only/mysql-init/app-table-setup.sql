@@ -1,6 +1,8 @@
 -- app-table-setup.sql
 -- Database schema for FrontDash application
 -- This file sets up the tables for the FrontDash database
+-- It matches migration V1__baseline; later schema changes are Flyway migrations in
+-- backend/src/main/resources/db/migration and are applied when the backend starts.
 
 -- Create database if it doesn't exist
 CREATE DATABASE IF NOT EXISTS frontdash_db;
@@ -105,9 +105,10 @@ export function OrderConfirmation() {
       }
 
       try {
-        // Calculate subtotal and tips (service charge)
+        // The backend prices the order from menu prices and adds the service charge itself,
+        // so only the customer's tip is sent on top (the cart does not collect one yet)
         const subtotal = orderSnapshot.items.reduce((total, item) => total + (item.price * item.quantity), 0);
-        const tips = subtotal * 0.0825;
+        const tips = 0;
 
         // Calculate estimated delivery time as DateTime
         const estimatedDeliveryDateTime = new Date(orderSnapshot.orderDate.getTime() + (estimatedDeliveryMinutes * 60000));
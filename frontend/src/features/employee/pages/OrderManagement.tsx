@@ -111,6 +111,45 @@ interface Driver {
   availabilityStatus: string;
 }
 
+// Order listings are paged by the backend; each list keeps the cursor of its next page
+type OrderList = "queue" | "active" | "delivered" | "notDelivered";
+
+const ORDER_LISTS: Record<OrderList, { status: string; hasDriver: boolean }> = {
+  queue: { status: "PENDING", hasDriver: false }, // PENDING orders with no drivers
+  active: { status: "OUT_FOR_DELIVERY", hasDriver: true }, // OUT_FOR_DELIVERY orders with drivers
+  delivered: { status: "DELIVERED", hasDriver: true },
+  notDelivered: { status: "NOT_DELIVERED", hasDriver: true },
+};
+
+const NO_CURSORS: Record<OrderList, string | null> = {
+  queue: null,
+  active: null,
+  delivered: null,
+  notDelivered: null,
+};
+
+// Transform API data to match our Order interface
+const transformOrder = (apiOrder: any): Order => ({
+  orderId: apiOrder.orderId,
+  customer: apiOrder.customerName,
+  customerPhone: apiOrder.customerPhone,
+  restaurant: apiOrder.restaurant,
+  deliveryAddress: apiOrder.deliveryAddress,
+  items: apiOrder.items || [],
+  total: parseFloat(apiOrder.totalAmount),
+  status: apiOrder.orderStatus.toLowerCase(),
+  orderTime: apiOrder.orderTime,
+  assignedDriver: apiOrder.assignedDriver,
+  estimatedDelivery: apiOrder.estimatedDeliveryTime,
+  deliveryTime: apiOrder.deliveryTime,
+});
+
+// Append a page to a list, skipping orders already moved into it locally
+const appendOrders = (orders: Order[], page: Order[]) => {
+  const seen = new Set(orders.map((order) => order.orderId));
+  return [...orders, ...page.filter((order) => !seen.has(order.orderId))];
+};
+
 export const OrderManagement: React.FC = () => {
   const [searchTerm, setSearchTerm] = useState("");
   const [selectedOrder, setSelectedOrder] = useState<Order | null>(null);
@@ -143,45 +182,37 @@ export const OrderManagement: React.FC = () => {
     loading: true,
     error: null as string | null,
   });
+  const [cursors, setCursors] = useState(NO_CURSORS);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     const fetchOrderData = async () => {
       try {
         setOrderData((prev) => ({ ...prev, loading: true, error: null }));
 
-        // Fetch orders and drivers
+        // Fetch the first page of each order list, and the drivers
         const [pendingNoDriver, outForDeliveryOrders, deliveredOrders, notDeliveredOrders, drivers] = await Promise.all([
-          orderService.getOrdersByStatus("PENDING", false), // orderQueue: PENDING orders with no drivers
-          orderService.getOrdersByStatus("OUT_FOR_DELIVERY", true), //activeOrders: OUT_FOR_DELIVERY orders with drivers
-          orderService.getOrdersByStatus("DELIVERED", true), // orderHistory: DELIVERED orders
-          orderService.getOrdersByStatus("NOT_DELIVERED", true), // orderHistory: NOT_DELIVERED orders
+          orderService.getOrdersByStatus(ORDER_LISTS.queue.status, ORDER_LISTS.queue.hasDriver),
+          orderService.getOrdersByStatus(ORDER_LISTS.active.status, ORDER_LISTS.active.hasDriver),
+          orderService.getOrdersByStatus(ORDER_LISTS.delivered.status, ORDER_LISTS.delivered.hasDriver),
+          orderService.getOrdersByStatus(ORDER_LISTS.notDelivered.status, ORDER_LISTS.notDelivered.hasDriver),
           driverService.getAllDrivers(),
         ]);
 
-        // Transform API data to match our Order interface
-        const transformOrder = (apiOrder: any): Order => ({
-          orderId: apiOrder.orderId,
-          customer: apiOrder.customerName,
-          customerPhone: apiOrder.customerPhone,
-          restaurant: apiOrder.restaurant,
-          deliveryAddress: apiOrder.deliveryAddress,
-          items: apiOrder.items || [],
-          total: parseFloat(apiOrder.totalAmount),
-          status: apiOrder.orderStatus.toLowerCase(),
-          orderTime: apiOrder.orderTime,
-          assignedDriver: apiOrder.assignedDriver,
-          estimatedDelivery: apiOrder.estimatedDeliveryTime,
-          deliveryTime: apiOrder.deliveryTime,
-        });
-
         setOrderData({
-          orderQueue: pendingNoDriver.map(transformOrder),
-          activeOrders: outForDeliveryOrders.map(transformOrder),
-          orderHistory: [...deliveredOrders.map(transformOrder), ...notDeliveredOrders.map(transformOrder)],
+          orderQueue: pendingNoDriver.items.map(transformOrder),
+          activeOrders: outForDeliveryOrders.items.map(transformOrder),
+          orderHistory: [...deliveredOrders.items.map(transformOrder), ...notDeliveredOrders.items.map(transformOrder)],
           drivers: drivers || [],
           loading: false,
           error: null,
         });
+        setCursors({
+          queue: pendingNoDriver.nextCursor,
+          active: outForDeliveryOrders.nextCursor,
+          delivered: deliveredOrders.nextCursor,
+          notDelivered: notDeliveredOrders.nextCursor,
+        });
       } catch (error) {
         console.error("Failed to fetch order data:", error);
         setOrderData((prev) => ({
@@ -195,6 +226,48 @@ export const OrderManagement: React.FC = () => {
     fetchOrderData();
   }, []);
 
+  // Fetch the next page of the given lists and append it to the orders shown
+  const loadMore = async (...lists: OrderList[]) => {
+    const pending = lists.filter((list) => cursors[list]);
+    if (pending.length === 0) return;
+    setLoadingMore(true);
+    try {
+      const pages = await Promise.all(
+        pending.map((list) =>
+          orderService.getOrdersByStatus(ORDER_LISTS[list].status, ORDER_LISTS[list].hasDriver, cursors[list])
+        )
+      );
+      const nextCursors = { ...cursors };
+      const loaded: Record<OrderList, Order[]> = { queue: [], active: [], delivered: [], notDelivered: [] };
+      pending.forEach((list, i) => {
+        loaded[list] = pages[i].items.map(transformOrder);
+        nextCursors[list] = pages[i].nextCursor;
+      });
+      setOrderData((prev) => ({
+        ...prev,
+        orderQueue: appendOrders(prev.orderQueue, loaded.queue),
+        activeOrders: appendOrders(prev.activeOrders, loaded.active),
+        orderHistory: appendOrders(prev.orderHistory, [...loaded.delivered, ...loaded.notDelivered]),
+      }));
+      setCursors(nextCursors);
+    } catch (error) {
+      console.error("Failed to load more orders:", error);
+      toast.error("Failed to load more orders");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  const renderLoadMore = (...lists: OrderList[]) =>
+    !orderData.loading && lists.some((list) => cursors[list]) ? (
+      <div className="flex justify-center">
+        <Button variant="outline" onClick={() => loadMore(...lists)} disabled={loadingMore}>
+          {loadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+          Load more
+        </Button>
+      </div>
+    ) : null;
+
   const getStatusBadge = (status: string) => {
     const statusConfig = {
       pending: { variant: "secondary" as const, icon: Clock, text: "Pending" },
@@ -378,7 +451,7 @@ export const OrderManagement: React.FC = () => {
               <CardTitle className="flex items-center space-x-2">
                 <Clock className="h-5 w-5" />
                 <span>Order Queue</span>
-                <Badge variant="secondary">{orderData.loading ? "..." : orderData.orderQueue.length}</Badge>
+                <Badge variant="secondary">{orderData.loading ? "..." : `${orderData.orderQueue.length}${cursors.queue ? "+" : ""}`}</Badge>
               </CardTitle>
               <CardDescription>New orders waiting to be processed</CardDescription>
             </CardHeader>
@@ -554,6 +627,7 @@ export const OrderManagement: React.FC = () => {
                     )}
                   </TableBody>
                 </Table>
+                {renderLoadMore("queue")}
               </div>
             </CardContent>
           </Card>
@@ -565,7 +639,7 @@ export const OrderManagement: React.FC = () => {
               <CardTitle className="flex items-center space-x-2">
                 <CheckCircle className="h-5 w-5" />
                 <span>Active Orders</span>
-                <Badge variant="default">{orderData.loading ? "..." : orderData.activeOrders.length}</Badge>
+                <Badge variant="default">{orderData.loading ? "..." : `${orderData.activeOrders.length}${cursors.active ? "+" : ""}`}</Badge>
               </CardTitle>
               <CardDescription>Orders currently being delivered</CardDescription>
             </CardHeader>
@@ -672,6 +746,7 @@ export const OrderManagement: React.FC = () => {
                     )}
                   </TableBody>
                 </Table>
+                {renderLoadMore("active")}
               </div>
             </CardContent>
           </Card>
@@ -683,7 +758,7 @@ export const OrderManagement: React.FC = () => {
               <CardTitle className="flex items-center space-x-2">
                 <History className="h-5 w-5" />
                 <span>Order History</span>
-                <Badge variant="secondary">{orderData.loading ? "..." : orderData.orderHistory.length}</Badge>
+                <Badge variant="secondary">{orderData.loading ? "..." : `${orderData.orderHistory.length}${cursors.delivered || cursors.notDelivered ? "+" : ""}`}</Badge>
               </CardTitle>
               <CardDescription>Completed and cancelled orders</CardDescription>
             </CardHeader>
@@ -757,6 +832,7 @@ export const OrderManagement: React.FC = () => {
                     )}
                   </TableBody>
                 </Table>
+                {renderLoadMore("delivered", "notDelivered")}
               </div>
             </CardContent>
           </Card>
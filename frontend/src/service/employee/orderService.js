@@ -1,26 +1,29 @@
 import { API_BASE_URL } from '../../config';
 
+// Fetch one page ({ items, nextCursor }) of a paginated order listing.
+// Pass the nextCursor of the previous page to get the page after it; it is null on the last page.
+const fetchPage = async (url, cursor, errorMessage) => {
+  const pageUrl = cursor ? `${url}${url.includes('?') ? '&' : '?'}cursor=${encodeURIComponent(cursor)}` : url;
+  const response = await fetch(pageUrl);
+  if (!response.ok) {
+    throw new Error(errorMessage);
+  }
+  return response.json();
+};
+
 export const orderService = {
-  // Get all orders
-  getAllOrders: async () => {
-    const response = await fetch(`${API_BASE_URL}/orders`);
-    if (!response.ok) {
-      throw new Error('Failed to fetch orders');
-    }
-    return response.json();
+  // Get a page of all orders, newest first
+  getAllOrders: async (cursor) => {
+    return fetchPage(`${API_BASE_URL}/orders`, cursor, 'Failed to fetch orders');
   },
 
-  // Get orders by status
-  getOrdersByStatus: async (status, hasDriver) => {
+  // Get a page of orders by status, newest first
+  getOrdersByStatus: async (status, hasDriver, cursor) => {
     let url = `${API_BASE_URL}/orders?status=${status}`;
     if (hasDriver !== undefined) {
       url += `&hasDriver=${hasDriver}`;
     }
-    const response = await fetch(url);
-    if (!response.ok) {
-      throw new Error('Failed to fetch orders by status');
-    }
-    return response.json();
+    return fetchPage(url, cursor, 'Failed to fetch orders by status');
   },
 
   // Assign driver to order